@@ -0,0 +1,50 @@
+package banking.benchmark;
+
+import banking.account.Account;
+import banking.account.CheckingAccount;
+import banking.account.InvestmentAccount;
+import banking.account.SavingsAccount;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// deposit/withdraw on the undecorated base accounts; every thread owns its account
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+
+    @Param({"savings", "checking", "investment"})
+    public String accountType;
+
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.disableEvents();
+        BigDecimal opening = BigDecimal.valueOf(1_000_000);
+        switch (accountType) {
+            case "savings" -> account = new SavingsAccount("SAV-BENCH", opening);
+            case "checking" -> account = new CheckingAccount("CHK-BENCH", opening);
+            default -> account = new InvestmentAccount("INV-BENCH", opening);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal deposit() {
+        account.deposit(AMOUNT);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public BigDecimal depositThenWithdraw() {
+        account.deposit(AMOUNT);
+        account.withdraw(AMOUNT);
+        return account.getBalance();
+    }
+}
@@ -0,0 +1,66 @@
+package banking.benchmark;
+
+import banking.account.Account;
+import banking.account.SavingsAccount;
+import banking.facade.BankingFacade;
+import banking.service.AssetAggregator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Total assets through the facade, and the raw aggregator at different sequential
+// thresholds to locate the fork/join crossover (a threshold above accountCount is sequential)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AssetsUnderManagementBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int accountCount;
+
+    @Param({"1024", "8192", "2147483647"})
+    public int sequentialThreshold;
+
+    private BankingFacade facade;
+    private List<Account> accounts;
+    private AssetAggregator aggregator;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.disableEvents();
+        BenchmarkSupport.silently(() -> {
+            facade = new BankingFacade();
+            for (int i = 0; i < accountCount; i++) {
+                facade.openAccountWithBenefits("CUST" + (i % 1000), i % 2 == 0 ? "savings" : "checking",
+                        BigDecimal.valueOf(100 + i % 5000));
+            }
+        });
+
+        accounts = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            accounts.add(new SavingsAccount(String.format("SAV-%08d", i), BigDecimal.valueOf(100 + i % 5000)));
+        }
+        aggregator = new AssetAggregator(ForkJoinPool.commonPool(), sequentialThreshold);
+    }
+
+    @TearDown
+    public void tearDown() {
+        facade.close();
+    }
+
+    @Benchmark
+    public BigDecimal facadeTotal() {
+        return facade.getTotalAssetsUnderManagement();
+    }
+
+    @Benchmark
+    public BigDecimal aggregatorTotal() {
+        return aggregator.totalBalance(accounts);
+    }
+}
@@ -0,0 +1,94 @@
+package banking.benchmark;
+
+import banking.account.BalanceCell;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// One account hit by every benchmark thread (BenchmarkRunner repeats the run per thread
+// count): BalanceCell's compare-and-set against the same rules behind a monitor.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BalanceCellBenchmark {
+    private static final long AMOUNT = 100;
+
+    private BalanceCell cell;
+    private SynchronizedBalance synchronizedBalance;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        cell = new BalanceCell(1_000_000);
+        cell.openOverdraft(500_000, 0);
+        synchronizedBalance = new SynchronizedBalance(1_000_000, 500_000);
+    }
+
+    @Benchmark
+    public long casWithdrawDeposit() {
+        long fromOverdraft = cell.withdraw(AMOUNT);
+        cell.deposit(AMOUNT);
+        return fromOverdraft;
+    }
+
+    @Benchmark
+    public long synchronizedWithdrawDeposit() {
+        long fromOverdraft = synchronizedBalance.withdraw(AMOUNT);
+        synchronizedBalance.deposit(AMOUNT);
+        return fromOverdraft;
+    }
+
+    @Benchmark
+    public BalanceCell.Reservation casReserveCommit() {
+        BalanceCell.Reservation reservation = cell.reserve(AMOUNT);
+        cell.commit(reservation);
+        cell.deposit(AMOUNT);
+        return reservation;
+    }
+
+    @Benchmark
+    public long casRead() {
+        return cell.getBalance();
+    }
+
+    @Benchmark
+    public long synchronizedRead() {
+        return synchronizedBalance.getBalance();
+    }
+
+    // BalanceCell's withdrawal rules with the fields guarded by the object's monitor
+    static final class SynchronizedBalance {
+        private long balance;
+        private long usedOverdraft;
+        private final long overdraftLimit;
+
+        SynchronizedBalance(long balance, long overdraftLimit) {
+            this.balance = balance;
+            this.overdraftLimit = overdraftLimit;
+        }
+
+        synchronized long getBalance() {
+            return balance;
+        }
+
+        synchronized void deposit(long amount) {
+            balance += amount;
+        }
+
+        synchronized long withdraw(long amount) {
+            if (balance >= amount) {
+                balance -= amount;
+                return 0;
+            }
+            long fromOverdraft = amount - Math.max(balance, 0);
+            if (fromOverdraft > overdraftLimit - usedOverdraft) {
+                return -1;
+            }
+            balance -= amount - fromOverdraft;
+            usedOverdraft += fromOverdraft;
+            return fromOverdraft;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package banking.benchmark;
+
+import banking.facade.BankingFacade;
+import banking.model.BatchOperation;
+import banking.model.BatchResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The same payroll-style file of deposits spread over `accountCount` accounts, applied one
+// call at a time and through BankingFacade.executeBatch.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class BatchBenchmark {
+    private static final int OPERATIONS = 10_000;
+
+    @Param({"10", "1000"})
+    public int accountCount;
+
+    private BankingFacade facade;
+    private List<BatchOperation> operations;
+
+    // A fresh facade each iteration keeps the retained history bounded
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkSupport.disableEvents();
+        String[] accountNumbers = new String[accountCount];
+        BenchmarkSupport.silently(() -> {
+            if (facade != null) {
+                facade.close();
+            }
+            facade = new BankingFacade();
+            for (int i = 0; i < accountCount; i++) {
+                accountNumbers[i] = facade.openAccountWithBenefits("BENCH" + i, "checking",
+                        BigDecimal.valueOf(1000)).getAccountNumber();
+            }
+        });
+        operations = new ArrayList<>(OPERATIONS);
+        for (int i = 0; i < OPERATIONS; i++) {
+            operations.add(BatchOperation.deposit(accountNumbers[i % accountCount], BigDecimal.ONE, "salary"));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        facade.close();
+    }
+
+    @Benchmark
+    public void oneCallPerOperation() {
+        for (BatchOperation operation : operations) {
+            facade.deposit(operation.getAccountNumber(), operation.getAmount(), operation.getDescription());
+        }
+    }
+
+    @Benchmark
+    public List<BatchResult> executeBatch() {
+        return facade.executeBatch(operations);
+    }
+}
@@ -0,0 +1,28 @@
+package banking.benchmark;
+
+import banking.event.EventLog;
+import banking.event.EventSink;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+final class BenchmarkSupport {
+    private BenchmarkSupport() {
+    }
+
+    // Benchmarks measure the work, not the console
+    static void disableEvents() {
+        EventLog.setSink(EventSink.NONE);
+    }
+
+    // Runs setup code that prints (facade display methods) with standard output discarded
+    static void silently(Runnable action) {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            action.run();
+        } finally {
+            System.setOut(original);
+        }
+    }
+}
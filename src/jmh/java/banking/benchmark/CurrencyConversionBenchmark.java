@@ -0,0 +1,83 @@
+package banking.benchmark;
+
+import banking.account.Account;
+import banking.account.CheckingAccount;
+import banking.account.decorators.ForeignCurrencyDecorator;
+import banking.fx.CurrencyConverter;
+import banking.fx.ExchangeRateTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// A multi-currency balance screen: every account in every supported currency.
+// legacyDivide is the previous getBalanceInCurrency (upper-casing the code, a map lookup and
+// a BigDecimal divide per call), perCall the current one, bulk CurrencyConverter.convertBalances.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CurrencyConversionBenchmark {
+    private static final List<String> CURRENCIES = Arrays.asList("usd", "eur", "gbp", "jpy", "cad");
+
+    @Param({"1000", "100000"})
+    public int accountCount;
+
+    private List<Account> accounts;
+    private List<ForeignCurrencyDecorator> currencyAccounts;
+    private Map<String, BigDecimal> legacyRates;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.disableEvents();
+        Random random = new Random(42);
+        accounts = new ArrayList<>(accountCount);
+        currencyAccounts = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            ForeignCurrencyDecorator account = new ForeignCurrencyDecorator(
+                    new CheckingAccount(String.format("CHK-%08d", i), BigDecimal.valueOf(random.nextInt(10_000_000), 2)),
+                    Currency.getInstance("USD"));
+            accounts.add(account);
+            currencyAccounts.add(account);
+        }
+        legacyRates = ExchangeRateTable.getDefault().snapshot().getRates();
+    }
+
+    @Benchmark
+    public BigDecimal legacyDivide() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Account account : accounts) {
+            for (String currency : CURRENCIES) {
+                BigDecimal rate = legacyRates.get(currency.toUpperCase());
+                total = total.add(account.getBalance().divide(rate, 2, RoundingMode.HALF_UP));
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal perCall() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (ForeignCurrencyDecorator account : currencyAccounts) {
+            for (String currency : CURRENCIES) {
+                total = total.add(account.getBalanceInCurrency(currency));
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long[][] bulk() {
+        CurrencyConverter converter = ExchangeRateTable.getDefault().snapshot().getConverter();
+        return converter.convertBalances(accounts, converter.idsOf(CURRENCIES));
+    }
+}
@@ -0,0 +1,71 @@
+package banking.benchmark;
+
+import banking.account.Account;
+import banking.facade.BankingFacade;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// deposit/withdraw through the decorator chains BankingFacade builds. The opening deposit
+// selects the chain, e.g. savings above 1000 adds insurance and investment above 5000 adds
+// insurance and priority banking. `compiled` runs the same chain flattened into a CompiledAccount.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DecoratorChainBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+
+    @Param({
+            "savings:500",          // Savings + RewardPoints
+            "savings:5000",         // Savings + RewardPoints + Insurance
+            "investment:1000",      // Investment + TaxOptimizer
+            "investment:10000",     // Investment + TaxOptimizer + Insurance + PriorityBanking
+            "checking:1000",        // Checking + OverdraftProtection
+            "checking:10000",       // Checking + OverdraftProtection + ForeignCurrency
+            "safety-investment:10000"
+    })
+    public String chain;
+
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    private Account account;
+
+    // Rebuilt every iteration so reward points and fee counters start from the same state
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkSupport.disableEvents();
+        String[] parts = chain.split(":");
+        BigDecimal opening = new BigDecimal(parts[1]);
+        BenchmarkSupport.silently(() -> {
+            try (BankingFacade facade = new BankingFacade()) {
+                facade.setCompiledAccounts(compiled);
+                account = "safety-investment".equals(parts[0])
+                        ? facade.investWithSafetyMode("BENCH", opening)
+                        : facade.openAccountWithBenefits("BENCH", parts[0], opening);
+            }
+        });
+    }
+
+    @Benchmark
+    public BigDecimal deposit() {
+        account.deposit(AMOUNT);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public BigDecimal depositThenWithdraw() {
+        account.deposit(AMOUNT);
+        account.withdraw(AMOUNT);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public String description() {
+        return account.getDescription();
+    }
+}
@@ -0,0 +1,39 @@
+package banking.benchmark;
+
+import banking.model.IdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Id generation throughput; run with several thread counts to see the contention behaviour
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+    private final IdGenerator generator = new IdGenerator(1);
+
+    @Benchmark
+    public long snowflakeId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String snowflakeText() {
+        return generator.nextId("TXN-");
+    }
+
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    // The scheme previously used for account and transaction numbers
+    @Benchmark
+    public String randomUuidPrefix() {
+        return "TXN-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
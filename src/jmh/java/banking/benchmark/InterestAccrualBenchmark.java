@@ -0,0 +1,61 @@
+package banking.benchmark;
+
+import banking.service.InterestAccrualEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One day of interest for a million savings balances: the primitive-array loop of
+// InterestAccrualEngine against the BigDecimal reference. Scores are accounts/sec.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class InterestAccrualBenchmark {
+    private static final int ACCOUNTS = 1_000_000;
+
+    private long[] balances;
+    private long[] rates;
+    private long[] cents;
+    private long[] remainders;
+    private BigDecimal[] decimalBalances;
+    private BigDecimal[] decimalRates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        balances = new long[ACCOUNTS];
+        rates = new long[ACCOUNTS];
+        cents = new long[ACCOUNTS];
+        remainders = new long[ACCOUNTS];
+        decimalBalances = new BigDecimal[ACCOUNTS];
+        decimalRates = new BigDecimal[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            balances[i] = 10_000 + random.nextInt(50_000_000);
+            rates[i] = i % 10 == 0 ? 25_000 : 15_000;
+            decimalBalances[i] = BigDecimal.valueOf(balances[i], 2);
+            decimalRates[i] = BigDecimal.valueOf(rates[i], InterestAccrualEngine.RATE_DECIMALS);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCOUNTS)
+    public long[] primitiveArrays() {
+        InterestAccrualEngine.accrue(balances, rates, 1, cents, remainders);
+        return cents;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCOUNTS)
+    public BigDecimal bigDecimalReference() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            total = total.add(InterestAccrualEngine.referenceInterest(decimalBalances[i], decimalRates[i], 1));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,50 @@
+package banking.benchmark;
+
+import banking.model.Transaction;
+import banking.service.TransactionLedger;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Ledger append scaling: each thread appends to its own account or all threads share one
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LedgerBenchmark {
+    @State(Scope.Benchmark)
+    public static class SharedLedger {
+        @Param({"per-thread", "shared"})
+        public String accounts;
+
+        TransactionLedger ledger;
+        final AtomicInteger nextThread = new AtomicInteger();
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            ledger = new TransactionLedger();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadAccount {
+        String accountNumber;
+
+        @Setup
+        public void setUp(SharedLedger shared) {
+            accountNumber = "shared".equals(shared.accounts)
+                    ? "SAV-SHARED" : "SAV-" + shared.nextThread.getAndIncrement();
+        }
+    }
+
+    @Benchmark
+    public void append(SharedLedger shared, ThreadAccount account) {
+        Transaction transaction = new Transaction(account.accountNumber, Transaction.TransactionType.DEPOSIT,
+                BigDecimal.TEN, "bench");
+        transaction.markCompleted();
+        shared.ledger.append(account.accountNumber, transaction);
+    }
+}
@@ -0,0 +1,57 @@
+package banking.benchmark;
+
+import banking.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+// Balance arithmetic on long cents versus BigDecimal
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+    private Money moneyBalance;
+    private Money moneyAmount;
+    private BigDecimal decimalBalance;
+    private BigDecimal decimalAmount;
+
+    @Setup
+    public void setUp() {
+        moneyBalance = Money.of(new BigDecimal("1000000.00"));
+        moneyAmount = Money.of(new BigDecimal("12.34"));
+        decimalBalance = new BigDecimal("1000000.00");
+        decimalAmount = new BigDecimal("12.34");
+    }
+
+    @Benchmark
+    public Money moneyDepositWithdraw() {
+        moneyBalance = moneyBalance.plus(moneyAmount).minus(moneyAmount);
+        return moneyBalance;
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalDepositWithdraw() {
+        decimalBalance = decimalBalance.add(decimalAmount).subtract(decimalAmount).setScale(2, RoundingMode.HALF_UP);
+        return decimalBalance;
+    }
+
+    @Benchmark
+    public Money moneyFromBigDecimal() {
+        return Money.of(decimalAmount);
+    }
+
+    @Benchmark
+    public int moneyCompare() {
+        return moneyBalance.compareTo(moneyAmount);
+    }
+
+    @Benchmark
+    public int bigDecimalCompare() {
+        return decimalBalance.compareTo(decimalAmount);
+    }
+}
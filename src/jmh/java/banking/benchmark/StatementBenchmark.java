@@ -0,0 +1,63 @@
+package banking.benchmark;
+
+import banking.account.Account;
+import banking.account.SavingsAccount;
+import banking.service.ReportService;
+import banking.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Account statements over a full history: built as a String versus streamed
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StatementBenchmark {
+    @Param({"100", "10000", "100000"})
+    public int historySize;
+
+    private ReportService reportService;
+    private Account account;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.disableEvents();
+        TransactionService transactionService = new TransactionService();
+        reportService = new ReportService(transactionService);
+        account = new SavingsAccount("SAV-STATEMENT", BigDecimal.valueOf(1_000_000));
+        for (int i = 0; i < historySize; i++) {
+            if (i % 3 == 2) {
+                transactionService.recordWithdrawal(account, BigDecimal.valueOf(7), "Withdrawal " + i);
+            } else {
+                transactionService.recordDeposit(account, BigDecimal.valueOf(10), "Deposit " + i);
+            }
+        }
+        from = LocalDate.now().minusDays(1);
+        to = LocalDate.now().plusDays(1);
+    }
+
+    @Benchmark
+    public String generateString() {
+        return reportService.generateAccountStatement(account, from, to);
+    }
+
+    @Benchmark
+    public void streamToWriter() throws IOException {
+        reportService.writeAccountStatement(account, from, to, Writer.nullWriter());
+    }
+
+    @Benchmark
+    public void streamToOutputStream() throws IOException {
+        reportService.writeAccountStatement(account, from, to, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,51 @@
+package banking.benchmark;
+
+import banking.account.Account;
+import banking.account.SavingsAccount;
+import banking.service.TransactionLedger;
+import banking.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// TransactionService.transfer between random pairs out of a shared pool. Fewer accounts
+// means more lock contention at higher thread counts.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TransferBenchmark {
+    private static final BigDecimal AMOUNT = BigDecimal.ONE;
+
+    @Param({"2", "64", "4096"})
+    public int accountCount;
+
+    private TransactionService transactionService;
+    private Account[] accounts;
+
+    // A fresh ledger each iteration keeps the retained history bounded
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkSupport.disableEvents();
+        transactionService = new TransactionService(new TransactionLedger());
+        accounts = new Account[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accounts[i] = new SavingsAccount(String.format("SAV-%08d", i), BigDecimal.valueOf(1_000_000_000L));
+        }
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountCount);
+        int to = random.nextInt(accountCount - 1);
+        if (to >= from) {
+            to++;
+        }
+        transactionService.transfer(accounts[from], accounts[to], AMOUNT, "bench");
+    }
+}
@@ -6,19 +6,25 @@ import banking.account.decorators.TaxOptimizerDecorator;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-public class Application {
+public class Application implements AutoCloseable {
     private final BankingFacade bankingFacade;
 
     public Application() {
         this.bankingFacade = new BankingFacade();
     }
 
+    @Override
+    public void close() {
+        bankingFacade.close();
+    }
+
     public void runComprehensiveDemo() {
         System.out.println("=== COMPREHENSIVE BANKING SYSTEM DEMONSTRATION ===");
         System.out.println("Starting at: " + java.time.LocalDateTime.now() + "\n");
 
         runDemo();
         demonstrateSpecificScenarios();
+        bankingFacade.flushNotifications();
 
         System.out.println("Comprehensive demonstration completed at: " +
                 java.time.LocalDateTime.now());
@@ -266,8 +272,8 @@ public class Application {
             System.out.println("   ✅ Tax optimization features enabled");
 
             // Демонстрация расчета налоговой экономии
-            if (taxOptimizedAccount instanceof TaxOptimizerDecorator) {
-                var taxDecorator = (TaxOptimizerDecorator) taxOptimizedAccount;
+            var taxDecorator = taxOptimizedAccount.getBenefit(TaxOptimizerDecorator.class);
+            if (taxDecorator != null) {
                 BigDecimal savings = taxDecorator.calculateTaxSavings(BigDecimal.valueOf(5000));
                 System.out.println("   📊 Estimated tax savings on $5000: $" + savings);
                 System.out.println("   💵 Total tax savings to date: $" + taxDecorator.getTotalTaxSavings());
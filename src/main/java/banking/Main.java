@@ -1,14 +1,33 @@
 package banking;
 
+import banking.facade.BankingFacade;
+import banking.fx.ExchangeRateTable;
+import banking.importer.ImportFormat;
+import banking.importer.ImportReport;
+import banking.importer.TransactionImporter;
+import banking.persistence.SnapshotStore;
+import banking.persistence.WriteAheadLog;
+import banking.service.EndOfPeriodReport;
 import banking.ui.InteractiveMenu;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+
 public class Main {
     public static void main(String[] args) {
         try {
+            watchExchangeRates();
             if (args.length > 0 && "demo".equals(args[0])) {
                 System.out.println(" Запуск демонстрационного режима...");
-                Application application = new Application();
-                application.runComprehensiveDemo();
+                try (Application application = new Application()) {
+                    application.runComprehensiveDemo();
+                }
+            } else if (args.length > 0 && "import".equals(args[0])) {
+                runImport(args);
+            } else if (args.length > 0 && "eod".equals(args[0])) {
+                runEndOfPeriod(args);
             } else {
                 InteractiveMenu menu = new InteractiveMenu();
                 menu.start();
@@ -20,4 +39,70 @@ public class Main {
             System.exit(1);
         }
     }
-}
\ No newline at end of file
+
+    // -Dbanking.fx.rates=<file> loads the exchange rates from a file and picks up later edits
+    private static void watchExchangeRates() throws IOException {
+        String ratesFile = System.getProperty("banking.fx.rates");
+        if (ratesFile != null) {
+            Path file = Path.of(ratesFile);
+            ExchangeRateTable.getDefault().reload(file);
+            ExchangeRateTable.getDefault().watch(file, Duration.ofSeconds(Long.getLong("banking.fx.reload.seconds", 30)));
+        }
+    }
+
+    // import <data-dir> <file> [csv|fixed] [reject-file]: recovers the bank kept in data-dir
+    // (wal/ and snapshots/), applies the file and leaves a fresh snapshot behind
+    private static void runImport(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: import <data-dir> <file> [csv|fixed] [reject-file]");
+            System.exit(2);
+        }
+        Path dataDirectory = Path.of(args[1]);
+        Path input = Path.of(args[2]);
+        ImportFormat format = args.length > 3 && "fixed".equalsIgnoreCase(args[3])
+                ? ImportFormat.FIXED_WIDTH
+                : ImportFormat.CSV;
+        Path rejectFile = args.length > 4 ? Path.of(args[4]) : Path.of(args[2] + ".rejects");
+
+        SnapshotStore snapshots = new SnapshotStore(dataDirectory.resolve("snapshots"));
+        try (WriteAheadLog wal = new WriteAheadLog(dataDirectory.resolve("wal"), WriteAheadLog.Durability.ASYNC);
+             BankingFacade facade = new BankingFacade(wal)) {
+            facade.recover(snapshots, wal);
+
+            ImportReport report = new TransactionImporter(facade, format).importFile(input, rejectFile);
+            facade.writeSnapshot(snapshots, wal);
+            facade.flushNotifications();
+
+            System.out.println("📥 " + report.getRows() + " rows in " + report.getTotalMillis() + " ms ("
+                    + report.getRowsPerSecond() + " rows/sec): " + report.getApplied() + " applied, "
+                    + report.getRejected() + " rejected → " + rejectFile);
+        }
+    }
+
+    // eod <data-dir> [yyyy-MM]: month-end processing of the bank kept in data-dir; the
+    // checkpoint file lives next to the snapshots, so rerunning after a crash resumes
+    private static void runEndOfPeriod(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: eod <data-dir> [yyyy-MM]");
+            System.exit(2);
+        }
+        Path dataDirectory = Path.of(args[1]);
+        YearMonth period = args.length > 2 ? YearMonth.parse(args[2]) : YearMonth.now().minusMonths(1);
+
+        SnapshotStore snapshots = new SnapshotStore(dataDirectory.resolve("snapshots"));
+        try (WriteAheadLog wal = new WriteAheadLog(dataDirectory.resolve("wal"), WriteAheadLog.Durability.ASYNC);
+             BankingFacade facade = new BankingFacade(wal)) {
+            facade.recover(snapshots, wal);
+
+            EndOfPeriodReport report = facade.runEndOfPeriod(period,
+                    dataDirectory.resolve("eod-" + period + ".checkpoint"));
+            facade.writeSnapshot(snapshots, wal);
+            facade.flushNotifications();
+
+            System.out.println("🗓️  " + report.getAccountsProcessed() + " accounts in " + report.getElapsedMillis()
+                    + " ms (" + report.getAccountsPerSecond() + " accounts/sec): " + report.getFeesCharged()
+                    + " fees, " + report.getFeesWaived() + " waived, " + report.getInterestPostings()
+                    + " interest postings, " + report.getFailures() + " failures");
+        }
+    }
+}
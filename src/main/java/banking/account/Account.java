@@ -1,5 +1,7 @@
 package banking.account;
 
+import banking.model.Money;
+
 import java.math.BigDecimal;
 
 public interface Account {
@@ -16,4 +18,36 @@ public interface Account {
     default Account getBaseAccount() {
         return this;
     }
+
+    // Where the money is kept; decorators and compiled accounts share their base account's cell
+    default BalanceCell getBalanceCell() {
+        Account base = getBaseAccount();
+        return base == this ? null : base.getBalanceCell();
+    }
+
+    // Takes back a deposit that went through, e.g. when it cannot be journaled.
+    // Decorators let their benefits undo their own part first.
+    default void reverseDeposit(BigDecimal amount) {
+        BalanceCell cell = getBalanceCell();
+        if (cell == null) {
+            throw new UnsupportedOperationException("Cannot reverse deposits on " + getAccountNumber());
+        }
+        cell.adjust(-Money.of(amount).getMinorUnits());
+    }
+
+    // Puts back a withdrawal that went through, fromOverdraft of it drawn on an overdraft
+    // facility, e.g. when the other leg of a transfer fails. Decorators let their benefits
+    // undo their own part first.
+    default void reverseWithdrawal(BigDecimal amount, BigDecimal fromOverdraft) {
+        BalanceCell cell = getBalanceCell();
+        if (cell == null) {
+            throw new UnsupportedOperationException("Cannot reverse withdrawals on " + getAccountNumber());
+        }
+        cell.refund(Money.of(amount).getMinorUnits(), Money.of(fromOverdraft).getMinorUnits());
+    }
+
+    // The benefit of the given type wrapped around this account, or null if it has none
+    default <T> T getBenefit(Class<T> type) {
+        return type.isInstance(this) ? type.cast(this) : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,222 @@
+package banking.account;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// An account's money without locks. Balance, used overdraft, reserved funds and the limits
+// that apply to them are one immutable State, replaced by compare-and-set, so every check
+// sees the same state its update replaces: two concurrent withdrawals can never both pass
+// one limit. Amounts are minor units (cents).
+//
+// Withdrawals leave the positive balance first. With an overdraft facility the rest is
+// drawn on the facility up to its limit; without one the balance may go down to the
+// minimum balance. A reservation takes the money out at once and holds it until it is
+// committed (spent) or released (returned).
+//
+// Every transition uses exact arithmetic, as Money does: a change that would overflow
+// throws ArithmeticException and leaves the state as it was.
+public final class BalanceCell {
+    private final AtomicReference<State> state;
+
+    public BalanceCell(long balance) {
+        this(balance, 0);
+    }
+
+    public BalanceCell(long balance, long minimumBalance) {
+        this.state = new AtomicReference<>(new State(balance, 0, 0, minimumBalance, 0));
+    }
+
+    public State snapshot() {
+        return state.get();
+    }
+
+    public long getBalance() {
+        return state.get().balance;
+    }
+
+    public long getUsedOverdraft() {
+        return state.get().usedOverdraft;
+    }
+
+    public long getOverdraftLimit() {
+        return state.get().overdraftLimit;
+    }
+
+    public long getMinimumBalance() {
+        return state.get().minimumBalance;
+    }
+
+    public void deposit(long amount) {
+        adjust(amount);
+    }
+
+    // Unconditional change of the balance, e.g. investment returns that may be negative
+    public void adjust(long delta) {
+        State current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, current.withBalance(Math.addExact(current.balance, delta))));
+    }
+
+    // How much of the amount came from the overdraft facility, or -1 if the funds are insufficient
+    public long withdraw(long amount) {
+        State current;
+        State next;
+        long fromOverdraft;
+        do {
+            current = state.get();
+            fromOverdraft = current.overdraftNeeded(amount);
+            if (fromOverdraft < 0) {
+                return -1;
+            }
+            next = new State(Math.subtractExact(current.balance, amount - fromOverdraft),
+                    Math.addExact(current.usedOverdraft, fromOverdraft),
+                    current.reserved, current.minimumBalance, current.overdraftLimit);
+        } while (!state.compareAndSet(current, next));
+        return fromOverdraft;
+    }
+
+    // Takes the amount out under the same rules as withdraw; null if the funds are insufficient
+    public Reservation reserve(long amount) {
+        State current;
+        State next;
+        long fromOverdraft;
+        do {
+            current = state.get();
+            fromOverdraft = current.overdraftNeeded(amount);
+            if (fromOverdraft < 0) {
+                return null;
+            }
+            next = new State(Math.subtractExact(current.balance, amount - fromOverdraft),
+                    Math.addExact(current.usedOverdraft, fromOverdraft),
+                    Math.addExact(current.reserved, amount), current.minimumBalance, current.overdraftLimit);
+        } while (!state.compareAndSet(current, next));
+        return new Reservation(this, amount, fromOverdraft);
+    }
+
+    public void commit(Reservation reservation) {
+        settle(reservation);
+        State current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, new State(current.balance, current.usedOverdraft,
+                Math.subtractExact(current.reserved, reservation.amount), current.minimumBalance, current.overdraftLimit)));
+    }
+
+    // Returns the money; overdraft repaid in the meantime comes back as balance instead
+    public void release(Reservation reservation) {
+        settle(reservation);
+        putBack(reservation.amount, reservation.fromOverdraft, reservation.amount);
+    }
+
+    // Undoes a withdrawal of which fromOverdraft was drawn on the facility, by the same rule
+    // as release
+    public void refund(long amount, long fromOverdraft) {
+        putBack(amount, fromOverdraft, 0);
+    }
+
+    public void setMinimumBalance(long minimumBalance) {
+        State current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, new State(current.balance, current.usedOverdraft,
+                current.reserved, minimumBalance, current.overdraftLimit)));
+    }
+
+    public void openOverdraft(long overdraftLimit, long usedOverdraft) {
+        State current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, new State(current.balance, usedOverdraft,
+                current.reserved, current.minimumBalance, overdraftLimit)));
+    }
+
+    // False if the amount is more than the used overdraft
+    public boolean repayOverdraft(long amount) {
+        State current;
+        do {
+            current = state.get();
+            if (amount > current.usedOverdraft) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, new State(current.balance, Math.subtractExact(current.usedOverdraft, amount),
+                current.reserved, current.minimumBalance, current.overdraftLimit)));
+        return true;
+    }
+
+    private void putBack(long amount, long fromOverdraft, long reserved) {
+        State current;
+        State next;
+        do {
+            current = state.get();
+            long overdraftReturned = Math.min(current.usedOverdraft, fromOverdraft);
+            next = new State(Math.subtractExact(Math.addExact(current.balance, amount), overdraftReturned),
+                    Math.subtractExact(current.usedOverdraft, overdraftReturned),
+                    Math.subtractExact(current.reserved, reserved), current.minimumBalance, current.overdraftLimit);
+        } while (!state.compareAndSet(current, next));
+    }
+
+    private void settle(Reservation reservation) {
+        if (reservation.cell != this) {
+            throw new IllegalArgumentException("Reservation belongs to another account");
+        }
+        if (!reservation.settled.compareAndSet(false, true)) {
+            throw new IllegalStateException("Reservation already committed or released");
+        }
+    }
+
+    public static final class State {
+        private final long balance;
+        private final long usedOverdraft;
+        private final long reserved;
+        private final long minimumBalance;
+        private final long overdraftLimit;
+
+        private State(long balance, long usedOverdraft, long reserved, long minimumBalance, long overdraftLimit) {
+            this.balance = balance;
+            this.usedOverdraft = usedOverdraft;
+            this.reserved = reserved;
+            this.minimumBalance = minimumBalance;
+            this.overdraftLimit = overdraftLimit;
+        }
+
+        private State withBalance(long newBalance) {
+            return new State(newBalance, usedOverdraft, reserved, minimumBalance, overdraftLimit);
+        }
+
+        // The part of a withdrawal drawn on the overdraft facility, or -1 if it cannot be covered
+        private long overdraftNeeded(long amount) {
+            if (balance >= amount) {
+                return 0;
+            }
+            if (overdraftLimit > 0) {
+                long fromOverdraft = Math.subtractExact(amount, Math.max(balance, 0));
+                return fromOverdraft <= Math.subtractExact(overdraftLimit, usedOverdraft) ? fromOverdraft : -1;
+            }
+            return Math.subtractExact(balance, amount) >= minimumBalance ? 0 : -1;
+        }
+
+        public long getBalance() { return balance; }
+        public long getUsedOverdraft() { return usedOverdraft; }
+        public long getReserved() { return reserved; }
+        public long getMinimumBalance() { return minimumBalance; }
+        public long getOverdraftLimit() { return overdraftLimit; }
+    }
+
+    // Money taken out by reserve and not yet committed or released
+    public static final class Reservation {
+        private final BalanceCell cell;
+        private final long amount;
+        private final long fromOverdraft;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Reservation(BalanceCell cell, long amount, long fromOverdraft) {
+            this.cell = cell;
+            this.amount = amount;
+            this.fromOverdraft = fromOverdraft;
+        }
+
+        public long getAmount() { return amount; }
+        public long getFromOverdraft() { return fromOverdraft; }
+    }
+}
@@ -1,27 +1,29 @@
 
 package banking.account;
 
+import banking.model.IdGenerator;
+import banking.model.Money;
+
 import java.math.BigDecimal;
-import java.util.UUID;
 
 public class CheckingAccount implements Account {
+    private static final long DEFAULT_OVERDRAFT_LIMIT = 100_000; // $1000
+
     private final String accountNumber;
-    private BigDecimal balance;
+    // The overdraft limit is the cell's minimum balance, negated
+    private final BalanceCell balance;
     private boolean closed;
-    private BigDecimal overdraftLimit;
 
     public CheckingAccount() {
-        this.accountNumber = "CHK-" + UUID.randomUUID().toString().substring(0, 8);
-        this.balance = BigDecimal.ZERO;
+        this.accountNumber = IdGenerator.getDefault().nextId("CHK-");
+        this.balance = new BalanceCell(0, -DEFAULT_OVERDRAFT_LIMIT);
         this.closed = false;
-        this.overdraftLimit = BigDecimal.valueOf(1000); // Default overdraft
     }
 
     public CheckingAccount(String accountNumber, BigDecimal initialBalance) {
         this.accountNumber = accountNumber;
-        this.balance = initialBalance;
+        this.balance = new BalanceCell(Money.of(initialBalance).getMinorUnits(), -DEFAULT_OVERDRAFT_LIMIT);
         this.closed = false;
-        this.overdraftLimit = BigDecimal.valueOf(1000);
     }
 
     @Override
@@ -31,35 +33,37 @@ public class CheckingAccount implements Account {
     public String getAccountType() { return "Checking Account"; }
 
     @Override
-    public BigDecimal getBalance() { return balance; }
+    public BigDecimal getBalance() { return Money.ofMinor(balance.getBalance()).toBigDecimal(); }
 
-    public BigDecimal getOverdraftLimit() { return overdraftLimit; }
+    @Override
+    public BalanceCell getBalanceCell() { return balance; }
+
+    public BigDecimal getOverdraftLimit() { return Money.ofMinor(-balance.getMinimumBalance()).toBigDecimal(); }
 
     public void setOverdraftLimit(BigDecimal overdraftLimit) {
-        this.overdraftLimit = overdraftLimit;
+        balance.setMinimumBalance(-Money.of(overdraftLimit).getMinorUnits());
     }
 
     @Override
     public void deposit(BigDecimal amount) {
         if (closed) throw new IllegalStateException("Cannot deposit to closed account");
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        Money value = Money.of(amount);
+        if (!value.isPositive()) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
-        balance = balance.add(amount);
+        balance.deposit(value.getMinorUnits());
     }
 
     @Override
     public void withdraw(BigDecimal amount) {
         if (closed) throw new IllegalStateException("Cannot withdraw from closed account");
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        Money value = Money.of(amount);
+        if (!value.isPositive()) {
             throw new IllegalArgumentException("Withdrawal amount must be positive");
         }
-
-        BigDecimal availableBalance = balance.add(overdraftLimit);
-        if (availableBalance.compareTo(amount) < 0) {
+        if (balance.withdraw(value.getMinorUnits()) < 0) {
             throw new IllegalArgumentException("Insufficient funds including overdraft");
         }
-        balance = balance.subtract(amount);
     }
 
     @Override
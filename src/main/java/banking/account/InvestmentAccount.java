@@ -1,26 +1,35 @@
 
 package banking.account;
 
+import banking.model.IdGenerator;
+import banking.model.Money;
+
 import java.math.BigDecimal;
-import java.util.UUID;
 
 public class InvestmentAccount implements Account {
     private final String accountNumber;
-    private BigDecimal balance;
+    private final BalanceCell balance;
     private boolean closed;
-    private BigDecimal investmentReturns;
+    private Money investmentReturns;
 
     public InvestmentAccount() {
-        this.accountNumber = "INV-" + UUID.randomUUID().toString().substring(0, 8);
-        this.balance = BigDecimal.ZERO;
-        this.investmentReturns = BigDecimal.ZERO;
+        this.accountNumber = IdGenerator.getDefault().nextId("INV-");
+        this.balance = new BalanceCell(0);
+        this.investmentReturns = Money.ZERO;
         this.closed = false;
     }
 
     public InvestmentAccount(String accountNumber, BigDecimal initialBalance) {
         this.accountNumber = accountNumber;
-        this.balance = initialBalance;
-        this.investmentReturns = BigDecimal.ZERO;
+        this.balance = new BalanceCell(Money.of(initialBalance).getMinorUnits());
+        this.investmentReturns = Money.ZERO;
+        this.closed = false;
+    }
+
+    public InvestmentAccount(String accountNumber, BigDecimal initialBalance, BigDecimal investmentReturns) {
+        this.accountNumber = accountNumber;
+        this.balance = new BalanceCell(Money.of(initialBalance).getMinorUnits());
+        this.investmentReturns = Money.of(investmentReturns);
         this.closed = false;
     }
 
@@ -36,19 +45,25 @@ public class InvestmentAccount implements Account {
 
     @Override
     public BigDecimal getBalance() {
+        return Money.ofMinor(balance.getBalance()).toBigDecimal();
+    }
+
+    @Override
+    public BalanceCell getBalanceCell() {
         return balance;
     }
 
     public BigDecimal getInvestmentReturns() {
-        return investmentReturns;
+        return investmentReturns.toBigDecimal();
     }
 
     public void applyInvestmentReturns(BigDecimal returns) {
         if (closed) {
             throw new IllegalStateException("Cannot apply returns to closed account");
         }
-        this.investmentReturns = this.investmentReturns.add(returns);
-        this.balance = this.balance.add(returns);
+        Money value = Money.of(returns);
+        this.investmentReturns = this.investmentReturns.plus(value);
+        this.balance.adjust(value.getMinorUnits());
     }
 
     @Override
@@ -56,10 +71,11 @@ public class InvestmentAccount implements Account {
         if (closed) {
             throw new IllegalStateException("Cannot deposit to closed account");
         }
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        Money value = Money.of(amount);
+        if (!value.isPositive()) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
-        balance = balance.add(amount);
+        balance.deposit(value.getMinorUnits());
     }
 
     @Override
@@ -67,13 +83,13 @@ public class InvestmentAccount implements Account {
         if (closed) {
             throw new IllegalStateException("Cannot withdraw from closed account");
         }
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        Money value = Money.of(amount);
+        if (!value.isPositive()) {
             throw new IllegalArgumentException("Withdrawal amount must be positive");
         }
-        if (balance.compareTo(amount) < 0) {
+        if (balance.withdraw(value.getMinorUnits()) < 0) {
             throw new IllegalArgumentException("Insufficient funds");
         }
-        balance = balance.subtract(amount);
     }
 
     @Override
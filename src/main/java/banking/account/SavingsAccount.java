@@ -1,23 +1,27 @@
 
 package banking.account;
 
+import banking.model.IdGenerator;
+import banking.model.Money;
+
 import java.math.BigDecimal;
-import java.util.UUID;
 
 public class SavingsAccount implements Account {
+    private static final BigDecimal INTEREST_RATE = BigDecimal.valueOf(0.015); // 1.5% per year
+
     private final String accountNumber;
-    private BigDecimal balance;
+    private final BalanceCell balance;
     private boolean closed;
 
     public SavingsAccount() {
-        this.accountNumber = "SAV-" + UUID.randomUUID().toString().substring(0, 8);
-        this.balance = BigDecimal.ZERO;
+        this.accountNumber = IdGenerator.getDefault().nextId("SAV-");
+        this.balance = new BalanceCell(0);
         this.closed = false;
     }
 
     public SavingsAccount(String accountNumber, BigDecimal initialBalance) {
         this.accountNumber = accountNumber;
-        this.balance = initialBalance;
+        this.balance = new BalanceCell(Money.of(initialBalance).getMinorUnits());
         this.closed = false;
     }
 
@@ -33,6 +37,11 @@ public class SavingsAccount implements Account {
 
     @Override
     public BigDecimal getBalance() {
+        return Money.ofMinor(balance.getBalance()).toBigDecimal();
+    }
+
+    @Override
+    public BalanceCell getBalanceCell() {
         return balance;
     }
 
@@ -41,10 +50,11 @@ public class SavingsAccount implements Account {
         if (closed) {
             throw new IllegalStateException("Cannot deposit to closed account");
         }
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        Money value = Money.of(amount);
+        if (!value.isPositive()) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
-        balance = balance.add(amount);
+        balance.deposit(value.getMinorUnits());
     }
 
     @Override
@@ -52,13 +62,18 @@ public class SavingsAccount implements Account {
         if (closed) {
             throw new IllegalStateException("Cannot withdraw from closed account");
         }
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        Money value = Money.of(amount);
+        if (!value.isPositive()) {
             throw new IllegalArgumentException("Withdrawal amount must be positive");
         }
-        if (balance.compareTo(amount) < 0) {
+        if (balance.withdraw(value.getMinorUnits()) < 0) {
             throw new IllegalArgumentException("Insufficient funds");
         }
-        balance = balance.subtract(amount);
+    }
+
+    // Annual rate accrued daily by InterestAccrualEngine
+    public BigDecimal getInterestRate() {
+        return INTEREST_RATE;
     }
 
     @Override
@@ -5,49 +5,76 @@ import banking.account.Account;
 
 import java.math.BigDecimal;
 
-public abstract class AccountDecorator implements Account {
+public abstract class AccountDecorator implements Account, BenefitHook {
     protected Account decoratedAccount;
+    private final Account baseAccount;
 
     protected AccountDecorator(Account decoratedAccount) {
         this.decoratedAccount = decoratedAccount;
+        this.baseAccount = decoratedAccount.getBaseAccount();
     }
 
     @Override
-    public String getAccountNumber() {
+    public final String getAccountNumber() {
         return decoratedAccount.getAccountNumber();
     }
 
     @Override
-    public String getAccountType() {
+    public final String getAccountType() {
         return decoratedAccount.getAccountType();
     }
 
     @Override
-    public BigDecimal getBalance() {
+    public final BigDecimal getBalance() {
         return decoratedAccount.getBalance();
     }
 
+    // Benefits change deposits and withdrawals by overriding the hooks, so the same code
+    // runs whether the account is a nested chain or a CompiledAccount
     @Override
-    public void deposit(BigDecimal amount) {
-        decoratedAccount.deposit(amount);
+    public final void deposit(BigDecimal amount) {
+        onDeposit(amount, decoratedAccount);
     }
 
     @Override
-    public void withdraw(BigDecimal amount) {
-        decoratedAccount.withdraw(amount);
+    public final void withdraw(BigDecimal amount) {
+        onWithdraw(amount, decoratedAccount);
     }
 
     @Override
-    public void close() {
+    public final void reverseDeposit(BigDecimal amount) {
+        onDepositReversed(amount, decoratedAccount);
+    }
+
+    @Override
+    public final void reverseWithdrawal(BigDecimal amount, BigDecimal fromOverdraft) {
+        onWithdrawReversed(amount, fromOverdraft, decoratedAccount);
+    }
+
+    @Override
+    public final void close() {
         decoratedAccount.close();
     }
 
     @Override
-    public boolean isClosed() {
+    public final boolean isClosed() {
         return decoratedAccount.isClosed();
     }
+
+    public Account getDecoratedAccount() {
+        return decoratedAccount;
+    }
+
+    @Override
+    public final Account getBaseAccount() {
+        return baseAccount;
+    }
+
     @Override
-    public Account getBaseAccount() {
-        return decoratedAccount.getBaseAccount();
+    public <T> T getBenefit(Class<T> type) {
+        if (type.isInstance(this)) {
+            return type.cast(this);
+        }
+        return decoratedAccount.getBenefit(type);
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package banking.account.decorators;
+
+import banking.account.Account;
+
+import java.math.BigDecimal;
+
+// The part of a benefit that changes how money moves through an account. `next` is the
+// account as seen from just below the benefit: the remaining benefits and the base account.
+// A benefit that overrides neither method is skipped entirely by a CompiledAccount.
+public interface BenefitHook {
+    default void onDeposit(BigDecimal amount, Account next) {
+        next.deposit(amount);
+    }
+
+    default void onWithdraw(BigDecimal amount, Account next) {
+        next.withdraw(amount);
+    }
+
+    // Called when a deposit or withdrawal that went through is taken back; a benefit that changed its
+    // own state in onWithdraw undoes that here
+    default void onDepositReversed(BigDecimal amount, Account next) {
+        next.reverseDeposit(amount);
+    }
+
+    default void onWithdrawReversed(BigDecimal amount, BigDecimal fromOverdraft, Account next) {
+        next.reverseWithdrawal(amount, fromOverdraft);
+    }
+}
@@ -0,0 +1,228 @@
+package banking.account.decorators;
+
+import banking.account.Account;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// A decorator chain flattened into the base account plus its benefits in an array,
+// outermost first. Deposits and withdrawals go straight to the first benefit that hooks
+// them, or to the base account when none does; everything else goes to the base account
+// directly. The benefits are the original decorator objects, so their state and their
+// own operations (claimInsurance, redeemPoints, ...) are shared with the nested chain.
+public final class CompiledAccount implements Account {
+    private static final ClassValue<boolean[]> HOOKS = new ClassValue<>() {
+        @Override
+        protected boolean[] computeValue(Class<?> type) {
+            return new boolean[]{
+                    overrides(type, "onDeposit", BigDecimal.class, Account.class),
+                    overrides(type, "onWithdraw", BigDecimal.class, Account.class),
+                    overrides(type, "onDepositReversed", BigDecimal.class, Account.class),
+                    overrides(type, "onWithdrawReversed", BigDecimal.class, BigDecimal.class, Account.class)
+            };
+        }
+    };
+
+    private final AccountDecorator nested;
+    private final Account base;
+    private final AccountDecorator[] benefits;
+    // views[i] is the account as seen from below benefits[i - 1]; views[benefits.length] is the base
+    private final Account[] views;
+    // nextDeposit[i] is the first benefit at index >= i that hooks deposits, or benefits.length
+    private final int[] nextDeposit;
+    private final int[] nextWithdraw;
+    private final int[] nextDepositReversed;
+    private final int[] nextWithdrawReversed;
+    private final String description;
+
+    private CompiledAccount(AccountDecorator nested, Account base, AccountDecorator[] benefits) {
+        this.nested = nested;
+        this.base = base;
+        this.benefits = benefits;
+
+        int size = benefits.length;
+        this.views = new Account[size + 1];
+        this.nextDeposit = new int[size + 1];
+        this.nextWithdraw = new int[size + 1];
+        this.nextDepositReversed = new int[size + 1];
+        this.nextWithdrawReversed = new int[size + 1];
+        views[size] = base;
+        nextDeposit[size] = size;
+        nextWithdraw[size] = size;
+        nextDepositReversed[size] = size;
+        nextWithdrawReversed[size] = size;
+        for (int i = size - 1; i >= 0; i--) {
+            boolean[] hooks = HOOKS.get(benefits[i].getClass());
+            nextDeposit[i] = hooks[0] ? i : nextDeposit[i + 1];
+            nextWithdraw[i] = hooks[1] ? i : nextWithdraw[i + 1];
+            nextDepositReversed[i] = hooks[2] ? i : nextDepositReversed[i + 1];
+            nextWithdrawReversed[i] = hooks[3] ? i : nextWithdrawReversed[i + 1];
+            if (i > 0) {
+                views[i] = new View(i);
+            }
+        }
+        views[0] = this;
+        // Descriptions depend only on each benefit's fixed terms
+        this.description = nested.getDescription();
+    }
+
+    // Flattens a decorator chain; anything else is returned unchanged
+    public static Account compile(Account account) {
+        if (!(account instanceof AccountDecorator)) {
+            return account;
+        }
+        List<AccountDecorator> layers = new ArrayList<>();
+        Account current = account;
+        while (current instanceof AccountDecorator) {
+            AccountDecorator decorator = (AccountDecorator) current;
+            layers.add(decorator);
+            current = decorator.getDecoratedAccount();
+        }
+        return new CompiledAccount((AccountDecorator) account, current,
+                layers.toArray(new AccountDecorator[0]));
+    }
+
+    // The equivalent nested chain, e.g. for persistence
+    public static Account unwrap(Account account) {
+        return account instanceof CompiledAccount ? ((CompiledAccount) account).nested : account;
+    }
+
+    @Override
+    public String getAccountNumber() {
+        return base.getAccountNumber();
+    }
+
+    @Override
+    public String getAccountType() {
+        return base.getAccountType();
+    }
+
+    @Override
+    public BigDecimal getBalance() {
+        return base.getBalance();
+    }
+
+    @Override
+    public void deposit(BigDecimal amount) {
+        deposit(0, amount);
+    }
+
+    @Override
+    public void withdraw(BigDecimal amount) {
+        withdraw(0, amount);
+    }
+
+    @Override
+    public void reverseDeposit(BigDecimal amount) {
+        reverseDeposit(0, amount);
+    }
+
+    @Override
+    public void reverseWithdrawal(BigDecimal amount, BigDecimal fromOverdraft) {
+        reverseWithdrawal(0, amount, fromOverdraft);
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public void close() {
+        base.close();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return base.isClosed();
+    }
+
+    @Override
+    public Account getBaseAccount() {
+        return base;
+    }
+
+    @Override
+    public <T> T getBenefit(Class<T> type) {
+        for (AccountDecorator benefit : benefits) {
+            if (type.isInstance(benefit)) {
+                return type.cast(benefit);
+            }
+        }
+        return base.getBenefit(type);
+    }
+
+    public int getBenefitCount() {
+        return benefits.length;
+    }
+
+    private void deposit(int from, BigDecimal amount) {
+        int index = nextDeposit[from];
+        if (index == benefits.length) {
+            base.deposit(amount);
+        } else {
+            benefits[index].onDeposit(amount, views[index + 1]);
+        }
+    }
+
+    private void withdraw(int from, BigDecimal amount) {
+        int index = nextWithdraw[from];
+        if (index == benefits.length) {
+            base.withdraw(amount);
+        } else {
+            benefits[index].onWithdraw(amount, views[index + 1]);
+        }
+    }
+
+    private void reverseDeposit(int from, BigDecimal amount) {
+        int index = nextDepositReversed[from];
+        if (index == benefits.length) {
+            base.reverseDeposit(amount);
+        } else {
+            benefits[index].onDepositReversed(amount, views[index + 1]);
+        }
+    }
+
+    private void reverseWithdrawal(int from, BigDecimal amount, BigDecimal fromOverdraft) {
+        int index = nextWithdrawReversed[from];
+        if (index == benefits.length) {
+            base.reverseWithdrawal(amount, fromOverdraft);
+        } else {
+            benefits[index].onWithdrawReversed(amount, fromOverdraft, views[index + 1]);
+        }
+    }
+
+    private static boolean overrides(Class<?> type, String hook, Class<?>... parameterTypes) {
+        try {
+            Class<?> declaring = type.getMethod(hook, parameterTypes).getDeclaringClass();
+            return declaring != BenefitHook.class && declaring != AccountDecorator.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // What a benefit sees as `next`: the benefits below it and the base account
+    private final class View implements Account {
+        private final int depth;
+
+        private View(int depth) {
+            this.depth = depth;
+        }
+
+        @Override public String getAccountNumber() { return base.getAccountNumber(); }
+        @Override public String getAccountType() { return base.getAccountType(); }
+        @Override public BigDecimal getBalance() { return base.getBalance(); }
+        @Override public void deposit(BigDecimal amount) { CompiledAccount.this.deposit(depth, amount); }
+        @Override public void withdraw(BigDecimal amount) { CompiledAccount.this.withdraw(depth, amount); }
+        @Override public void reverseDeposit(BigDecimal amount) { CompiledAccount.this.reverseDeposit(depth, amount); }
+        @Override public void reverseWithdrawal(BigDecimal amount, BigDecimal fromOverdraft) {
+            CompiledAccount.this.reverseWithdrawal(depth, amount, fromOverdraft);
+        }
+        @Override public String getDescription() { return benefits[depth].getDescription(); }
+        @Override public void close() { base.close(); }
+        @Override public boolean isClosed() { return base.isClosed(); }
+        @Override public Account getBaseAccount() { return base; }
+        @Override public <T> T getBenefit(Class<T> type) { return benefits[depth].getBenefit(type); }
+    }
+}
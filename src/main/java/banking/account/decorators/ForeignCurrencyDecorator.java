@@ -2,28 +2,27 @@
 package banking.account.decorators;
 
 import banking.account.Account;
+import banking.event.EventLog;
+import banking.event.EventType;
+import banking.fx.CurrencyConverter;
+import banking.fx.ExchangeRateTable;
 import java.math.BigDecimal;
 import java.util.Currency;
-import java.util.HashMap;
 import java.util.Map;
 
 public class ForeignCurrencyDecorator extends AccountDecorator {
-    private final Map<String, BigDecimal> exchangeRates;
+    // Shared by every multi-currency account, not copied per account
+    private final ExchangeRateTable exchangeRates;
     private final Currency baseCurrency;
 
     public ForeignCurrencyDecorator(Account decoratedAccount, Currency baseCurrency) {
-        super(decoratedAccount);
-        this.baseCurrency = baseCurrency;
-        this.exchangeRates = new HashMap<>();
-        initializeExchangeRates();
+        this(decoratedAccount, baseCurrency, ExchangeRateTable.getDefault());
     }
 
-    private void initializeExchangeRates() {
-        exchangeRates.put("USD", BigDecimal.ONE);
-        exchangeRates.put("EUR", BigDecimal.valueOf(0.85));
-        exchangeRates.put("GBP", BigDecimal.valueOf(0.73));
-        exchangeRates.put("JPY", BigDecimal.valueOf(110.0));
-        exchangeRates.put("CAD", BigDecimal.valueOf(1.25));
+    public ForeignCurrencyDecorator(Account decoratedAccount, Currency baseCurrency, ExchangeRateTable exchangeRates) {
+        super(decoratedAccount);
+        this.baseCurrency = baseCurrency;
+        this.exchangeRates = exchangeRates;
     }
 
     @Override
@@ -35,27 +34,32 @@ public class ForeignCurrencyDecorator extends AccountDecorator {
         BigDecimal exchangeRate = getExchangeRate(currencyCode);
         BigDecimal amountInUSD = amount.multiply(exchangeRate);
         decoratedAccount.deposit(amountInUSD);
-        System.out.println("Deposited " + amount + " " + currencyCode + " (=$ " + amountInUSD + " USD)");
+        EventLog.emit(EventType.FOREIGN_CURRENCY_DEPOSITED, amount, currencyCode, amountInUSD);
     }
 
     public BigDecimal getBalanceInCurrency(String currencyCode) {
-        BigDecimal exchangeRate = getExchangeRate(currencyCode);
-        return decoratedAccount.getBalance().divide(exchangeRate, 2, BigDecimal.ROUND_HALF_UP);
+        CurrencyConverter converter = exchangeRates.snapshot().getConverter();
+        return converter.convert(decoratedAccount.getBalance(), converter.idOf(currencyCode));
     }
 
     private BigDecimal getExchangeRate(String currencyCode) {
-        BigDecimal rate = exchangeRates.get(currencyCode.toUpperCase());
-        if (rate == null) {
-            throw new IllegalArgumentException("Unsupported currency: " + currencyCode);
-        }
-        return rate;
+        return exchangeRates.getRate(currencyCode);
     }
 
+    // Changes the rate for every account sharing the table
     public void updateExchangeRate(String currencyCode, BigDecimal newRate) {
-        exchangeRates.put(currencyCode.toUpperCase(), newRate);
+        exchangeRates.update(currencyCode, newRate);
+    }
+
+    public Currency getBaseCurrency() {
+        return baseCurrency;
     }
 
     public Map<String, BigDecimal> getSupportedCurrencies() {
-        return new HashMap<>(exchangeRates);
+        return exchangeRates.snapshot().getRates();
+    }
+
+    public ExchangeRateTable getExchangeRateTable() {
+        return exchangeRates;
     }
 }
\ No newline at end of file
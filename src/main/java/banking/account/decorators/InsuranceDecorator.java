@@ -2,6 +2,8 @@
 package banking.account.decorators;
 
 import banking.account.Account;
+import banking.event.EventLog;
+import banking.event.EventType;
 
 import java.math.BigDecimal;
 
@@ -15,6 +17,12 @@ public class InsuranceDecorator extends AccountDecorator {
         this.insuranceActive = true;
     }
 
+    public InsuranceDecorator(Account decoratedAccount, BigDecimal insuranceCoverage, boolean insuranceActive) {
+        super(decoratedAccount);
+        this.insuranceCoverage = insuranceCoverage;
+        this.insuranceActive = insuranceActive;
+    }
+
     @Override
     public String getDescription() {
         return decoratedAccount.getDescription() + " + Insurance Coverage ($" + insuranceCoverage + ")";
@@ -28,7 +36,7 @@ public class InsuranceDecorator extends AccountDecorator {
             throw new IllegalArgumentException("Claim amount exceeds insurance coverage");
         }
         decoratedAccount.deposit(amount);
-        System.out.println("Insurance claim processed: $" + amount);
+        EventLog.emit(EventType.INSURANCE_CLAIM_PROCESSED, amount);
     }
 
     public void cancelInsurance() {
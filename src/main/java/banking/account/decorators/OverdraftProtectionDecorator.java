@@ -2,16 +2,37 @@
 package banking.account.decorators;
 
 import banking.account.Account;
+import banking.account.BalanceCell;
+import banking.event.EventLog;
+import banking.event.EventType;
+import banking.model.Money;
+
 import java.math.BigDecimal;
 
 public class OverdraftProtectionDecorator extends AccountDecorator {
-    private final BigDecimal overdraftLimit;
-    private BigDecimal usedOverdraft;
+    private final Money overdraftLimit;
+    // The facility lives in the base account's cell, next to the balance it backs
+    private final BalanceCell cell;
 
-    public OverdraftProtectionDecorator(Account decoratedAccount, BigDecimal overdraftLimit) {
+    private OverdraftProtectionDecorator(Account decoratedAccount, Money overdraftLimit) {
         super(decoratedAccount);
         this.overdraftLimit = overdraftLimit;
-        this.usedOverdraft = BigDecimal.ZERO;
+        this.cell = decoratedAccount.getBalanceCell();
+        if (cell == null) {
+            throw new IllegalArgumentException("Overdraft protection needs an account that keeps its balance in a BalanceCell");
+        }
+    }
+
+    // Wraps the account and opens the facility on its balance cell. From then on the base
+    // account draws on the facility for whatever its positive balance does not cover.
+    public static OverdraftProtectionDecorator attach(Account account, BigDecimal overdraftLimit) {
+        return attach(account, overdraftLimit, BigDecimal.ZERO);
+    }
+
+    public static OverdraftProtectionDecorator attach(Account account, BigDecimal overdraftLimit, BigDecimal usedOverdraft) {
+        OverdraftProtectionDecorator decorator = new OverdraftProtectionDecorator(account, Money.of(overdraftLimit));
+        decorator.cell.openOverdraft(decorator.overdraftLimit.getMinorUnits(), Money.of(usedOverdraft).getMinorUnits());
+        return decorator;
     }
 
     @Override
@@ -19,40 +40,36 @@ public class OverdraftProtectionDecorator extends AccountDecorator {
         return decoratedAccount.getDescription() + " + Overdraft Protection ($" + overdraftLimit + ")";
     }
 
+    // The base account settles the withdrawal, balance check and overdraft draw included, in
+    // one compare-and-set on the cell, so concurrent withdrawals cannot both pass the limit
     @Override
-    public void withdraw(BigDecimal amount) {
-        BigDecimal currentBalance = decoratedAccount.getBalance();
-
-        if (currentBalance.compareTo(amount) >= 0) {
-            // Sufficient balance
-            decoratedAccount.withdraw(amount);
-        } else {
-            // Use overdraft
-            BigDecimal overdraftNeeded = amount.subtract(currentBalance);
-            if (overdraftNeeded.compareTo(overdraftLimit.subtract(usedOverdraft)) <= 0) {
-                decoratedAccount.withdraw(currentBalance); // Withdraw all balance
-                usedOverdraft = usedOverdraft.add(overdraftNeeded);
-                System.out.println("Used overdraft: $" + overdraftNeeded + ". Total used: $" + usedOverdraft);
-            } else {
-                throw new IllegalArgumentException("Overdraft limit exceeded");
-            }
+    public void onWithdraw(BigDecimal amount, Account next) {
+        long usedBefore = cell.getUsedOverdraft();
+        next.withdraw(amount);
+        // Only the event uses this; under the account lock it is exactly this withdrawal's draw
+        long drawn = cell.getUsedOverdraft() - usedBefore;
+        if (drawn > 0) {
+            EventLog.emit(EventType.OVERDRAFT_USED, Money.ofMinor(drawn), Money.ofMinor(usedBefore + drawn));
         }
     }
 
     public void repayOverdraft(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        Money value = Money.of(amount);
+        if (!value.isPositive()) {
             throw new IllegalArgumentException("Repayment amount must be positive");
         }
-        if (amount.compareTo(usedOverdraft) > 0) {
+        if (!cell.repayOverdraft(value.getMinorUnits())) {
             throw new IllegalArgumentException("Repayment exceeds used overdraft");
         }
-        usedOverdraft = usedOverdraft.subtract(amount);
-        System.out.println("Overdraft repaid: $" + amount + ". Remaining: $" + usedOverdraft);
+        EventLog.emit(EventType.OVERDRAFT_REPAID, amount, Money.ofMinor(cell.getUsedOverdraft()));
     }
 
     public BigDecimal getAvailableOverdraft() {
-        return overdraftLimit.subtract(usedOverdraft);
+        BalanceCell.State state = cell.snapshot();
+        return Money.ofMinor(state.getOverdraftLimit() - state.getUsedOverdraft()).toBigDecimal();
     }
 
-    public BigDecimal getUsedOverdraft() { return usedOverdraft; }
-}
\ No newline at end of file
+    public BigDecimal getOverdraftLimit() { return overdraftLimit.toBigDecimal(); }
+
+    public BigDecimal getUsedOverdraft() { return Money.ofMinor(cell.getUsedOverdraft()).toBigDecimal(); }
+}
@@ -2,6 +2,8 @@
 package banking.account.decorators;
 
 import banking.account.Account;
+import banking.event.EventLog;
+import banking.event.EventType;
 import java.math.BigDecimal;
 
 public class PriorityBankingDecorator extends AccountDecorator {
@@ -16,6 +18,11 @@ public class PriorityBankingDecorator extends AccountDecorator {
         this.freeTransactions = 50; // 50 free transactions per month
     }
 
+    public PriorityBankingDecorator(Account decoratedAccount, int freeTransactions) {
+        this(decoratedAccount);
+        this.freeTransactions = freeTransactions;
+    }
+
     @Override
     public String getDescription() {
         return decoratedAccount.getDescription() + " + Priority Banking Benefits";
@@ -43,7 +50,7 @@ public class PriorityBankingDecorator extends AccountDecorator {
 
     public void resetMonthlyBenefits() {
         this.freeTransactions = 50;
-        System.out.println("Monthly priority banking benefits reset");
+        EventLog.emit(EventType.PRIORITY_BENEFITS_RESET);
     }
 
     public BigDecimal getFeeWaiverThreshold() { return feeWaiverThreshold; }
@@ -2,6 +2,8 @@
 package banking.account.decorators;
 
 import banking.account.Account;
+import banking.event.EventLog;
+import banking.event.EventType;
 
 import java.math.BigDecimal;
 
@@ -15,21 +17,37 @@ public class RewardPointsDecorator extends AccountDecorator {
         this.rewardPoints = 0;
     }
 
+    public RewardPointsDecorator(Account decoratedAccount, BigDecimal pointsPerDollar, int rewardPoints) {
+        super(decoratedAccount);
+        this.pointsPerDollar = pointsPerDollar;
+        this.rewardPoints = rewardPoints;
+    }
+
     @Override
     public String getDescription() {
         return decoratedAccount.getDescription() + " + Reward Points (" + pointsPerDollar + " points/$)";
     }
 
     @Override
-    public void deposit(BigDecimal amount) {
-        decoratedAccount.deposit(amount);
+    public void onDeposit(BigDecimal amount, Account next) {
+        next.deposit(amount);
         addRewardPoints(amount);
     }
 
+    @Override
+    public void onDepositReversed(BigDecimal amount, Account next) {
+        next.reverseDeposit(amount);
+        rewardPoints -= pointsFor(amount);
+    }
+
+    private int pointsFor(BigDecimal amount) {
+        return amount.multiply(pointsPerDollar).intValue();
+    }
+
     private void addRewardPoints(BigDecimal amount) {
-        int points = amount.multiply(pointsPerDollar).intValue();
+        int points = pointsFor(amount);
         rewardPoints += points;
-        System.out.println("Earned " + points + " reward points. Total: " + rewardPoints);
+        EventLog.emit(EventType.REWARD_POINTS_EARNED, points, rewardPoints);
     }
 
     public void redeemPoints(int points) {
@@ -39,7 +57,7 @@ public class RewardPointsDecorator extends AccountDecorator {
         BigDecimal redemptionValue = BigDecimal.valueOf(points).divide(BigDecimal.valueOf(100)); // 100 points = $1
         decoratedAccount.deposit(redemptionValue);
         rewardPoints -= points;
-        System.out.println("Redeemed " + points + " points for $" + redemptionValue);
+        EventLog.emit(EventType.REWARD_POINTS_REDEEMED, points, redemptionValue);
     }
 
     public int getRewardPoints() {
@@ -2,6 +2,8 @@
 package banking.account.decorators;
 
 import banking.account.Account;
+import banking.event.EventLog;
+import banking.event.EventType;
 
 import java.math.BigDecimal;
 
@@ -15,6 +17,12 @@ public class TaxOptimizerDecorator extends AccountDecorator {
         this.taxSavings = BigDecimal.ZERO;
     }
 
+    public TaxOptimizerDecorator(Account decoratedAccount, BigDecimal taxRateReduction, BigDecimal taxSavings) {
+        super(decoratedAccount);
+        this.taxRateReduction = taxRateReduction;
+        this.taxSavings = taxSavings;
+    }
+
     @Override
     public String getDescription() {
         return decoratedAccount.getDescription() + " + Tax Optimization (" +
@@ -36,10 +44,21 @@ public class TaxOptimizerDecorator extends AccountDecorator {
     }
 
     @Override
-    public void withdraw(BigDecimal amount) {
+    public void onWithdraw(BigDecimal amount, Account next) {
+        // Only a withdrawal that went through earns savings
+        next.withdraw(amount);
         // Tax-optimized withdrawal logic
-        BigDecimal taxSavings = calculateTaxSavings(amount.multiply(BigDecimal.valueOf(0.1))); // Assume 10% taxable
-        System.out.println("Tax savings on this withdrawal: $" + taxSavings);
-        decoratedAccount.withdraw(amount);
+        BigDecimal taxSavings = calculateTaxSavings(taxableAmount(amount));
+        EventLog.emit(EventType.TAX_SAVINGS, taxSavings);
+    }
+
+    @Override
+    public void onWithdrawReversed(BigDecimal amount, BigDecimal fromOverdraft, Account next) {
+        next.reverseWithdrawal(amount, fromOverdraft);
+        taxSavings = taxSavings.subtract(taxableAmount(amount).multiply(taxRateReduction));
+    }
+
+    private static BigDecimal taxableAmount(BigDecimal amount) {
+        return amount.multiply(BigDecimal.valueOf(0.1)); // Assume 10% taxable
     }
 }
\ No newline at end of file
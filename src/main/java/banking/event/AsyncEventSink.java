@@ -0,0 +1,118 @@
+package banking.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Multi-producer ring buffer in front of another sink. Producers claim a slot with one CAS
+// and publish the event into it; a single consumer thread formats and forwards events in order.
+// When the ring is full producers either wait for a free slot or drop the event.
+public class AsyncEventSink implements EventSink, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 8192;
+    private static final long IDLE_PARK_NANOS = 200_000;
+
+    private final EventSink target;
+    private final AtomicReferenceArray<Event> ring;
+    private final int capacity;
+    private final int mask;
+    private final boolean dropWhenFull;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed;
+    private final Thread consumer;
+
+    public AsyncEventSink(EventSink target) {
+        this(target, DEFAULT_CAPACITY, false);
+    }
+
+    // capacity is rounded up to a power of two
+    public AsyncEventSink(EventSink target, int capacity, boolean dropWhenFull) {
+        this.target = target;
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.ring = new AtomicReferenceArray<>(this.capacity);
+        this.dropWhenFull = dropWhenFull;
+
+        this.consumer = new Thread(this::runConsumer, "event-log");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @Override
+    public void emit(Event event) {
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                if (dropWhenFull || closed) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                Thread.yield();
+                continue;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        ring.set((int) (sequence & mask), event);
+    }
+
+    // Waits until every event emitted before this call has reached the target sink
+    @Override
+    public void flush() {
+        long target = claimed.get();
+        while (consumed < target && consumer.isAlive()) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        this.target.flush();
+    }
+
+    public long getDroppedCount() { return dropped.get(); }
+    public int getCapacity() { return capacity; }
+
+    public int getPendingCount() {
+        return (int) Math.max(0, claimed.get() - consumed);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        target.flush();
+    }
+
+    private void runConsumer() {
+        long next = 0;
+        while (true) {
+            int slot = (int) (next & mask);
+            Event event = ring.get(slot);
+            if (event == null) {
+                long published = claimed.get();
+                if (published == next) {
+                    if (closed) {
+                        return;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                } else {
+                    // Slot claimed but its event not stored yet
+                    Thread.onSpinWait();
+                }
+                continue;
+            }
+            ring.lazySet(slot, null);
+            try {
+                target.emit(event);
+            } catch (RuntimeException e) {
+                // A failing sink must not stop the log
+            }
+            consumed = ++next;
+        }
+    }
+}
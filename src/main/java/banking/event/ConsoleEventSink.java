@@ -0,0 +1,19 @@
+package banking.event;
+
+// Prints each event as it arrives: info to standard output, warnings and errors to standard error
+public class ConsoleEventSink implements EventSink {
+    @Override
+    public void emit(Event event) {
+        if (event.getLevel() == EventLevel.INFO) {
+            System.out.println(event.format());
+        } else {
+            System.err.println(event.format());
+        }
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+        System.err.flush();
+    }
+}
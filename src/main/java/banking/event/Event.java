@@ -0,0 +1,42 @@
+package banking.event;
+
+import java.util.Arrays;
+
+// An emitted event: its type and raw arguments. The message text is only built by format(),
+// so a sink that drops or defers the event never pays for it. Arguments must be immutable.
+public class Event {
+    private final EventType type;
+    private final long timestampMillis;
+    private final Object[] arguments;
+
+    public Event(EventType type, Object... arguments) {
+        this.type = type;
+        this.timestampMillis = System.currentTimeMillis();
+        this.arguments = arguments;
+    }
+
+    public String format() {
+        String template = type.getTemplate();
+        StringBuilder text = new StringBuilder(template.length() + 16 * arguments.length);
+        int argument = 0;
+        int start = 0;
+        int placeholder;
+        while ((placeholder = template.indexOf("{}", start)) >= 0) {
+            text.append(template, start, placeholder);
+            text.append(argument < arguments.length ? arguments[argument++] : "{}");
+            start = placeholder + 2;
+        }
+        return text.append(template, start, template.length()).toString();
+    }
+
+    public EventType getType() { return type; }
+    public EventLevel getLevel() { return type.getLevel(); }
+    public long getTimestampMillis() { return timestampMillis; }
+    public int getArgumentCount() { return arguments.length; }
+    public Object getArgument(int index) { return arguments[index]; }
+
+    @Override
+    public String toString() {
+        return type + Arrays.toString(arguments);
+    }
+}
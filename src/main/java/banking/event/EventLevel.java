@@ -0,0 +1,5 @@
+package banking.event;
+
+public enum EventLevel {
+    INFO, WARNING, ERROR
+}
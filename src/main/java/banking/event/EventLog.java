@@ -0,0 +1,82 @@
+package banking.event;
+
+// Process-wide sink used by services and account decorators. Chosen with the banking.events
+// system property: "console" (default), "async" (console behind a ring buffer) or "none".
+public final class EventLog {
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private static volatile EventSink sink = createDefaultSink(System.getProperty("banking.events", "console"));
+
+    private EventLog() {
+    }
+
+    public static EventSink getSink() {
+        return sink;
+    }
+
+    public static void setSink(EventSink newSink) {
+        EventSink previous = sink;
+        sink = newSink;
+        previous.flush();
+    }
+
+    public static void flush() {
+        sink.flush();
+    }
+
+    // Fixed-arity overloads so that no argument array is built when the sink is disabled
+    public static void emit(EventType type) {
+        EventSink current = sink;
+        if (current.isEnabled()) {
+            current.emit(new Event(type, NO_ARGUMENTS));
+        }
+    }
+
+    public static void emit(EventType type, Object argument) {
+        EventSink current = sink;
+        if (current.isEnabled()) {
+            current.emit(new Event(type, argument));
+        }
+    }
+
+    public static void emit(EventType type, Object first, Object second) {
+        EventSink current = sink;
+        if (current.isEnabled()) {
+            current.emit(new Event(type, first, second));
+        }
+    }
+
+    public static void emit(EventType type, Object first, Object second, Object third) {
+        EventSink current = sink;
+        if (current.isEnabled()) {
+            current.emit(new Event(type, first, second, third));
+        }
+    }
+
+    public static void emit(EventType type, Object first, Object second, Object third, Object fourth) {
+        EventSink current = sink;
+        if (current.isEnabled()) {
+            current.emit(new Event(type, first, second, third, fourth));
+        }
+    }
+
+    public static void emit(EventType type, Object... arguments) {
+        EventSink current = sink;
+        if (current.isEnabled()) {
+            current.emit(new Event(type, arguments));
+        }
+    }
+
+    private static EventSink createDefaultSink(String name) {
+        switch (name) {
+            case "none":
+                return EventSink.NONE;
+            case "async":
+                AsyncEventSink async = new AsyncEventSink(new ConsoleEventSink());
+                Runtime.getRuntime().addShutdownHook(new Thread(async::close, "event-log-shutdown"));
+                return async;
+            default:
+                return new ConsoleEventSink();
+        }
+    }
+}
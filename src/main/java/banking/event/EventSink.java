@@ -0,0 +1,25 @@
+package banking.event;
+
+// Destination for events. emit() is called on the thread doing the work and must be cheap.
+public interface EventSink {
+    EventSink NONE = new EventSink() {
+        @Override
+        public void emit(Event event) {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    void emit(Event event);
+
+    // Lets callers skip building the event altogether
+    default boolean isEnabled() {
+        return true;
+    }
+
+    default void flush() {
+    }
+}
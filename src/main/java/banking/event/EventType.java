@@ -0,0 +1,89 @@
+package banking.event;
+
+// Every event the services emit, with its level and message template; "{}" marks an argument
+public enum EventType {
+    // Transactions
+    DEPOSIT_RECORDED(EventLevel.INFO, "✅ Deposit recorded: {} - ${} | Balance: ${} → ${}"),
+    DEPOSIT_FAILED(EventLevel.ERROR, "❌ Deposit failed: {}"),
+    WITHDRAWAL_RECORDED(EventLevel.INFO, "✅ Withdrawal recorded: {} - ${} | Balance: ${} → ${}"),
+    WITHDRAWAL_FAILED(EventLevel.ERROR, "❌ Withdrawal failed: {}"),
+    INVESTMENT_RETURN_RECORDED(EventLevel.INFO, "✅ Investment return recorded: {} - ${} | Balance: ${} → ${}"),
+    INVESTMENT_RETURN_FAILED(EventLevel.ERROR, "❌ Investment return failed: {}"),
+    FEE_RECORDED(EventLevel.INFO, "💸 Fee recorded: {} - ${} | Balance: ${} → ${}"),
+    FEE_FAILED(EventLevel.ERROR, "❌ Fee charge failed: {}"),
+    INTEREST_RECORDED(EventLevel.INFO, "📈 Interest recorded: {} - ${} | Balance: ${} → ${}"),
+    INTEREST_FAILED(EventLevel.ERROR, "❌ Interest posting failed: {}"),
+    TRANSFER_COMPLETED(EventLevel.INFO, "✅ Transfer completed: ${} from {} to {} | Balances: ${} / ${}"),
+    TRANSFER_FAILED(EventLevel.ERROR, "❌ Transfer failed: {}"),
+    TRANSACTION_NOT_FOUND(EventLevel.ERROR, "❌ Transaction not found: {}"),
+    TRANSACTION_CANCELLED(EventLevel.INFO, "❌ Transaction cancelled: {}"),
+    TRANSACTIONS_CANCELLED(EventLevel.INFO, "❌ Transactions cancelled: {} of {}"),
+    TRANSACTIONS_NOT_FOUND(EventLevel.ERROR, "❌ Transactions not found: {}"),
+    HISTORY_CLEARED(EventLevel.INFO, "🧹 Transaction history cleared for account: {}"),
+    BATCH_APPLIED(EventLevel.INFO, "📦 Batch applied to {}: {} succeeded, {} failed | Balance: ${}"),
+    BATCH_COMPLETED(EventLevel.INFO, "📦 Batch completed: {} operations, {} succeeded, {} failed"),
+
+    // Direct account operations
+    ACCOUNT_DEPOSITED(EventLevel.INFO, "💰 Deposited ${} to account {}\n📊 Balance: ${} → ${}"),
+    ACCOUNT_DEPOSIT_FAILED(EventLevel.ERROR, "❌ Deposit failed: {}"),
+    ACCOUNT_WITHDREW(EventLevel.INFO, "💸 Withdrew ${} from account {}\n📊 Balance: ${} → ${}"),
+    ACCOUNT_WITHDRAWAL_FAILED(EventLevel.ERROR, "❌ Withdrawal failed: {}"),
+    RETURNS_APPLIED(EventLevel.INFO,
+            "📈 Applied investment returns: ${} to account {}\n📊 Balance: ${} → ${}\n🎯 Total returns: ${} → ${}"),
+    RETURNS_FAILED(EventLevel.ERROR, "❌ Investment returns application failed: {}"),
+
+    // Account benefits
+    REWARD_POINTS_EARNED(EventLevel.INFO, "Earned {} reward points. Total: {}"),
+    REWARD_POINTS_REDEEMED(EventLevel.INFO, "Redeemed {} points for ${}"),
+    INSURANCE_CLAIM_PROCESSED(EventLevel.INFO, "Insurance claim processed: ${}"),
+    OVERDRAFT_USED(EventLevel.INFO, "Used overdraft: ${}. Total used: ${}"),
+    OVERDRAFT_REPAID(EventLevel.INFO, "Overdraft repaid: ${}. Remaining: ${}"),
+    PRIORITY_BENEFITS_RESET(EventLevel.INFO, "Monthly priority banking benefits reset"),
+    TAX_SAVINGS(EventLevel.INFO, "Tax savings on this withdrawal: ${}"),
+    FOREIGN_CURRENCY_DEPOSITED(EventLevel.INFO, "Deposited {} {} (=$ {} USD)"),
+
+    // Accounts and customers
+    ACCOUNT_OPENED(EventLevel.INFO, "✅ Successfully opened {} for customer {}"),
+    SAFETY_INVESTMENT_OPENED(EventLevel.INFO, "✅ Successfully opened safety-mode investment account"),
+    ACCOUNT_CLEANED_UP(EventLevel.INFO, "Performed cleanup operations for account: {}"),
+    ACCOUNT_CLOSED(EventLevel.INFO, "✅ Successfully closed account: {}"),
+    NOTIFICATION_SENT(EventLevel.INFO, "Notification sent to {}: {} - {}"),
+    NOTIFICATION_DELIVERY_FAILED(EventLevel.ERROR, "❌ Delivery of {} notification(s) failed: {}"),
+    ALERT_SWEEP_FAILED(EventLevel.ERROR, "❌ Sending coalesced alerts failed: {}"),
+    SYSTEM_RESET(EventLevel.INFO, "🔄 Banking system has been reset"),
+
+    // Persistence
+    JOURNAL_RECORD_SKIPPED(EventLevel.WARNING, "⚠️  Skipped WAL record {}: {}"),
+    RECOVERED(EventLevel.INFO, "🔄 Recovered {} accounts from snapshot {} and {} journal records"),
+    DATABASE_LOADED(EventLevel.INFO, "🔄 Loaded {} accounts from the database"),
+    SNAPSHOT_UNREADABLE(EventLevel.WARNING, "⚠️  Unreadable snapshot {}: {}"),
+    SNAPSHOT_FAILED(EventLevel.ERROR, "❌ Snapshot failed: {}"),
+    WRITE_BEHIND_RETRYING(EventLevel.WARNING, "⚠️  Write-behind batch failed, retrying: {}"),
+    WRITE_BEHIND_STOPPED(EventLevel.ERROR, "❌ Write-behind stopped with {} unwritten changes: {}"),
+    WRITE_BEHIND_REJECTED(EventLevel.ERROR, "❌ Database refused {}, moved to write_rejects: {}"),
+    CONNECTION_RELEASE_FAILED(EventLevel.WARNING, "⚠️  Failed to release database connection: {}"),
+
+    // Exchange rates
+    EXCHANGE_RATES_RELOADED(EventLevel.INFO, "💱 Exchange rates v{} loaded: {} currencies from {}"),
+    EXCHANGE_RATES_RELOAD_FAILED(EventLevel.ERROR, "❌ Exchange rate reload from {} failed: {}"),
+
+    // Batch processing
+    END_OF_PERIOD_COMPLETED(EventLevel.INFO,
+            "🗓️  End of period {}: {} accounts in {} ms ({} accounts/sec) | Fees: {} / ${}, {} waived | Interest: {} / ${}"),
+    INTEREST_ACCRUED(EventLevel.INFO,
+            "📈 Interest accrued for {} day(s): {} accounts, {} postings / ${}, {} failures in {} ms ({} accounts/sec)"),
+
+    // Bulk import
+    IMPORT_COMPLETED(EventLevel.INFO, "📥 Imported {}: {} rows, {} applied, {} rejected in {} ms ({} rows/sec)");
+
+    private final EventLevel level;
+    private final String template;
+
+    EventType(EventLevel level, String template) {
+        this.level = level;
+        this.template = template;
+    }
+
+    public EventLevel getLevel() { return level; }
+    public String getTemplate() { return template; }
+}
@@ -2,65 +2,97 @@ package banking.facade;
 
 import banking.account.*;
 import banking.account.decorators.*;
+import banking.event.EventLog;
+import banking.event.EventType;
 import banking.service.*;
 import banking.model.*;
 import banking.exception.*;
+import banking.persistence.*;
+import banking.repository.BankRepository;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class BankingFacade implements AutoCloseable {
+    private static final String SAFETY_INVESTMENT = "safety-investment";
 
-public class BankingFacade {
     private final AccountService accountService;
     private final TransactionService transactionService;
     private final NotificationService notificationService;
+    private final AlertCoalescer alertCoalescer;
     private final ReportService reportService;
+    private final AssetAggregator assetAggregator;
+    private final InterestAccrualEngine interestAccrual;
 
     private final Map<String, Account> managedAccounts;
     private final Map<String, Customer> customers;
+    private final OwnershipRegistry ownershipRegistry;
+    private final LedgerJournal journal;
+    private final AccountStore accountStore;
+    // Opening and closing accounts share the read side; a snapshot takes the write side
+    // only long enough to fix its sequence and the set of accounts it covers
+    private final ReentrantReadWriteLock structureLock;
+    // New and restored accounts are flattened into a CompiledAccount instead of a nested chain
+    private volatile boolean compiledAccounts = Boolean.getBoolean("banking.accounts.compiled");
 
     public BankingFacade() {
+        this(LedgerJournal.NONE);
+    }
+
+    public BankingFacade(LedgerJournal journal) {
+        this(journal, AccountStore.NONE);
+    }
+
+    public BankingFacade(LedgerJournal journal, AccountStore accountStore) {
+        this.journal = journal;
+        this.accountStore = accountStore;
         this.accountService = new AccountService();
-        this.transactionService = new TransactionService();
+        this.transactionService = new TransactionService(new TransactionLedger(), journal);
         this.notificationService = new NotificationService();
-        this.reportService = new ReportService(transactionService);
-
-        this.managedAccounts = new HashMap<>();
-        this.customers = new HashMap<>();
+        this.alertCoalescer = new AlertCoalescer(notificationService);
+        this.assetAggregator = new AssetAggregator();
+        this.reportService = new ReportService(transactionService, assetAggregator);
+        this.interestAccrual = new InterestAccrualEngine(transactionService, journal);
+
+        this.managedAccounts = new ConcurrentHashMap<>();
+        this.customers = new ConcurrentHashMap<>();
+        this.ownershipRegistry = new OwnershipRegistry();
+        this.structureLock = new ReentrantReadWriteLock();
     }
 
     // Основные методы из требований
     public Account openAccountWithBenefits(String customerId, String accountType, BigDecimal initialDeposit) {
         Customer customer = getOrCreateCustomer(customerId);
-        Account account = createBasicAccount(accountType, initialDeposit);
-
-        // Apply benefits based on account type and deposit amount
-        account = applyBenefitDecorators(account, accountType, initialDeposit);
+        Account account = buildAccount(accountType.toLowerCase(), null, initialDeposit);
 
-        managedAccounts.put(account.getAccountNumber(), account);
-        customer.addAccount(account.getAccountNumber());
+        registerAccount(customer, account, accountType.toLowerCase(), initialDeposit);
 
         notificationService.sendAccountOpenedNotification(customerId,
                 account.getAccountNumber(), account.getAccountType());
 
-        System.out.println("✅ Successfully opened " + account.getDescription() + " for customer " + customerId);
+        EventLog.emit(EventType.ACCOUNT_OPENED, account.getDescription(), customerId);
         accountService.displayAccountInfo(account);
 
         return account;
     }
 
     public Account investWithSafetyMode(String customerId, BigDecimal initialInvestment) {
-        InvestmentAccount investmentAccount = new InvestmentAccount();
-        investmentAccount.deposit(initialInvestment);
+        Account safeInvestmentAccount = buildAccount(SAFETY_INVESTMENT, null, initialInvestment);
 
-        Account safeInvestmentAccount = new TaxOptimizerDecorator(
-                new InsuranceDecorator(investmentAccount, BigDecimal.valueOf(50000)),
-                BigDecimal.valueOf(0.20)
-        );
-
-        managedAccounts.put(safeInvestmentAccount.getAccountNumber(), safeInvestmentAccount);
         Customer customer = getOrCreateCustomer(customerId);
-        customer.addAccount(safeInvestmentAccount.getAccountNumber());
+        registerAccount(customer, safeInvestmentAccount, SAFETY_INVESTMENT, initialInvestment);
 
         notificationService.sendNotification(customerId,
                 "Safety Mode Investment Created",
@@ -68,7 +100,7 @@ public class BankingFacade {
                 Notification.NotificationType.SUCCESS
         );
 
-        System.out.println("✅ Successfully opened safety-mode investment account");
+        EventLog.emit(EventType.SAFETY_INVESTMENT_OPENED);
         accountService.displayAccountInfo(safeInvestmentAccount);
 
         return safeInvestmentAccount;
@@ -76,7 +108,7 @@ public class BankingFacade {
 
     public void closeAccount(String customerId, String accountNumber) {
         Customer customer = customers.get(customerId);
-        if (customer == null || !customer.getAccountNumbers().contains(accountNumber)) {
+        if (customer == null || !ownershipRegistry.isOwnedBy(customerId, accountNumber)) {
             throw new AccountNotFoundException(accountNumber);
         }
 
@@ -86,9 +118,24 @@ public class BankingFacade {
         }
 
         performCleanupOperations(account);
-        account.close();
-        managedAccounts.remove(accountNumber);
-        customer.removeAccount(accountNumber);
+        ReentrantLock accountLock = transactionService.lockFor(accountNumber);
+        accountLock.lock();
+        try {
+            account.close();
+            accountStore.saveAccount(customerId, account);
+        } finally {
+            accountLock.unlock();
+        }
+        long sequence;
+        structureLock.readLock().lock();
+        try {
+            managedAccounts.remove(accountNumber);
+            ownershipRegistry.unlink(customer, accountNumber);
+            sequence = journal.append(LedgerRecord.accountClosed(customerId, accountNumber));
+        } finally {
+            structureLock.readLock().unlock();
+        }
+        journal.awaitDurable(sequence);
 
         notificationService.sendNotification(customerId,
                 "Account Closed",
@@ -96,26 +143,123 @@ public class BankingFacade {
                 Notification.NotificationType.INFO
         );
 
-        System.out.println("✅ Successfully closed account: " + accountNumber);
+        EventLog.emit(EventType.ACCOUNT_CLOSED, accountNumber);
     }
 
     // Новые расширенные методы
     public void transferBetweenAccounts(String fromAccountNumber, String toAccountNumber,
                                         BigDecimal amount, String description) {
+        transfer(fromAccountNumber, toAccountNumber, amount, description);
+    }
+
+    // Applies the operations grouped by account: each account's deposits and withdrawals run
+    // in submission order under one lock acquisition, with one owner lookup and one event per
+    // account. A transfer first applies what is pending for its two accounts, so every account
+    // sees its operations in submission order. Failures are reported per item; results are in
+    // the order of the operations.
+    public List<BatchResult> executeBatch(List<BatchOperation> operations) {
+        BatchResult[] results = new BatchResult[operations.size()];
+        Map<String, List<Integer>> pending = new LinkedHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            if (operation.getKind() != BatchOperation.Kind.TRANSFER) {
+                pending.computeIfAbsent(operation.getAccountNumber(), k -> new ArrayList<>()).add(i);
+                continue;
+            }
+
+            applyGroup(operation.getAccountNumber(), pending.remove(operation.getAccountNumber()), operations, results);
+            applyGroup(operation.getCounterpartyAccountNumber(),
+                    pending.remove(operation.getCounterpartyAccountNumber()), operations, results);
+            try {
+                Transaction withdrawal = transfer(operation.getAccountNumber(),
+                        operation.getCounterpartyAccountNumber(), operation.getAmount(), operation.getDescription());
+                results[i] = BatchResult.succeeded(operation, withdrawal);
+            } catch (RuntimeException e) {
+                results[i] = BatchResult.failed(operation, null, e.getMessage());
+            }
+        }
+        for (Map.Entry<String, List<Integer>> group : pending.entrySet()) {
+            applyGroup(group.getKey(), group.getValue(), operations, results);
+        }
+
+        int succeeded = 0;
+        for (BatchResult result : results) {
+            if (result.isSuccess()) {
+                succeeded++;
+            }
+        }
+        EventLog.emit(EventType.BATCH_COMPLETED, results.length, succeeded, results.length - succeeded);
+        return Arrays.asList(results);
+    }
+
+    private void applyGroup(String accountNumber, List<Integer> indexes, List<BatchOperation> operations,
+                            BatchResult[] results) {
+        if (indexes == null) {
+            return;
+        }
+        List<BatchOperation> accountOperations = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            accountOperations.add(operations.get(index));
+        }
+
+        Account account = managedAccounts.get(accountNumber);
+        if (account == null) {
+            String message = new AccountNotFoundException(accountNumber).getMessage();
+            for (int index : indexes) {
+                results[index] = BatchResult.failed(operations.get(index), null, message);
+            }
+            return;
+        }
+
+        List<BatchResult> accountResults = transactionService.recordBatch(account, accountOperations);
+        for (int i = 0; i < indexes.size(); i++) {
+            results[indexes.get(i)] = accountResults.get(i);
+        }
+        sendBatchAlerts(account, accountResults);
+    }
+
+    private Transaction transfer(String fromAccountNumber, String toAccountNumber,
+                                 BigDecimal amount, String description) {
         Account fromAccount = getAccount(fromAccountNumber);
         Account toAccount = getAccount(toAccountNumber);
 
-        transactionService.transfer(fromAccount, toAccount, amount, description);
+        Transaction withdrawal = transactionService.transfer(fromAccount, toAccount, amount, description);
 
         // Notify both account owners
         String fromCustomer = findCustomerByAccount(fromAccountNumber);
         String toCustomer = findCustomerByAccount(toAccountNumber);
 
         if (fromCustomer != null) {
-            notificationService.sendLargeTransactionAlert(fromCustomer, fromAccountNumber, amount, "Transfer Out");
+            alertCoalescer.largeTransaction(fromCustomer, fromAccountNumber, amount, "Transfer Out");
         }
         if (toCustomer != null) {
-            notificationService.sendLargeTransactionAlert(toCustomer, toAccountNumber, amount, "Transfer In");
+            alertCoalescer.largeTransaction(toCustomer, toAccountNumber, amount, "Transfer In");
+        }
+        return withdrawal;
+    }
+
+    // Same alerts as deposit() and withdraw(), but the low balance check runs once on the final balance
+    private void sendBatchAlerts(Account account, List<BatchResult> results) {
+        String customerId = findCustomerByAccount(account.getAccountNumber());
+        if (customerId == null) {
+            return;
+        }
+        boolean withdrew = false;
+        for (BatchResult result : results) {
+            if (!result.isSuccess()) {
+                continue;
+            }
+            BatchOperation operation = result.getOperation();
+            if (operation.getKind() == BatchOperation.Kind.DEPOSIT
+                    && operation.getAmount().compareTo(BigDecimal.valueOf(10000)) > 0) {
+                alertCoalescer.largeTransaction(customerId, account.getAccountNumber(),
+                        operation.getAmount(), "Large Deposit");
+            } else if (operation.getKind() == BatchOperation.Kind.WITHDRAWAL) {
+                withdrew = true;
+            }
+        }
+        if (withdrew && account.getBalance().compareTo(BigDecimal.valueOf(100)) < 0) {
+            alertCoalescer.lowBalance(customerId, account.getAccountNumber(), account.getBalance());
         }
     }
 
@@ -125,7 +269,7 @@ public class BankingFacade {
         // Используем getBaseAccount() для получения оригинального аккаунта
         Account baseAccount = account.getBaseAccount();
         if (baseAccount instanceof InvestmentAccount) {
-            accountService.applyInvestmentReturns((InvestmentAccount) baseAccount, returns);
+            transactionService.recordInvestmentReturn(account, returns, "Investment returns");
 
             String customerId = findCustomerByAccount(accountNumber);
             if (customerId != null) {
@@ -163,6 +307,38 @@ public class BankingFacade {
         return notificationService.getCustomerNotifications(customerId);
     }
 
+    // Sends pending alert summaries and waits until queued notifications have been delivered
+    public void flushNotifications() {
+        alertCoalescer.flush();
+        notificationService.flush();
+    }
+
+    // Repeated alerts for the same account and kind within this window are merged into one
+    public void setAlertCoalescingWindow(Duration window) {
+        alertCoalescer.setWindow(window);
+    }
+
+    // Month-end interest, fees and benefit resets over every open account; an interrupted run
+    // for the same period resumes from the checkpoint file
+    public EndOfPeriodReport runEndOfPeriod(YearMonth period, Path checkpointFile) throws IOException {
+        return new EndOfPeriodProcessor(transactionService).run(managedAccounts.values(), period, checkpointFile);
+    }
+
+    // Savings interest for every day since the last run through this date, posted at month
+    // end; run once per business day. A date that has already been accrued is refused.
+    public InterestAccrualReport accrueDailyInterest(LocalDate date) {
+        return interestAccrual.accrue(managedAccounts.values(), date);
+    }
+
+    // Affects accounts opened or restored from now on; existing accounts keep their shape
+    public void setCompiledAccounts(boolean compiledAccounts) {
+        this.compiledAccounts = compiledAccounts;
+    }
+
+    public NotificationService getNotificationService() {
+        return notificationService;
+    }
+
     public void deposit(String accountNumber, BigDecimal amount, String description) {
         Account account = getAccount(accountNumber);
         transactionService.recordDeposit(account, amount, description);
@@ -171,7 +347,7 @@ public class BankingFacade {
         if (amount.compareTo(BigDecimal.valueOf(10000)) > 0) {
             String customerId = findCustomerByAccount(accountNumber);
             if (customerId != null) {
-                notificationService.sendLargeTransactionAlert(customerId, accountNumber, amount, "Large Deposit");
+                alertCoalescer.largeTransaction(customerId, accountNumber, amount, "Large Deposit");
             }
         }
     }
@@ -184,7 +360,7 @@ public class BankingFacade {
         if (account.getBalance().compareTo(BigDecimal.valueOf(100)) < 0) {
             String customerId = findCustomerByAccount(accountNumber);
             if (customerId != null) {
-                notificationService.sendLowBalanceAlert(customerId, accountNumber, account.getBalance());
+                alertCoalescer.lowBalance(customerId, accountNumber, account.getBalance());
             }
         }
     }
@@ -221,25 +397,290 @@ public class BankingFacade {
 
     public String findFirstAccountForCustomer(String customerId) {
         Customer customer = customers.get(customerId);
-        if (customer == null || customer.getAccountNumbers().isEmpty()) {
+        if (customer == null || customer.getAccountCount() == 0) {
             throw new IllegalArgumentException("No accounts found for customer: " + customerId);
         }
 
         return customer.getAccountNumbers().get(0);
     }
 
+    // Replays a write-ahead log into this facade; returns the number of records read.
+    // Records an account has already seen (per its last journaled sequence) are skipped.
+    public long recoverFrom(WriteAheadLog wal, long afterSequence) throws IOException {
+        return wal.replay(afterSequence, record -> {
+            try {
+                replay(record);
+            } catch (RuntimeException e) {
+                EventLog.emit(EventType.JOURNAL_RECORD_SKIPPED, record, e.getMessage());
+            }
+        });
+    }
+
+    // Loads customers, open accounts, their transaction history and the interest accrued on
+    // them saved through a database account store and journal
+    public void loadFrom(BankRepository repository) throws SQLException {
+        Map<String, Account> accounts = repository.loadAccounts();
+        accounts.replaceAll((accountNumber, account) -> prepare(account));
+        // The stored state is the account as opened; replaying its postings brings the balance
+        // and the benefits' counters up to date, and must land on the row's ledger balance
+        Map<String, List<Transaction>> postings = repository.loadTransactions();
+        Map<String, Money> ledgerBalances = repository.loadLedgerBalances();
+        for (Account account : accounts.values()) {
+            String accountNumber = account.getAccountNumber();
+            for (Transaction posting : postings.getOrDefault(accountNumber, List.of())) {
+                transactionService.restore(account, posting);
+            }
+            Money position = netPosition(account);
+            Money ledgerBalance = ledgerBalances.get(accountNumber);
+            if (ledgerBalance != null && !ledgerBalance.equals(position)) {
+                throw new SQLException("Account " + accountNumber + " replays to " + position
+                        + " but its ledger balance is " + ledgerBalance);
+            }
+        }
+        managedAccounts.putAll(accounts);
+        for (LedgerRecord accrual : repository.loadInterestAccruals()) {
+            interestAccrual.restore(accrual);
+        }
+        for (Customer stored : repository.loadCustomers()) {
+            Customer customer = new Customer(stored.getCustomerId(), stored.getName(),
+                    stored.getEmail(), stored.getDateOfBirth());
+            customers.put(customer.getCustomerId(), customer);
+            for (String accountNumber : stored.getAccountNumbers()) {
+                if (accounts.containsKey(accountNumber)) {
+                    ownershipRegistry.link(customer, accountNumber);
+                }
+            }
+        }
+        EventLog.emit(EventType.DATABASE_LOADED, accounts.size());
+    }
+
+    // Loads the newest snapshot, then replays the log tail written after it
+    public long recover(SnapshotStore store, WriteAheadLog wal) throws IOException {
+        long snapshotSequence = store.loadLatest(this::readSnapshot);
+        long replayed = recoverFrom(wal, snapshotSequence);
+        EventLog.emit(EventType.RECOVERED, managedAccounts.size(), snapshotSequence, replayed);
+        return snapshotSequence;
+    }
+
+    // Writes a snapshot of every account and customer and drops log segments that no
+    // retained snapshot needs any more; returns the journal sequence the snapshot covers.
+    // Each account is copied under its own lock, so transfers keep running meanwhile.
+    public long writeSnapshot(SnapshotStore store, WriteAheadLog wal) throws IOException {
+        long sequence;
+        List<Account> accounts;
+        List<Customer> customerList;
+        Map<String, List<String>> customerAccounts = new HashMap<>();
+        structureLock.writeLock().lock();
+        try {
+            sequence = wal.getLastSequence();
+            accounts = new ArrayList<>(managedAccounts.values());
+            customerList = new ArrayList<>(customers.values());
+            for (Customer customer : customerList) {
+                customerAccounts.put(customer.getCustomerId(), customer.getAccountNumbers());
+            }
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+
+        store.write(sequence, out -> {
+            out.writeInt(customerList.size());
+            for (Customer customer : customerList) {
+                out.writeUTF(customer.getCustomerId());
+                out.writeUTF(customer.getName());
+                out.writeUTF(customer.getEmail());
+                out.writeLong(customer.getDateOfBirth().toEpochDay());
+                List<String> accountNumbers = customerAccounts.get(customer.getCustomerId());
+                out.writeInt(accountNumbers.size());
+                for (String accountNumber : accountNumbers) {
+                    out.writeUTF(accountNumber);
+                }
+            }
+
+            ByteArrayOutputStream accountBytes = new ByteArrayOutputStream(256);
+            DataOutputStream accountOut = new DataOutputStream(accountBytes);
+            out.writeInt(accounts.size());
+            for (Account account : accounts) {
+                accountBytes.reset();
+                ReentrantLock lock = transactionService.lockFor(account.getAccountNumber());
+                lock.lock();
+                try {
+                    accountOut.writeLong(transactionService.getLastJournaledSequence(account.getAccountNumber()));
+                    AccountCodec.write(account, accountOut);
+                } finally {
+                    lock.unlock();
+                }
+                accountBytes.writeTo(out);
+            }
+            interestAccrual.writeState(out);
+        });
+        wal.deleteSegmentsUpTo(store.oldestRetainedSequence());
+        return sequence;
+    }
+
+    public PeriodicSnapshotter startPeriodicSnapshots(SnapshotStore store, WriteAheadLog wal, Duration interval) {
+        return new PeriodicSnapshotter(() -> writeSnapshot(store, wal), interval);
+    }
+
+    private Runnable readSnapshot(DataInputStream in) throws IOException {
+        List<Customer> customerList = new ArrayList<>();
+        Map<String, List<String>> customerAccounts = new HashMap<>();
+        int customerCount = in.readInt();
+        for (int i = 0; i < customerCount; i++) {
+            Customer customer = new Customer(in.readUTF(), in.readUTF(), in.readUTF(),
+                    LocalDate.ofEpochDay(in.readLong()));
+            int accountCount = in.readInt();
+            List<String> accountNumbers = new ArrayList<>(accountCount);
+            for (int j = 0; j < accountCount; j++) {
+                accountNumbers.add(in.readUTF());
+            }
+            customerList.add(customer);
+            customerAccounts.put(customer.getCustomerId(), accountNumbers);
+        }
+
+        int accountCount = in.readInt();
+        Map<String, Account> accounts = new HashMap<>(accountCount * 2);
+        Map<String, Long> sequences = new HashMap<>(accountCount * 2);
+        for (int i = 0; i < accountCount; i++) {
+            long lastSequence = in.readLong();
+            Account account = prepare(AccountCodec.read(in));
+            accounts.put(account.getAccountNumber(), account);
+            sequences.put(account.getAccountNumber(), lastSequence);
+        }
+        Runnable accrualState = interestAccrual.readState(in);
+
+        return () -> {
+            managedAccounts.putAll(accounts);
+            sequences.forEach(transactionService::markJournaled);
+            accrualState.run();
+            for (Customer customer : customerList) {
+                customers.put(customer.getCustomerId(), customer);
+                for (String accountNumber : customerAccounts.get(customer.getCustomerId())) {
+                    if (accounts.containsKey(accountNumber)) {
+                        ownershipRegistry.link(customer, accountNumber);
+                    }
+                }
+            }
+        };
+    }
+
+    private void replay(LedgerRecord record) {
+        switch (record.getKind()) {
+            case ACCOUNT_OPENED -> {
+                if (managedAccounts.containsKey(record.getAccountNumber())) {
+                    return;
+                }
+                Customer customer = getOrCreateCustomer(record.getCustomerId());
+                Account account = buildAccount(record.getText(), record.getAccountNumber(),
+                        record.getAmount().toBigDecimal());
+                managedAccounts.put(account.getAccountNumber(), account);
+                ownershipRegistry.link(customer, account.getAccountNumber());
+                transactionService.markJournaled(account.getAccountNumber(), record.getSequence());
+            }
+            case ACCOUNT_CLOSED -> {
+                Account account = managedAccounts.remove(record.getAccountNumber());
+                Customer owner = ownershipRegistry.ownerOf(record.getAccountNumber());
+                if (account != null) {
+                    InsuranceDecorator insurance = account.getBenefit(InsuranceDecorator.class);
+                    if (insurance != null) {
+                        insurance.cancelInsurance();
+                    }
+                    account.close();
+                }
+                if (owner != null) {
+                    ownershipRegistry.unlink(owner, record.getAccountNumber());
+                }
+            }
+            case TRANSACTION -> {
+                if (record.getSequence() > transactionService.getLastJournaledSequence(record.getAccountNumber())) {
+                    transactionService.restore(getAccount(record.getAccountNumber()), record);
+                }
+            }
+            case TRANSFER -> {
+                // Either leg may already be part of the snapshot if the snapshot copied
+                // one account after the transfer and the other one before it
+                boolean applyWithdrawal = record.getSequence()
+                        > transactionService.getLastJournaledSequence(record.getAccountNumber());
+                boolean applyDeposit = record.getSequence()
+                        > transactionService.getLastJournaledSequence(record.getCounterpartyAccountNumber());
+                if (applyWithdrawal || applyDeposit) {
+                    transactionService.restoreTransfer(getAccount(record.getAccountNumber()),
+                            getAccount(record.getCounterpartyAccountNumber()), record, applyWithdrawal, applyDeposit);
+                }
+            }
+            case INTEREST_ACCRUED -> interestAccrual.restore(record);
+            case INTEREST_POSTED -> {
+                if (record.getSequence() > transactionService.getLastJournaledSequence(record.getAccountNumber())) {
+                    transactionService.restore(getAccount(record.getAccountNumber()), record);
+                }
+                interestAccrual.restore(record);
+            }
+        }
+    }
+
+    // The open record is journaled before the account becomes reachable,
+    // so no transaction on it can be logged ahead of its creation
+    private void registerAccount(Customer customer, Account account, String accountType, BigDecimal initialDeposit) {
+        long sequence;
+        structureLock.readLock().lock();
+        try {
+            sequence = journal.append(LedgerRecord.accountOpened(customer.getCustomerId(),
+                    account.getAccountNumber(), accountType, Money.of(initialDeposit)));
+            transactionService.markJournaled(account.getAccountNumber(), sequence);
+            accountStore.saveCustomer(customer);
+            accountStore.saveAccount(customer.getCustomerId(), account);
+            managedAccounts.put(account.getAccountNumber(), account);
+            ownershipRegistry.link(customer, account.getAccountNumber());
+        } finally {
+            structureLock.readLock().unlock();
+        }
+        journal.awaitDurable(sequence);
+    }
+
     // Вспомогательные методы
-    private Account createBasicAccount(String accountType, BigDecimal initialDeposit) {
+    private Account buildAccount(String accountType, String accountNumber, BigDecimal initialDeposit) {
+        if (SAFETY_INVESTMENT.equals(accountType)) {
+            InvestmentAccount investmentAccount = accountNumber == null
+                    ? new InvestmentAccount()
+                    : new InvestmentAccount(accountNumber, BigDecimal.ZERO);
+            investmentAccount.deposit(initialDeposit);
+
+            return prepare(new TaxOptimizerDecorator(
+                    new InsuranceDecorator(investmentAccount, BigDecimal.valueOf(50000)),
+                    BigDecimal.valueOf(0.20)
+            ));
+        }
+
+        Account account = createBasicAccount(accountType, accountNumber, initialDeposit);
+
+        // Apply benefits based on account type and deposit amount
+        return prepare(applyBenefitDecorators(account, accountType, initialDeposit));
+    }
+
+    private Account prepare(Account account) {
+        return compiledAccounts ? CompiledAccount.compile(account) : account;
+    }
+
+    // Balance less any overdraft drawn, which is what the postings add up to
+    private static Money netPosition(Account account) {
+        BalanceCell cell = account.getBalanceCell();
+        if (cell == null) {
+            return Money.of(account.getBalance());
+        }
+        BalanceCell.State state = cell.snapshot();
+        return Money.ofMinor(state.getBalance() - state.getUsedOverdraft());
+    }
+
+    private Account createBasicAccount(String accountType, String accountNumber, BigDecimal initialDeposit) {
         Account account;
         switch (accountType.toLowerCase()) {
             case "savings":
-                account = new SavingsAccount();
+                account = accountNumber == null ? new SavingsAccount() : new SavingsAccount(accountNumber, BigDecimal.ZERO);
                 break;
             case "investment":
-                account = new InvestmentAccount();
+                account = accountNumber == null ? new InvestmentAccount() : new InvestmentAccount(accountNumber, BigDecimal.ZERO);
                 break;
             case "checking":
-                account = new CheckingAccount();
+                account = accountNumber == null ? new CheckingAccount() : new CheckingAccount(accountNumber, BigDecimal.ZERO);
                 break;
             default:
                 throw new IllegalArgumentException("Unknown account type: " + accountType);
@@ -271,7 +712,7 @@ public class BankingFacade {
                 break;
 
             case "checking":
-                account = new OverdraftProtectionDecorator(account, BigDecimal.valueOf(2000));
+                account = OverdraftProtectionDecorator.attach(account, BigDecimal.valueOf(2000));
                 if (initialDeposit.compareTo(BigDecimal.valueOf(5000)) > 0) {
                     account = new ForeignCurrencyDecorator(account, java.util.Currency.getInstance("USD"));
                 }
@@ -296,20 +737,17 @@ public class BankingFacade {
     }
 
     private String findCustomerByAccount(String accountNumber) {
-        return customers.entrySet().stream()
-                .filter(entry -> entry.getValue().getAccountNumbers().contains(accountNumber))
-                .map(Map.Entry::getKey)
-                .findFirst()
-                .orElse(null);
+        return ownershipRegistry.ownerIdOf(accountNumber);
     }
 
     private void performCleanupOperations(Account account) {
         // Handle decorator-specific cleanup
-        if (account instanceof InsuranceDecorator) {
-            ((InsuranceDecorator) account).cancelInsurance();
+        InsuranceDecorator insurance = account.getBenefit(InsuranceDecorator.class);
+        if (insurance != null) {
+            insurance.cancelInsurance();
         }
 
-        System.out.println("Performed cleanup operations for account: " + account.getAccountNumber());
+        EventLog.emit(EventType.ACCOUNT_CLEANED_UP, account.getAccountNumber());
     }
 
     // Методы для демонстрации
@@ -328,7 +766,7 @@ public class BankingFacade {
             System.out.println("\n=== CUSTOMER: " + customerId + " ===");
             System.out.println("Name: " + customer.getName());
             System.out.println("Email: " + customer.getEmail());
-            System.out.println("Total Accounts: " + customer.getAccountNumbers().size());
+            System.out.println("Total Accounts: " + customer.getAccountCount());
             System.out.println("Accounts:");
             customer.getAccountNumbers().forEach(acc -> {
                 Account account = managedAccounts.get(acc);
@@ -345,6 +783,10 @@ public class BankingFacade {
     }
 
     // Дополнительные методы для получения информации
+    public boolean hasAccount(String accountNumber) {
+        return managedAccounts.containsKey(accountNumber);
+    }
+
     public int getTotalManagedAccounts() {
         return managedAccounts.size();
     }
@@ -358,16 +800,26 @@ public class BankingFacade {
     }
 
     public BigDecimal getTotalAssetsUnderManagement() {
-        return managedAccounts.values().stream()
-                .filter(account -> !account.isClosed())
-                .map(Account::getBalance)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return assetAggregator.totalBalance(managedAccounts.values());
+    }
+
+    public AssetSummary getAssetsUnderManagementByType() {
+        return assetAggregator.summarize(managedAccounts.values());
+    }
+
+    // Sends the pending alert summaries, delivers the queued notifications and stops the
+    // threads behind both; the journal and account store belong to the caller
+    @Override
+    public void close() {
+        alertCoalescer.close();
+        notificationService.close();
     }
 
     // Метод для сброса системы (для тестирования)
     public void resetSystem() {
         managedAccounts.clear();
         customers.clear();
-        System.out.println("🔄 Banking system has been reset");
+        ownershipRegistry.clear();
+        EventLog.emit(EventType.SYSTEM_RESET);
     }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package banking.fx;
+
+import banking.account.Account;
+import banking.model.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Converts US dollar amounts into other currencies for one ExchangeRates version.
+//
+// Currencies are numbered 0..n-1 in table order; resolve them with idOf once and convert
+// by id. Each rate is held as an integer divisor and power of ten (0.85 is 85 / 10^2) with
+// its reciprocal precomputed, so a conversion is a multiplication, a one-step integer
+// correction and a half-up rounding on the remainder: the same cents as
+// usd.divide(rate, 2, HALF_UP), without BigDecimal.
+public final class CurrencyConverter {
+    // Numerators up to 2^53 are exact as doubles, which keeps the estimate within one or two
+    private static final long MAX_FAST_NUMERATOR = 1L << 53;
+
+    private final String[] codes;
+    private final Map<String, Integer> ids;
+    private final BigDecimal[] rates;
+    private final long[] divisors;
+    private final long[] multipliers;
+    private final double[] reciprocals;
+    // Largest USD amount in cents that takes the integer path, per currency
+    private final long[] fastPathLimits;
+
+    CurrencyConverter(Map<String, BigDecimal> rates) {
+        int size = rates.size();
+        this.codes = new String[size];
+        this.ids = new HashMap<>();
+        this.rates = new BigDecimal[size];
+        this.divisors = new long[size];
+        this.multipliers = new long[size];
+        this.reciprocals = new double[size];
+        this.fastPathLimits = new long[size];
+
+        int id = 0;
+        for (Map.Entry<String, BigDecimal> rate : rates.entrySet()) {
+            codes[id] = rate.getKey();
+            ids.put(rate.getKey(), id);
+            this.rates[id] = rate.getValue();
+
+            BigDecimal normalized = rate.getValue().stripTrailingZeros();
+            if (normalized.scale() < 0) {
+                normalized = normalized.setScale(0);
+            }
+            try {
+                divisors[id] = normalized.unscaledValue().longValueExact();
+                multipliers[id] = BigDecimal.ONE.movePointRight(normalized.scale()).longValueExact();
+                fastPathLimits[id] = MAX_FAST_NUMERATOR / multipliers[id];
+            } catch (ArithmeticException e) {
+                // Too many digits for integer arithmetic; every conversion takes the BigDecimal path
+                divisors[id] = 0;
+            }
+            reciprocals[id] = divisors[id] == 0 ? 0 : 1.0 / divisors[id];
+            id++;
+        }
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public String codeOf(int currencyId) {
+        return codes[currencyId];
+    }
+
+    public int idOf(String currencyCode) {
+        Integer id = ids.get(currencyCode);
+        if (id == null) {
+            id = ids.get(ExchangeRates.normalize(currencyCode));
+            if (id == null) {
+                throw new IllegalArgumentException("Unsupported currency: " + currencyCode);
+            }
+        }
+        return id;
+    }
+
+    public int[] idsOf(List<String> currencyCodes) {
+        int[] result = new int[currencyCodes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = idOf(currencyCodes.get(i));
+        }
+        return result;
+    }
+
+    // usdMinor / rate in the target currency's cents, rounded half-up (away from zero).
+    // Throws ArithmeticException when the result does not fit in a long.
+    public long convertMinor(long usdMinor, int currencyId) {
+        long divisor = divisors[currencyId];
+        long magnitude = Math.abs(usdMinor);
+        if (divisor == 0 || usdMinor == Long.MIN_VALUE || magnitude > fastPathLimits[currencyId]) {
+            return BigDecimal.valueOf(usdMinor)
+                    .divide(rates[currencyId], 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        }
+
+        long numerator = magnitude * multipliers[currencyId];
+        long quotient = (long) (numerator * reciprocals[currencyId]);
+        long remainder = numerator - quotient * divisor;
+        // The estimate is off by at most a unit or two; step it onto the exact quotient
+        while (remainder < 0) {
+            quotient--;
+            remainder += divisor;
+        }
+        while (remainder >= divisor) {
+            quotient++;
+            remainder -= divisor;
+        }
+        if (remainder >= divisor - remainder) {
+            quotient++;
+        }
+        return usdMinor < 0 ? -quotient : quotient;
+    }
+
+    public BigDecimal convert(BigDecimal usdAmount, int currencyId) {
+        try {
+            return Money.ofMinor(convertMinor(Money.of(usdAmount).getMinorUnits(), currencyId)).toBigDecimal();
+        } catch (ArithmeticException e) {
+            return usdAmount.divide(rates[currencyId], Money.SCALE, RoundingMode.HALF_UP);
+        }
+    }
+
+    // result[a][c] is the balance of accounts[a] in currencyIds[c], in that currency's cents
+    public long[][] convertBalances(List<Account> accounts, int[] currencyIds) {
+        long[][] result = new long[accounts.size()][currencyIds.length];
+        for (int a = 0; a < result.length; a++) {
+            long usdMinor = Money.of(accounts.get(a).getBalance()).getMinorUnits();
+            long[] row = result[a];
+            for (int c = 0; c < currencyIds.length; c++) {
+                row[c] = convertMinor(usdMinor, currencyIds[c]);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package banking.fx;
+
+import banking.event.EventLog;
+import banking.event.EventType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Polls a rates file on its own daemon thread and reloads the table when the file changes
+public class ExchangeRateReloader implements AutoCloseable {
+    private final ExchangeRateTable table;
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+    private FileTime lastModified;
+
+    ExchangeRateReloader(ExchangeRateTable table, Path file, Duration interval) {
+        this.table = table;
+        this.file = file;
+        this.lastModified = modifiedTime();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fx-rate-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::reloadIfModified, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    private void reloadIfModified() {
+        FileTime modified = modifiedTime();
+        if (modified == null || modified.equals(lastModified)) {
+            return;
+        }
+        lastModified = modified;
+        try {
+            table.reload(file);
+        } catch (IOException e) {
+            EventLog.emit(EventType.EXCHANGE_RATES_RELOAD_FAILED, file, e.getMessage());
+        }
+    }
+
+    private FileTime modifiedTime() {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
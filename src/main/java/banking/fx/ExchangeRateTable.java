@@ -0,0 +1,104 @@
+package banking.fx;
+
+import banking.event.EventLog;
+import banking.event.EventType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Process-wide exchange rates shared by every multi-currency account. Readers take the
+// current ExchangeRates with a single volatile read and never block; writers build a new
+// version from a copy and publish it with a compare-and-set, so a reader always sees one
+// complete version.
+public class ExchangeRateTable {
+    private static final ExchangeRateTable DEFAULT = new ExchangeRateTable(defaultRates());
+
+    private final AtomicReference<ExchangeRates> current;
+
+    public ExchangeRateTable(Map<String, BigDecimal> rates) {
+        this.current = new AtomicReference<>(new ExchangeRates(1, rates));
+    }
+
+    public static ExchangeRateTable getDefault() {
+        return DEFAULT;
+    }
+
+    public static Map<String, BigDecimal> defaultRates() {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        rates.put("USD", BigDecimal.ONE);
+        rates.put("EUR", BigDecimal.valueOf(0.85));
+        rates.put("GBP", BigDecimal.valueOf(0.73));
+        rates.put("JPY", BigDecimal.valueOf(110.0));
+        rates.put("CAD", BigDecimal.valueOf(1.25));
+        return rates;
+    }
+
+    public ExchangeRates snapshot() {
+        return current.get();
+    }
+
+    public BigDecimal getRate(String currencyCode) {
+        return current.get().getRate(currencyCode);
+    }
+
+    public ExchangeRates update(String currencyCode, BigDecimal rate) {
+        ExchangeRates.checkRate(currencyCode, rate);
+        return current.updateAndGet(rates -> rates.with(currencyCode, rate));
+    }
+
+    // Swaps in a complete new set of rates; currencies missing from it are no longer supported
+    public ExchangeRates replace(Map<String, BigDecimal> rates) {
+        if (rates.isEmpty()) {
+            throw new IllegalArgumentException("Exchange rate table cannot be empty");
+        }
+        ExchangeRates previous;
+        ExchangeRates next;
+        do {
+            previous = current.get();
+            next = new ExchangeRates(previous.getVersion() + 1, rates);
+        } while (!current.compareAndSet(previous, next));
+        return next;
+    }
+
+    // Rates file: one "CODE rate" or "CODE=rate" per line; blank lines and # comments are ignored.
+    // A file that fails to parse leaves the current rates in place.
+    public ExchangeRates reload(Path file) throws IOException {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("[=\\s]+");
+            try {
+                if (fields.length != 2) {
+                    throw new IllegalArgumentException("expected CODE rate");
+                }
+                String code = ExchangeRates.normalize(fields[0]);
+                rates.put(code, ExchangeRates.checkRate(code, new BigDecimal(fields[1])));
+            } catch (IllegalArgumentException e) {
+                throw new IOException(file + " line " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        if (rates.isEmpty()) {
+            throw new IOException(file + " has no exchange rates");
+        }
+        ExchangeRates loaded = replace(rates);
+        EventLog.emit(EventType.EXCHANGE_RATES_RELOADED, loaded.getVersion(), rates.size(), file);
+        return loaded;
+    }
+
+    // Reloads the file whenever its modification time changes, until the reloader is closed
+    public ExchangeRateReloader watch(Path file, Duration interval) {
+        return new ExchangeRateReloader(this, file, interval);
+    }
+}
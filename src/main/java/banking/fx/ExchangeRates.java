@@ -0,0 +1,78 @@
+package banking.fx;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// One immutable version of the exchange rate table. A rate converts an amount in that
+// currency to US dollars: amount in USD = amount * rate.
+public final class ExchangeRates {
+    private final long version;
+    private final Map<String, BigDecimal> rates;
+    private final CurrencyConverter converter;
+
+    ExchangeRates(long version, Map<String, BigDecimal> rates) {
+        Map<String, BigDecimal> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, BigDecimal> rate : rates.entrySet()) {
+            copy.put(normalize(rate.getKey()), checkRate(rate.getKey(), rate.getValue()));
+        }
+        this.version = version;
+        this.rates = Collections.unmodifiableMap(copy);
+        this.converter = new CurrencyConverter(this.rates);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public BigDecimal getRate(String currencyCode) {
+        BigDecimal rate = rates.get(currencyCode);
+        if (rate == null) {
+            rate = rates.get(normalize(currencyCode));
+        }
+        if (rate == null) {
+            throw new IllegalArgumentException("Unsupported currency: " + currencyCode);
+        }
+        return rate;
+    }
+
+    public boolean supports(String currencyCode) {
+        return rates.containsKey(normalize(currencyCode));
+    }
+
+    public Map<String, BigDecimal> getRates() {
+        return rates;
+    }
+
+    // Built once per version, so bulk conversions never rebuild it
+    public CurrencyConverter getConverter() {
+        return converter;
+    }
+
+    ExchangeRates with(String currencyCode, BigDecimal rate) {
+        Map<String, BigDecimal> updated = new LinkedHashMap<>(rates);
+        updated.put(normalize(currencyCode), rate);
+        return new ExchangeRates(version + 1, updated);
+    }
+
+    static String normalize(String currencyCode) {
+        if (currencyCode == null || currencyCode.length() != 3) {
+            throw new IllegalArgumentException("Invalid currency code: " + currencyCode);
+        }
+        return currencyCode.toUpperCase(Locale.ROOT);
+    }
+
+    static BigDecimal checkRate(String currencyCode, BigDecimal rate) {
+        if (rate == null || rate.signum() <= 0) {
+            throw new IllegalArgumentException("Exchange rate for " + currencyCode + " must be positive: " + rate);
+        }
+        return rate;
+    }
+
+    @Override
+    public String toString() {
+        return "ExchangeRates[v" + version + " " + rates + "]";
+    }
+}
@@ -0,0 +1,95 @@
+package banking.importer;
+
+import banking.model.BatchOperation;
+
+import java.math.BigDecimal;
+
+// Line layouts accepted by TransactionImporter. The operation type is DEPOSIT, WITHDRAWAL
+// or TRANSFER, or just D, W or T; the counterparty is only used by transfers.
+public enum ImportFormat {
+    // type,account,amount[,counterparty[,description]]; the description may contain commas
+    CSV {
+        @Override
+        BatchOperation parse(String line) {
+            String[] fields = line.split(",", 5);
+            if (fields.length < 3) {
+                throw new IllegalArgumentException("Expected at least 3 fields, found " + fields.length);
+            }
+            return operation(fields[0], fields[1], fields[2],
+                    fields.length > 3 ? fields[3] : "",
+                    fields.length > 4 ? fields[4] : "");
+        }
+
+        @Override
+        boolean isHeader(String line) {
+            return line.regionMatches(true, 0, "type,", 0, 5);
+        }
+    },
+
+    // type(1) account(20) amount(15) counterparty(20) description(rest)
+    FIXED_WIDTH {
+        @Override
+        BatchOperation parse(String line) {
+            if (line.length() < AMOUNT_END) {
+                throw new IllegalArgumentException("Line shorter than " + AMOUNT_END + " characters");
+            }
+            return operation(line.substring(0, TYPE_END),
+                    line.substring(TYPE_END, ACCOUNT_END),
+                    line.substring(ACCOUNT_END, AMOUNT_END),
+                    line.length() > AMOUNT_END ? line.substring(AMOUNT_END, Math.min(line.length(), COUNTERPARTY_END)) : "",
+                    line.length() > COUNTERPARTY_END ? line.substring(COUNTERPARTY_END) : "");
+        }
+
+        @Override
+        boolean isHeader(String line) {
+            return false;
+        }
+    };
+
+    private static final int TYPE_END = 1;
+    private static final int ACCOUNT_END = TYPE_END + 20;
+    private static final int AMOUNT_END = ACCOUNT_END + 15;
+    private static final int COUNTERPARTY_END = AMOUNT_END + 20;
+    private static final String DEFAULT_DESCRIPTION = "Bulk import";
+
+    // Throws IllegalArgumentException with the reason a line is rejected
+    abstract BatchOperation parse(String line);
+
+    abstract boolean isHeader(String line);
+
+    private static BatchOperation operation(String type, String account, String amount,
+                                            String counterparty, String description) {
+        String accountNumber = account.trim();
+        if (accountNumber.isEmpty()) {
+            throw new IllegalArgumentException("Missing account number");
+        }
+        BigDecimal value;
+        try {
+            value = new BigDecimal(amount.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount.trim());
+        }
+        if (value.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + value);
+        }
+        String text = description.trim().isEmpty() ? DEFAULT_DESCRIPTION : description.trim();
+
+        switch (type.trim().toUpperCase()) {
+            case "D":
+            case "DEPOSIT":
+                return BatchOperation.deposit(accountNumber, value, text);
+            case "W":
+            case "WITHDRAWAL":
+                return BatchOperation.withdrawal(accountNumber, value, text);
+            case "T":
+            case "TRANSFER":
+                String toAccount = counterparty.trim();
+                if (toAccount.isEmpty()) {
+                    throw new IllegalArgumentException("Transfer without counterparty account");
+                }
+                return BatchOperation.transfer(accountNumber, toAccount, value, text);
+            default:
+                throw new IllegalArgumentException("Unknown operation type: " + type.trim());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package banking.importer;
+
+import java.nio.file.Path;
+
+// Counters and timings of one TransactionImporter run
+public class ImportReport {
+    private final Path source;
+    private final Path rejectFile;
+    private final long rows;
+    private final long applied;
+    private final long rejected;
+    private final long parseMillis;
+    private final long applyMillis;
+
+    ImportReport(Path source, Path rejectFile, long rows, long applied, long rejected,
+                 long parseMillis, long applyMillis) {
+        this.source = source;
+        this.rejectFile = rejectFile;
+        this.rows = rows;
+        this.applied = applied;
+        this.rejected = rejected;
+        this.parseMillis = parseMillis;
+        this.applyMillis = applyMillis;
+    }
+
+    public long getRowsPerSecond() {
+        long millis = Math.max(1, getTotalMillis());
+        return rows * 1000 / millis;
+    }
+
+    public long getTotalMillis() {
+        return parseMillis + applyMillis;
+    }
+
+    public Path getSource() { return source; }
+    public Path getRejectFile() { return rejectFile; }
+    public long getRows() { return rows; }
+    public long getApplied() { return applied; }
+    public long getRejected() { return rejected; }
+    public long getParseMillis() { return parseMillis; }
+    public long getApplyMillis() { return applyMillis; }
+
+    @Override
+    public String toString() {
+        return "ImportReport[" + source.getFileName() + ": " + rows + " rows, " + applied + " applied, "
+                + rejected + " rejected, " + getTotalMillis() + " ms, " + getRowsPerSecond() + " rows/sec]";
+    }
+}
@@ -0,0 +1,443 @@
+package banking.importer;
+
+import banking.event.EventLog;
+import banking.event.EventType;
+import banking.facade.BankingFacade;
+import banking.model.BatchOperation;
+import banking.model.BatchResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Loads a transaction file into a BankingFacade.
+//
+// The file is cut at line boundaries into chunks that are memory-mapped and parsed in
+// parallel, checking every account against the facade on the way. Operations are then
+// applied in file order per account: deposits and withdrawals collect into batches that run
+// as executeBatch calls on disjoint groups of accounts in parallel, and a transfer first
+// flushes the pending operations of its two accounts. Rejected rows go to the reject file
+// as "line<TAB>reason<TAB>original line", in line order.
+public class TransactionImporter {
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+    private static final long MAX_CHUNK_SIZE = 1 << 30;
+    private static final int FLUSH_THRESHOLD = 100_000;
+    private static final int SCAN_BUFFER_SIZE = 8192;
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    private final BankingFacade facade;
+    private final ImportFormat format;
+    private final int parallelism;
+    private final long minChunkSize;
+    private final int windowSize;
+
+    public TransactionImporter(BankingFacade facade, ImportFormat format) {
+        this(facade, format, Runtime.getRuntime().availableProcessors());
+    }
+
+    public TransactionImporter(BankingFacade facade, ImportFormat format, int parallelism) {
+        this(facade, format, parallelism, MIN_CHUNK_SIZE, WINDOW_SIZE);
+    }
+
+    // Small chunks and windows let tests cross chunk boundaries and window growth with a few lines
+    TransactionImporter(BankingFacade facade, ImportFormat format, int parallelism, long minChunkSize, int windowSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.facade = facade;
+        this.format = format;
+        this.parallelism = parallelism;
+        this.minChunkSize = minChunkSize;
+        this.windowSize = windowSize;
+    }
+
+    public ImportReport importFile(Path input, Path rejectFile) throws IOException {
+        long started = System.nanoTime();
+        List<Reject> rejects = new ArrayList<>();
+        long rows = 0;
+        long applied;
+        long parsed;
+
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+             ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            List<Chunk> chunks = parse(channel, executor);
+            parsed = System.nanoTime();
+
+            long lineBase = 0;
+            for (Chunk chunk : chunks) {
+                chunk.lineBase = lineBase;
+                lineBase += chunk.lines;
+                rows += chunk.rows;
+                for (Reject reject : chunk.rejects) {
+                    reject.line += chunk.lineBase;
+                    rejects.add(reject);
+                }
+            }
+            applied = apply(chunks, channel, executor, rejects);
+        }
+        long finished = System.nanoTime();
+
+        rejects.sort(Comparator.comparingLong(reject -> reject.line));
+        writeRejects(rejectFile, rejects);
+
+        ImportReport report = new ImportReport(input, rejectFile, rows, applied, rejects.size(),
+                (parsed - started) / 1_000_000, (finished - parsed) / 1_000_000);
+        EventLog.emit(EventType.IMPORT_COMPLETED, input.getFileName(), report.getRows(), report.getApplied(),
+                report.getRejected(), report.getTotalMillis(), report.getRowsPerSecond());
+        return report;
+    }
+
+    private List<Chunk> parse(FileChannel channel, ExecutorService executor) throws IOException {
+        List<Long> bounds = chunkBounds(channel);
+        List<Future<Chunk>> futures = new ArrayList<>(bounds.size());
+        for (int i = 0; i + 1 < bounds.size(); i++) {
+            long from = bounds.get(i);
+            long to = bounds.get(i + 1);
+            boolean first = i == 0;
+            futures.add(executor.submit(() -> parseChunk(channel, from, to, first)));
+        }
+
+        List<Chunk> chunks = new ArrayList<>(futures.size());
+        for (Future<Chunk> future : futures) {
+            try {
+                chunks.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while parsing import file", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IllegalStateException("Failed to parse import file", e.getCause());
+            }
+        }
+        return chunks;
+    }
+
+    // Chunk start offsets, each right after a line break, followed by the file size
+    private List<Long> chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long target = Math.min(MAX_CHUNK_SIZE, Math.max(minChunkSize, size / (parallelism * 4L)));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long position = target;
+        while (position < size) {
+            long next = nextLineStart(channel, position, size);
+            if (next >= size) {
+                break;
+            }
+            bounds.add(next);
+            position = next + target;
+        }
+        bounds.add(size);
+        return bounds;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long offset = position - 1;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    // Lines are found in windows copied out of the mapping, which scans far faster than
+    // reading the mapped buffer byte by byte
+    private Chunk parseChunk(FileChannel channel, long from, long to, boolean firstChunk) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        Chunk chunk = new Chunk(from);
+        byte[] window = new byte[windowSize];
+        int limit = buffer.limit();
+        int position = 0;
+
+        while (position < limit) {
+            int length = Math.min(window.length, limit - position);
+            buffer.get(position, window, 0, length);
+            int lineStart = 0;
+            for (int i = 0; i < length; i++) {
+                if (window[i] == '\n') {
+                    parseLine(chunk, window, lineStart, i, position + lineStart, firstChunk);
+                    lineStart = i + 1;
+                }
+            }
+            if (position + length == limit && lineStart < length) {
+                // Last line of the file without a line break
+                parseLine(chunk, window, lineStart, length, position + lineStart, firstChunk);
+                lineStart = length;
+            }
+            if (lineStart == 0) {
+                window = new byte[window.length * 2];
+            }
+            position += lineStart;
+        }
+        return chunk;
+    }
+
+    private void parseLine(Chunk chunk, byte[] window, int from, int to, int offset, boolean firstChunk) {
+        chunk.lines++;
+        int length = to - from;
+        if (length > 0 && window[to - 1] == '\r') {
+            length--;
+        }
+        if (length == 0) {
+            return;
+        }
+        String line = new String(window, from, length, StandardCharsets.UTF_8);
+        if (!(firstChunk && chunk.lines == 1 && format.isHeader(line))) {
+            parseRow(chunk, line, offset, length);
+        }
+    }
+
+    private void parseRow(Chunk chunk, String line, int offset, int length) {
+        chunk.rows++;
+        try {
+            BatchOperation operation = format.parse(line);
+            requireAccount(operation.getAccountNumber());
+            if (operation.getKind() == BatchOperation.Kind.TRANSFER) {
+                requireAccount(operation.getCounterpartyAccountNumber());
+                if (operation.getAccountNumber().equals(operation.getCounterpartyAccountNumber())) {
+                    throw new IllegalArgumentException("Cannot transfer to the same account");
+                }
+            }
+            chunk.add(operation, chunk.lines, offset, length);
+        } catch (IllegalArgumentException e) {
+            chunk.rejects.add(new Reject(chunk.lines, e.getMessage(), line));
+        }
+    }
+
+    private void requireAccount(String accountNumber) {
+        if (!facade.hasAccount(accountNumber)) {
+            throw new IllegalArgumentException("Account not found: " + accountNumber);
+        }
+    }
+
+    private long apply(List<Chunk> chunks, FileChannel channel, ExecutorService executor,
+                       List<Reject> rejects) throws IOException {
+        Pending pending = new Pending();
+        long applied = 0;
+
+        for (int c = 0; c < chunks.size(); c++) {
+            Chunk chunk = chunks.get(c);
+            for (int i = 0; i < chunk.operations.size(); i++) {
+                BatchOperation operation = chunk.operations.get(i);
+                if (operation.getKind() != BatchOperation.Kind.TRANSFER) {
+                    pending.add(operation, c, i);
+                    if (pending.size >= FLUSH_THRESHOLD) {
+                        applied += flush(pending, chunks, channel, executor, rejects);
+                    }
+                    continue;
+                }
+
+                // Only the two accounts involved have to catch up before the transfer
+                List<AccountQueue> due = new ArrayList<>(2);
+                pending.take(operation.getAccountNumber(), due);
+                pending.take(operation.getCounterpartyAccountNumber(), due);
+                if (!due.isEmpty()) {
+                    applied += applyQueues(due, chunks, channel, rejects);
+                }
+                try {
+                    facade.transferBetweenAccounts(operation.getAccountNumber(),
+                            operation.getCounterpartyAccountNumber(), operation.getAmount(), operation.getDescription());
+                    applied++;
+                } catch (RuntimeException e) {
+                    rejects.add(reject(chunk, i, e.getMessage(), channel));
+                }
+            }
+        }
+        applied += flush(pending, chunks, channel, executor, rejects);
+        return applied;
+    }
+
+    // Applies every pending operation, spreading the accounts over parallel executeBatch calls
+    private long flush(Pending pending, List<Chunk> chunks, FileChannel channel, ExecutorService executor,
+                       List<Reject> rejects) throws IOException {
+        if (pending.size == 0) {
+            return 0;
+        }
+        List<List<AccountQueue>> partitions = new ArrayList<>(parallelism);
+        for (int p = 0; p < parallelism; p++) {
+            partitions.add(new ArrayList<>());
+        }
+        int next = 0;
+        for (AccountQueue queue : pending.queues.values()) {
+            partitions.get(next).add(queue);
+            next = (next + 1) % parallelism;
+        }
+        long applied = pending.size;
+        pending.clear();
+
+        List<Future<List<Reject>>> futures = new ArrayList<>(parallelism);
+        for (List<AccountQueue> partition : partitions) {
+            if (!partition.isEmpty()) {
+                futures.add(executor.submit(() -> {
+                    List<Reject> failed = new ArrayList<>();
+                    applyQueues(partition, chunks, channel, failed);
+                    return failed;
+                }));
+            }
+        }
+
+        for (int p = 0; p < futures.size(); p++) {
+            List<Reject> failed;
+            try {
+                failed = futures.get(p).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while applying import batch", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IllegalStateException("Failed to apply import batch", e.getCause());
+            }
+            rejects.addAll(failed);
+            applied -= failed.size();
+        }
+        return applied;
+    }
+
+    // One executeBatch call for the given accounts' operations; returns how many succeeded
+    private long applyQueues(List<AccountQueue> queues, List<Chunk> chunks, FileChannel channel,
+                             List<Reject> rejects) throws IOException {
+        List<BatchOperation> operations = new ArrayList<>();
+        for (AccountQueue queue : queues) {
+            operations.addAll(queue.operations);
+        }
+        List<BatchResult> results = facade.executeBatch(operations);
+
+        long applied = 0;
+        int r = 0;
+        for (AccountQueue queue : queues) {
+            for (int i = 0; i < queue.operations.size(); i++, r++) {
+                if (results.get(r).isSuccess()) {
+                    applied++;
+                } else {
+                    long row = queue.rows[i];
+                    rejects.add(reject(chunks.get((int) (row >>> 32)), (int) row,
+                            results.get(r).getErrorMessage(), channel));
+                }
+            }
+        }
+        return applied;
+    }
+
+    private static Reject reject(Chunk chunk, int index, String reason, FileChannel channel) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(chunk.lengths[index]);
+        channel.read(bytes, chunk.start + chunk.offsets[index]);
+        return new Reject(chunk.lineBase + chunk.lineNumbers[index], reason,
+                new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8));
+    }
+
+    private static void writeRejects(Path rejectFile, List<Reject> rejects) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8)) {
+            for (Reject reject : rejects) {
+                writer.write(reject.line + "\t" + reject.reason + "\t" + reject.text);
+                writer.newLine();
+            }
+        }
+    }
+
+    // Parsed rows of one chunk; offsets are relative to the chunk start, line numbers to its first line
+    private static final class Chunk {
+        private final long start;
+        private final List<BatchOperation> operations = new ArrayList<>();
+        private int[] lineNumbers = new int[1024];
+        private int[] offsets = new int[1024];
+        private int[] lengths = new int[1024];
+        private final List<Reject> rejects = new ArrayList<>();
+        private int lines;
+        private long rows;
+        private long lineBase;
+
+        private Chunk(long start) {
+            this.start = start;
+        }
+
+        private void add(BatchOperation operation, int lineNumber, int offset, int length) {
+            int index = operations.size();
+            if (index == offsets.length) {
+                lineNumbers = Arrays.copyOf(lineNumbers, index * 2);
+                offsets = Arrays.copyOf(offsets, index * 2);
+                lengths = Arrays.copyOf(lengths, index * 2);
+            }
+            operations.add(operation);
+            lineNumbers[index] = lineNumber;
+            offsets[index] = offset;
+            lengths[index] = length;
+        }
+    }
+
+    // Deposits and withdrawals waiting to be applied, per account in file order
+    private static final class Pending {
+        private final Map<String, AccountQueue> queues = new HashMap<>();
+        private int size;
+
+        private void add(BatchOperation operation, int chunk, int index) {
+            queues.computeIfAbsent(operation.getAccountNumber(), k -> new AccountQueue())
+                    .add(operation, ((long) chunk << 32) | index);
+            size++;
+        }
+
+        private void take(String accountNumber, List<AccountQueue> into) {
+            AccountQueue queue = queues.remove(accountNumber);
+            if (queue != null) {
+                size -= queue.operations.size();
+                into.add(queue);
+            }
+        }
+
+        private void clear() {
+            queues.clear();
+            size = 0;
+        }
+    }
+
+    // Operations of one account with the chunk (high half) and index (low half) of their rows
+    private static final class AccountQueue {
+        private final List<BatchOperation> operations = new ArrayList<>();
+        private long[] rows = new long[16];
+
+        private void add(BatchOperation operation, long row) {
+            int position = operations.size();
+            if (position == rows.length) {
+                rows = Arrays.copyOf(rows, position * 2);
+            }
+            operations.add(operation);
+            rows[position] = row;
+        }
+    }
+
+    private static final class Reject {
+        private long line;
+        private final String reason;
+        private final String text;
+
+        private Reject(long line, String reason, String text) {
+            this.line = line;
+            this.reason = reason;
+            this.text = text;
+        }
+    }
+}
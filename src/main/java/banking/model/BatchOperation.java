@@ -0,0 +1,75 @@
+package banking.model;
+
+import java.math.BigDecimal;
+
+// One item of a batch submitted to BankingFacade.executeBatch
+public class BatchOperation {
+    public enum Kind {
+        DEPOSIT, WITHDRAWAL, TRANSFER, INTEREST, FEE
+    }
+
+    private final Kind kind;
+    private final String accountNumber;
+    private final String counterpartyAccountNumber;
+    private final BigDecimal amount;
+    private final String description;
+
+    private BatchOperation(Kind kind, String accountNumber, String counterpartyAccountNumber,
+                           BigDecimal amount, String description) {
+        this.kind = kind;
+        this.accountNumber = accountNumber;
+        this.counterpartyAccountNumber = counterpartyAccountNumber;
+        this.amount = amount;
+        this.description = description;
+    }
+
+    public static BatchOperation deposit(String accountNumber, BigDecimal amount, String description) {
+        return new BatchOperation(Kind.DEPOSIT, accountNumber, null, amount, description);
+    }
+
+    public static BatchOperation withdrawal(String accountNumber, BigDecimal amount, String description) {
+        return new BatchOperation(Kind.WITHDRAWAL, accountNumber, null, amount, description);
+    }
+
+    public static BatchOperation interest(String accountNumber, BigDecimal amount, String description) {
+        return new BatchOperation(Kind.INTEREST, accountNumber, null, amount, description);
+    }
+
+    public static BatchOperation fee(String accountNumber, BigDecimal amount, String description) {
+        return new BatchOperation(Kind.FEE, accountNumber, null, amount, description);
+    }
+
+    // accountNumber is the source of a transfer, counterpartyAccountNumber the destination
+    public static BatchOperation transfer(String fromAccountNumber, String toAccountNumber,
+                                          BigDecimal amount, String description) {
+        return new BatchOperation(Kind.TRANSFER, fromAccountNumber, toAccountNumber, amount, description);
+    }
+
+    public Transaction.TransactionType getTransactionType() {
+        switch (kind) {
+            case DEPOSIT:
+                return Transaction.TransactionType.DEPOSIT;
+            case WITHDRAWAL:
+                return Transaction.TransactionType.WITHDRAWAL;
+            case INTEREST:
+                return Transaction.TransactionType.INTEREST;
+            case FEE:
+                return Transaction.TransactionType.FEE;
+            default:
+                return Transaction.TransactionType.TRANSFER;
+        }
+    }
+
+    public Kind getKind() { return kind; }
+    public String getAccountNumber() { return accountNumber; }
+    public String getCounterpartyAccountNumber() { return counterpartyAccountNumber; }
+    public BigDecimal getAmount() { return amount; }
+    public String getDescription() { return description; }
+
+    @Override
+    public String toString() {
+        return kind == Kind.TRANSFER
+                ? "BatchOperation[TRANSFER " + accountNumber + " -> " + counterpartyAccountNumber + " $" + amount + "]"
+                : "BatchOperation[" + kind + " " + accountNumber + " $" + amount + "]";
+    }
+}
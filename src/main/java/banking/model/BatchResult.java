@@ -0,0 +1,40 @@
+package banking.model;
+
+// Outcome of one BatchOperation. For a transfer the transaction is the withdrawal leg.
+public class BatchResult {
+    private final BatchOperation operation;
+    private final boolean success;
+    private final Transaction transaction;
+    private final String errorMessage;
+
+    private BatchResult(BatchOperation operation, boolean success, Transaction transaction, String errorMessage) {
+        this.operation = operation;
+        this.success = success;
+        this.transaction = transaction;
+        this.errorMessage = errorMessage;
+    }
+
+    public static BatchResult succeeded(BatchOperation operation, Transaction transaction) {
+        return new BatchResult(operation, true, transaction, null);
+    }
+
+    // transaction may be null when the operation failed before one was created
+    public static BatchResult failed(BatchOperation operation, Transaction transaction, String errorMessage) {
+        return new BatchResult(operation, false, transaction, errorMessage);
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public BatchOperation getOperation() { return operation; }
+    public Transaction getTransaction() { return transaction; }
+    public String getErrorMessage() { return errorMessage; }
+
+    @Override
+    public String toString() {
+        return isSuccess()
+                ? "BatchResult[OK " + transaction.getTransactionId() + "]"
+                : "BatchResult[FAILED " + operation + ": " + errorMessage + "]";
+    }
+}
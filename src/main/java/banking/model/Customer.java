@@ -4,6 +4,7 @@ package banking.model;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Customer {
     private final String customerId;
@@ -17,7 +18,7 @@ public class Customer {
         this.name = name;
         this.email = email;
         this.dateOfBirth = dateOfBirth;
-        this.accountNumbers = new ArrayList<>();
+        this.accountNumbers = new CopyOnWriteArrayList<>();
     }
 
     public void addAccount(String accountNumber) {
@@ -28,6 +29,14 @@ public class Customer {
         accountNumbers.remove(accountNumber);
     }
 
+    public boolean hasAccount(String accountNumber) {
+        return accountNumbers.contains(accountNumber);
+    }
+
+    public int getAccountCount() {
+        return accountNumbers.size();
+    }
+
     // Getters
     public String getCustomerId() { return customerId; }
     public String getName() { return name; }
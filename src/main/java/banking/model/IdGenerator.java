@@ -0,0 +1,74 @@
+package banking.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Snowflake-style 64-bit ids: [41 bits ms since EPOCH][10 bits node][12 bits sequence].
+// Ids from one generator are strictly increasing; ids from different nodes never collide.
+// The node id comes from the banking.node.id system property (0-1023, default 0).
+public class IdGenerator {
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    public static final int MAX_NODE_ID = 1023;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TEXT_LENGTH = 13;
+    // Crockford base32: no I, L, O or U, and ASCII order matches numeric order
+    private static final char[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final IdGenerator DEFAULT = new IdGenerator(Integer.getInteger("banking.node.id", 0));
+
+    private final long nodeBits;
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong state;
+
+    public IdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.state = new AtomicLong();
+    }
+
+    public static IdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    // When the sequence runs out within a millisecond, or the clock steps back, the
+    // generator moves on to the next millisecond instead of waiting
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        while (true) {
+            long previous = state.get();
+            long next = (previous >>> SEQUENCE_BITS) < now ? now << SEQUENCE_BITS : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (SEQUENCE_BITS + NODE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // prefix followed by the id as 13 fixed-width base32 characters, so text order is id order
+    public String nextId(String prefix) {
+        return format(prefix, nextId());
+    }
+
+    public static String format(String prefix, long id) {
+        int length = prefix.length();
+        char[] text = new char[length + TEXT_LENGTH];
+        prefix.getChars(0, length, text, 0);
+        for (int i = text.length - 1; i >= length; i--) {
+            text[i] = DIGITS[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(text);
+    }
+
+    public static long timestampMillis(long id) {
+        return (id >>> (SEQUENCE_BITS + NODE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static int nodeId(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+}
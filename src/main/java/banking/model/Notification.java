@@ -10,19 +10,25 @@ public class Notification {
     private final String message;
     private final LocalDateTime timestamp;
     private final NotificationType type;
-    private boolean read;
+    private final int occurrences;
+    private volatile boolean read;
 
     public enum NotificationType {
         INFO, WARNING, SUCCESS, ERROR
     }
 
     public Notification(String customerId, String title, String message, NotificationType type) {
-        this.notificationId = "NOTIF-" + System.currentTimeMillis();
+        this(customerId, title, message, type, 1);
+    }
+
+    public Notification(String customerId, String title, String message, NotificationType type, int occurrences) {
+        this.notificationId = IdGenerator.getDefault().nextId("NOTIF-");
         this.customerId = customerId;
         this.title = title;
         this.message = message;
         this.timestamp = LocalDateTime.now();
         this.type = type;
+        this.occurrences = occurrences;
         this.read = false;
     }
 
@@ -35,5 +41,6 @@ public class Notification {
     public String getMessage() { return message; }
     public LocalDateTime getTimestamp() { return timestamp; }
     public NotificationType getType() { return type; }
+    public int getOccurrences() { return occurrences; }
     public boolean isRead() { return read; }
 }
\ No newline at end of file
@@ -2,11 +2,10 @@ package banking.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 public class Transaction {
     public enum TransactionType {
-        DEPOSIT, WITHDRAWAL, TRANSFER, INVESTMENT, DIVIDEND, FEE
+        DEPOSIT, WITHDRAWAL, TRANSFER, INVESTMENT, DIVIDEND, FEE, INTEREST
     }
 
     public enum TransactionStatus {
@@ -16,21 +15,34 @@ public class Transaction {
     private final String transactionId;
     private final String accountNumber;
     private final TransactionType type;
-    private final BigDecimal amount;
+    private final Money amount;
     private final String description;
     private final LocalDateTime timestamp;
-    private TransactionStatus status;
-    private BigDecimal balanceAfter;
+    private volatile TransactionStatus status;
+    private Money balanceAfter;
 
     public Transaction(String accountNumber, TransactionType type, BigDecimal amount, String description) {
-        this.transactionId = "TXN-" + UUID.randomUUID().toString().substring(0, 8);
+        this.transactionId = IdGenerator.getDefault().nextId("TXN-");
         this.accountNumber = accountNumber;
         this.type = type;
-        this.amount = amount;
+        this.amount = Money.of(amount);
         this.description = description;
         this.timestamp = LocalDateTime.now();
         this.status = TransactionStatus.PENDING;
-        this.balanceAfter = BigDecimal.ZERO;
+        this.balanceAfter = Money.ZERO;
+    }
+
+    // Used when rebuilding the ledger from a journal
+    public Transaction(String transactionId, String accountNumber, TransactionType type, BigDecimal amount,
+                       String description, LocalDateTime timestamp) {
+        this.transactionId = transactionId;
+        this.accountNumber = accountNumber;
+        this.type = type;
+        this.amount = Money.of(amount);
+        this.description = description;
+        this.timestamp = timestamp;
+        this.status = TransactionStatus.PENDING;
+        this.balanceAfter = Money.ZERO;
     }
 
     public void markCompleted() {
@@ -49,20 +61,21 @@ public class Transaction {
     public String getTransactionId() { return transactionId; }
     public String getAccountNumber() { return accountNumber; }
     public TransactionType getType() { return type; }
-    public BigDecimal getAmount() { return amount; }
+    public BigDecimal getAmount() { return amount.toBigDecimal(); }
+    public Money getMoneyAmount() { return amount; }
     public String getDescription() { return description; }
     public LocalDateTime getTimestamp() { return timestamp; }
     public TransactionStatus getStatus() { return status; }
-    public BigDecimal getBalanceAfter() { return balanceAfter; }
+    public BigDecimal getBalanceAfter() { return balanceAfter.toBigDecimal(); }
 
     // Setter for balanceAfter
     public void setBalanceAfter(BigDecimal balanceAfter) {
-        this.balanceAfter = balanceAfter;
+        this.balanceAfter = Money.of(balanceAfter);
     }
 
     @Override
     public String toString() {
         return String.format("Transaction[%s: %s %s $%.2f - %s]",
-                transactionId, type, accountNumber, amount, description);
+                transactionId, type, accountNumber, amount.toBigDecimal(), description);
     }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package banking.persistence;
+
+import banking.account.Account;
+import banking.account.CheckingAccount;
+import banking.account.InvestmentAccount;
+import banking.account.SavingsAccount;
+import banking.account.decorators.*;
+import banking.model.Money;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+
+// Binary form of an account: the base account followed by its decorators, innermost first
+public class AccountCodec {
+    private static final byte SAVINGS = 1;
+    private static final byte CHECKING = 2;
+    private static final byte INVESTMENT = 3;
+
+    private static final byte REWARD_POINTS = 10;
+    private static final byte INSURANCE = 11;
+    private static final byte OVERDRAFT_PROTECTION = 12;
+    private static final byte PRIORITY_BANKING = 13;
+    private static final byte TAX_OPTIMIZER = 14;
+    private static final byte FOREIGN_CURRENCY = 15;
+
+    private AccountCodec() {
+    }
+
+    public static void write(Account account, DataOutput out) throws IOException {
+        List<AccountDecorator> layers = new ArrayList<>();
+        Account current = CompiledAccount.unwrap(account);
+        while (current instanceof AccountDecorator) {
+            AccountDecorator decorator = (AccountDecorator) current;
+            layers.add(decorator);
+            current = decorator.getDecoratedAccount();
+        }
+
+        writeBase(current, out);
+        out.writeShort(layers.size());
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            writeDecorator(layers.get(i), out);
+        }
+    }
+
+    public static Account read(DataInput in) throws IOException {
+        Account account = readBase(in);
+        int layers = in.readShort();
+        for (int i = 0; i < layers; i++) {
+            account = readDecorator(account, in);
+        }
+        return account;
+    }
+
+    private static void writeBase(Account account, DataOutput out) throws IOException {
+        if (account instanceof SavingsAccount) {
+            out.writeByte(SAVINGS);
+        } else if (account instanceof CheckingAccount) {
+            out.writeByte(CHECKING);
+        } else if (account instanceof InvestmentAccount) {
+            out.writeByte(INVESTMENT);
+        } else {
+            throw new IllegalArgumentException("Unsupported account class: " + account.getClass().getName());
+        }
+        out.writeUTF(account.getAccountNumber());
+        out.writeLong(minorUnits(account.getBalance()));
+        out.writeBoolean(account.isClosed());
+
+        if (account instanceof CheckingAccount) {
+            out.writeLong(minorUnits(((CheckingAccount) account).getOverdraftLimit()));
+        } else if (account instanceof InvestmentAccount) {
+            out.writeLong(minorUnits(((InvestmentAccount) account).getInvestmentReturns()));
+        }
+    }
+
+    private static Account readBase(DataInput in) throws IOException {
+        byte type = in.readByte();
+        String accountNumber = in.readUTF();
+        BigDecimal balance = Money.ofMinor(in.readLong()).toBigDecimal();
+        boolean closed = in.readBoolean();
+
+        Account account;
+        switch (type) {
+            case SAVINGS:
+                account = new SavingsAccount(accountNumber, balance);
+                break;
+            case CHECKING:
+                CheckingAccount checking = new CheckingAccount(accountNumber, balance);
+                checking.setOverdraftLimit(Money.ofMinor(in.readLong()).toBigDecimal());
+                account = checking;
+                break;
+            case INVESTMENT:
+                account = new InvestmentAccount(accountNumber, balance, Money.ofMinor(in.readLong()).toBigDecimal());
+                break;
+            default:
+                throw new IOException("Unknown account type tag: " + type);
+        }
+        if (closed) {
+            account.close();
+        }
+        return account;
+    }
+
+    private static void writeDecorator(AccountDecorator decorator, DataOutput out) throws IOException {
+        if (decorator instanceof RewardPointsDecorator) {
+            RewardPointsDecorator rewards = (RewardPointsDecorator) decorator;
+            out.writeByte(REWARD_POINTS);
+            writeDecimal(rewards.getPointsPerDollar(), out);
+            out.writeInt(rewards.getRewardPoints());
+        } else if (decorator instanceof InsuranceDecorator) {
+            InsuranceDecorator insurance = (InsuranceDecorator) decorator;
+            out.writeByte(INSURANCE);
+            writeDecimal(insurance.getInsuranceCoverage(), out);
+            out.writeBoolean(insurance.isInsuranceActive());
+        } else if (decorator instanceof OverdraftProtectionDecorator) {
+            OverdraftProtectionDecorator overdraft = (OverdraftProtectionDecorator) decorator;
+            out.writeByte(OVERDRAFT_PROTECTION);
+            out.writeLong(minorUnits(overdraft.getOverdraftLimit()));
+            out.writeLong(minorUnits(overdraft.getUsedOverdraft()));
+        } else if (decorator instanceof PriorityBankingDecorator) {
+            out.writeByte(PRIORITY_BANKING);
+            out.writeInt(((PriorityBankingDecorator) decorator).getRemainingFreeTransactions());
+        } else if (decorator instanceof TaxOptimizerDecorator) {
+            TaxOptimizerDecorator tax = (TaxOptimizerDecorator) decorator;
+            out.writeByte(TAX_OPTIMIZER);
+            writeDecimal(tax.getTaxRateReduction(), out);
+            writeDecimal(tax.getTotalTaxSavings(), out);
+        } else if (decorator instanceof ForeignCurrencyDecorator) {
+            ForeignCurrencyDecorator currency = (ForeignCurrencyDecorator) decorator;
+            out.writeByte(FOREIGN_CURRENCY);
+            // Rates live in the shared ExchangeRateTable, not in the account
+            out.writeUTF(currency.getBaseCurrency().getCurrencyCode());
+        } else {
+            throw new IllegalArgumentException("Unsupported decorator: " + decorator.getClass().getName());
+        }
+    }
+
+    private static Account readDecorator(Account inner, DataInput in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case REWARD_POINTS:
+                return new RewardPointsDecorator(inner, readDecimal(in), in.readInt());
+            case INSURANCE:
+                return new InsuranceDecorator(inner, readDecimal(in), in.readBoolean());
+            case OVERDRAFT_PROTECTION:
+                return OverdraftProtectionDecorator.attach(inner,
+                        Money.ofMinor(in.readLong()).toBigDecimal(), Money.ofMinor(in.readLong()).toBigDecimal());
+            case PRIORITY_BANKING:
+                return new PriorityBankingDecorator(inner, in.readInt());
+            case TAX_OPTIMIZER:
+                return new TaxOptimizerDecorator(inner, readDecimal(in), readDecimal(in));
+            case FOREIGN_CURRENCY:
+                return new ForeignCurrencyDecorator(inner, Currency.getInstance(in.readUTF()));
+            default:
+                throw new IOException("Unknown decorator tag: " + type);
+        }
+    }
+
+    private static long minorUnits(BigDecimal amount) {
+        return Money.of(amount).getMinorUnits();
+    }
+
+    private static void writeDecimal(BigDecimal value, DataOutput out) throws IOException {
+        out.writeUTF(value.toPlainString());
+    }
+
+    private static BigDecimal readDecimal(DataInput in) throws IOException {
+        return new BigDecimal(in.readUTF());
+    }
+}
@@ -0,0 +1,22 @@
+package banking.persistence;
+
+import banking.account.Account;
+import banking.model.Customer;
+
+// Sink for customer and account rows. Called when an account is opened or closed;
+// implementations must not block on I/O.
+public interface AccountStore {
+    AccountStore NONE = new AccountStore() {
+        @Override
+        public void saveCustomer(Customer customer) {
+        }
+
+        @Override
+        public void saveAccount(String customerId, Account account) {
+        }
+    };
+
+    void saveCustomer(Customer customer);
+
+    void saveAccount(String customerId, Account account);
+}
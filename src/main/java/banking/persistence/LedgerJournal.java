@@ -0,0 +1,20 @@
+package banking.persistence;
+
+// Sink for ledger changes. append() is called while the affected account locks are held
+// and must be cheap; awaitDurable() is called after the locks are released.
+public interface LedgerJournal {
+    LedgerJournal NONE = new LedgerJournal() {
+        @Override
+        public long append(LedgerRecord record) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long sequence) {
+        }
+    };
+
+    long append(LedgerRecord record);
+
+    void awaitDurable(long sequence);
+}
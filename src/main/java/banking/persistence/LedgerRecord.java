@@ -0,0 +1,189 @@
+package banking.persistence;
+
+import banking.model.Money;
+import banking.model.Transaction;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// One ledger change as written to the journal
+public class LedgerRecord {
+    public enum Kind {
+        ACCOUNT_OPENED, ACCOUNT_CLOSED, TRANSACTION, TRANSFER,
+        // Interest accrued and not yet posted for one account, as whole cents and a remainder;
+        // INTEREST_POSTED also carries the month-end posting that emptied the whole cents
+        INTEREST_ACCRUED, INTEREST_POSTED
+    }
+
+    private static final int NULL_STRING = 0xFFFF;
+    private static final int MAX_STRING_BYTES = NULL_STRING - 1;
+
+    private final Kind kind;
+    private final long sequence;
+    private final LocalDateTime timestamp;
+    private final Transaction.TransactionType transactionType;
+    private final long amountMinorUnits;
+    private final String accountNumber;
+    private final String counterpartyAccountNumber;
+    private final String transactionId;
+    private final String counterpartyTransactionId;
+    private final String text;
+    private final String customerId;
+    private final LocalDate accruedThrough;
+    private final long accruedMinorUnits;
+    private final long accruedRemainder;
+
+    private LedgerRecord(Kind kind, long sequence, LocalDateTime timestamp,
+                         Transaction.TransactionType transactionType, long amountMinorUnits,
+                         String accountNumber, String counterpartyAccountNumber,
+                         String transactionId, String counterpartyTransactionId,
+                         String text, String customerId) {
+        this(kind, sequence, timestamp, transactionType, amountMinorUnits, accountNumber, counterpartyAccountNumber,
+                transactionId, counterpartyTransactionId, text, customerId, null, 0, 0);
+    }
+
+    private LedgerRecord(Kind kind, long sequence, LocalDateTime timestamp,
+                         Transaction.TransactionType transactionType, long amountMinorUnits,
+                         String accountNumber, String counterpartyAccountNumber,
+                         String transactionId, String counterpartyTransactionId,
+                         String text, String customerId,
+                         LocalDate accruedThrough, long accruedMinorUnits, long accruedRemainder) {
+        this.kind = kind;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.transactionType = transactionType;
+        this.amountMinorUnits = amountMinorUnits;
+        this.accountNumber = accountNumber;
+        this.counterpartyAccountNumber = counterpartyAccountNumber;
+        this.transactionId = transactionId;
+        this.counterpartyTransactionId = counterpartyTransactionId;
+        this.text = text;
+        this.customerId = customerId;
+        this.accruedThrough = accruedThrough;
+        this.accruedMinorUnits = accruedMinorUnits;
+        this.accruedRemainder = accruedRemainder;
+    }
+
+    public static LedgerRecord accountOpened(String customerId, String accountNumber,
+                                             String accountType, Money initialDeposit) {
+        return new LedgerRecord(Kind.ACCOUNT_OPENED, 0, LocalDateTime.now(), null,
+                initialDeposit.getMinorUnits(), accountNumber, null, null, null, accountType, customerId);
+    }
+
+    public static LedgerRecord accountClosed(String customerId, String accountNumber) {
+        return new LedgerRecord(Kind.ACCOUNT_CLOSED, 0, LocalDateTime.now(), null,
+                0, accountNumber, null, null, null, null, customerId);
+    }
+
+    public static LedgerRecord transaction(Transaction transaction) {
+        return new LedgerRecord(Kind.TRANSACTION, 0, transaction.getTimestamp(), transaction.getType(),
+                transaction.getMoneyAmount().getMinorUnits(), transaction.getAccountNumber(), null,
+                transaction.getTransactionId(), null, transaction.getDescription(), null);
+    }
+
+    public static LedgerRecord transfer(Transaction withdrawal, Transaction deposit, String description) {
+        return new LedgerRecord(Kind.TRANSFER, 0, withdrawal.getTimestamp(), Transaction.TransactionType.TRANSFER,
+                withdrawal.getMoneyAmount().getMinorUnits(), withdrawal.getAccountNumber(),
+                deposit.getAccountNumber(), withdrawal.getTransactionId(), deposit.getTransactionId(),
+                description, null);
+    }
+
+    public static LedgerRecord interestAccrued(String accountNumber, LocalDate through, long cents, long remainder) {
+        return new LedgerRecord(Kind.INTEREST_ACCRUED, 0, through.atStartOfDay(), null, 0, accountNumber,
+                null, null, null, null, null, through, cents, remainder);
+    }
+
+    // The posting and what is still accrued after it, in one record, so a crash cannot keep one without the other
+    public static LedgerRecord interestPosted(Transaction posting, LocalDate through, long cents, long remainder) {
+        return new LedgerRecord(Kind.INTEREST_POSTED, 0, posting.getTimestamp(), posting.getType(),
+                posting.getMoneyAmount().getMinorUnits(), posting.getAccountNumber(), null,
+                posting.getTransactionId(), null, posting.getDescription(), null, through, cents, remainder);
+    }
+
+    void encode(ByteBuffer out) {
+        out.put((byte) kind.ordinal());
+        out.put((byte) (transactionType == null ? -1 : transactionType.ordinal()));
+        out.putLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.putInt(timestamp.getNano());
+        out.putLong(amountMinorUnits);
+        putString(out, accountNumber);
+        putString(out, counterpartyAccountNumber);
+        putString(out, transactionId);
+        putString(out, counterpartyTransactionId);
+        putString(out, text);
+        putString(out, customerId);
+        if (accruedThrough != null) {
+            out.putLong(accruedThrough.toEpochDay());
+            out.putLong(accruedMinorUnits);
+            out.putLong(accruedRemainder);
+        }
+    }
+
+    static LedgerRecord decode(long sequence, ByteBuffer in) {
+        Kind kind = Kind.values()[in.get()];
+        byte typeOrdinal = in.get();
+        Transaction.TransactionType transactionType =
+                typeOrdinal < 0 ? null : Transaction.TransactionType.values()[typeOrdinal];
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+        long amount = in.getLong();
+        String accountNumber = getString(in);
+        String counterpartyAccountNumber = getString(in);
+        String transactionId = getString(in);
+        String counterpartyTransactionId = getString(in);
+        String text = getString(in);
+        String customerId = getString(in);
+        if (kind != Kind.INTEREST_ACCRUED && kind != Kind.INTEREST_POSTED) {
+            return new LedgerRecord(kind, sequence, timestamp, transactionType, amount, accountNumber,
+                    counterpartyAccountNumber, transactionId, counterpartyTransactionId, text, customerId);
+        }
+        return new LedgerRecord(kind, sequence, timestamp, transactionType, amount, accountNumber,
+                counterpartyAccountNumber, transactionId, counterpartyTransactionId, text, customerId,
+                LocalDate.ofEpochDay(in.getLong()), in.getLong(), in.getLong());
+    }
+
+    static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Value too long for ledger record: " + bytes.length + " bytes");
+        }
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    static String getString(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Kind getKind() { return kind; }
+    public long getSequence() { return sequence; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public Transaction.TransactionType getTransactionType() { return transactionType; }
+    public Money getAmount() { return Money.ofMinor(amountMinorUnits); }
+    public String getAccountNumber() { return accountNumber; }
+    public String getCounterpartyAccountNumber() { return counterpartyAccountNumber; }
+    public String getTransactionId() { return transactionId; }
+    public String getCounterpartyTransactionId() { return counterpartyTransactionId; }
+    public String getText() { return text; }
+    public String getCustomerId() { return customerId; }
+    public LocalDate getAccruedThrough() { return accruedThrough; }
+    public long getAccruedMinorUnits() { return accruedMinorUnits; }
+    public long getAccruedRemainder() { return accruedRemainder; }
+
+    @Override
+    public String toString() {
+        return "LedgerRecord[" + sequence + ": " + kind + " " + accountNumber + "]";
+    }
+}
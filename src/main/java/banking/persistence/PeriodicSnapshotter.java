@@ -0,0 +1,41 @@
+package banking.persistence;
+
+import banking.event.EventLog;
+import banking.event.EventType;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Runs a snapshot task on its own daemon thread at a fixed delay
+public class PeriodicSnapshotter implements AutoCloseable {
+    private final ScheduledExecutorService scheduler;
+
+    public PeriodicSnapshotter(Callable<?> snapshotTask, Duration interval) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshotTask.call();
+            } catch (Exception e) {
+                EventLog.emit(EventType.SNAPSHOT_FAILED, e.getMessage());
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package banking.persistence;
+
+import banking.event.EventLog;
+import banking.event.EventType;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Directory of binary snapshots named by the journal sequence they cover.
+// Layout: [int magic][int version][long sequence][body][long crc32 of everything before it].
+public class SnapshotStore {
+    public interface SnapshotWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    // Reads the body and returns the action that installs it; the action only runs
+    // once the checksum has been verified
+    public interface SnapshotReader {
+        Runnable read(DataInputStream in) throws IOException;
+    }
+
+    private static final int MAGIC = 0x424B534E;
+    private static final int VERSION = 1;
+    private static final int RETAINED_SNAPSHOTS = 2;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final String SUFFIX = ".snap";
+
+    private final Path directory;
+
+    public SnapshotStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    public Path write(long sequence, SnapshotWriter writer) throws IOException {
+        Path target = directory.resolve(String.format("%020d%s", sequence, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, BUFFER_SIZE), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sequence);
+            writer.write(out);
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        List<Path> snapshots = listSnapshots();
+        for (int i = 0; i < snapshots.size() - RETAINED_SNAPSHOTS; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        return target;
+    }
+
+    // Loads the newest readable snapshot, falling back to older ones; returns its sequence or 0
+    public long loadLatest(SnapshotReader reader) throws IOException {
+        List<Path> snapshots = listSnapshots();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            try (InputStream file = Files.newInputStream(snapshots.get(i))) {
+                CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file, BUFFER_SIZE), new CRC32());
+                DataInputStream in = new DataInputStream(checked);
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("Not a snapshot file");
+                }
+                long sequence = in.readLong();
+                Runnable install = reader.read(in);
+                long expected = checked.getChecksum().getValue();
+                if (in.readLong() != expected) {
+                    throw new IOException("Checksum mismatch");
+                }
+                install.run();
+                return sequence;
+            } catch (IOException | RuntimeException e) {
+                EventLog.emit(EventType.SNAPSHOT_UNREADABLE, snapshots.get(i).getFileName(), e.getMessage());
+            }
+        }
+        return 0;
+    }
+
+    // Journal records up to this sequence are covered by every retained snapshot
+    public long oldestRetainedSequence() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        return snapshots.isEmpty() ? 0 : sequenceOf(snapshots.get(0));
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,341 @@
+package banking.persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only, segmented journal on memory-mapped files.
+//
+// Frame layout: [int length][long sequence][int crc32][payload]. The length is written last,
+// so a frame torn by a crash reads as the end of the log. Appends only copy bytes into the
+// mapped segment; a background flusher forces segments to disk, and in GROUP_COMMIT mode
+// every writer waiting in awaitDurable() is released by the same force.
+public class WriteAheadLog implements LedgerJournal, AutoCloseable {
+    public enum Durability {
+        ASYNC, GROUP_COMMIT
+    }
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int FRAME_HEADER_SIZE = 4 + 8 + 4;
+    private static final long FLUSH_INTERVAL_MS = 10;
+    private static final String SEGMENT_SUFFIX = ".wal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Durability durability;
+    private final ThreadLocal<ByteBuffer> encodeBuffers;
+
+    private final Object appendLock = new Object();
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private long lastSequence;
+
+    private final Object flushMonitor = new Object();
+    private long durableSequence;
+    private boolean flushRequested;
+    private volatile boolean closed;
+    private final Thread flusher;
+
+    public WriteAheadLog(Path directory, Durability durability) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, durability);
+    }
+
+    public WriteAheadLog(Path directory, int segmentSize, Durability durability) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.durability = durability;
+        this.encodeBuffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(512));
+
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            openSegment(1);
+            lastSequence = 0;
+        } else {
+            recoverTail(segments.get(segments.size() - 1));
+        }
+        durableSequence = lastSequence;
+
+        this.flusher = new Thread(this::runFlusher, "wal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public long append(LedgerRecord record) {
+        ByteBuffer payload = encode(record);
+        int length = payload.remaining();
+        if (FRAME_HEADER_SIZE + length > segmentSize) {
+            throw new IllegalArgumentException("Record does not fit into a WAL segment: " + length + " bytes");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        int checksum = (int) crc.getValue();
+
+        synchronized (appendLock) {
+            if (closed) {
+                throw new IllegalStateException("Write-ahead log is closed");
+            }
+            if (segment.remaining() < FRAME_HEADER_SIZE + length) {
+                rollSegment();
+            }
+            long sequence = lastSequence + 1;
+            int start = segment.position();
+            segment.position(start + 4);
+            segment.putLong(sequence);
+            segment.putInt(checksum);
+            segment.put(payload);
+            segment.putInt(start, length);
+            lastSequence = sequence;
+            return sequence;
+        }
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+        if (durability == Durability.ASYNC || sequence <= 0) {
+            return;
+        }
+        synchronized (flushMonitor) {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            flushRequested = true;
+            flushMonitor.notifyAll();
+            while (durableSequence < sequence) {
+                if (closed) {
+                    throw new IllegalStateException("Write-ahead log closed before record " + sequence + " was flushed");
+                }
+                try {
+                    flushMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for WAL flush", e);
+                }
+            }
+        }
+    }
+
+    // Feeds every record with a sequence greater than afterSequence to the consumer, in order
+    public long replay(long afterSequence, Consumer<LedgerRecord> consumer) throws IOException {
+        List<Path> segments = listSegments();
+        long replayed = 0;
+
+        for (int i = 0; i < segments.size(); i++) {
+            long firstSequence = firstSequenceOf(segments.get(i));
+            if (i + 1 < segments.size() && firstSequenceOf(segments.get(i + 1)) - 1 <= afterSequence) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int position = 0;
+                long expected = firstSequence;
+                int length;
+                while ((length = validFrameLength(buffer, position, expected)) >= 0) {
+                    if (expected > afterSequence) {
+                        ByteBuffer payload = buffer.slice(position + FRAME_HEADER_SIZE, length);
+                        consumer.accept(LedgerRecord.decode(expected, payload));
+                        replayed++;
+                    }
+                    position += FRAME_HEADER_SIZE + length;
+                    expected++;
+                }
+            }
+        }
+        return replayed;
+    }
+
+    // Deletes rolled-over segments whose records all have a sequence <= the given one
+    public int deleteSegmentsUpTo(long sequence) throws IOException {
+        List<Path> segments = listSegments();
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSequenceOf(segments.get(i + 1)) - 1 > sequence) {
+                break;
+            }
+            Files.deleteIfExists(segments.get(i));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    public long getLastSequence() {
+        synchronized (appendLock) {
+            return lastSequence;
+        }
+    }
+
+    public long getDurableSequence() {
+        synchronized (flushMonitor) {
+            return durableSequence;
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        flush();
+        long target;
+        synchronized (appendLock) {
+            closed = true;
+            segment.force();
+            segmentChannel.close();
+            target = lastSequence;
+        }
+        synchronized (flushMonitor) {
+            durableSequence = Math.max(durableSequence, target);
+            flushMonitor.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ByteBuffer encode(LedgerRecord record) {
+        ByteBuffer buffer = encodeBuffers.get();
+        while (true) {
+            buffer.clear();
+            try {
+                record.encode(buffer);
+                buffer.flip();
+                return buffer;
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                encodeBuffers.set(buffer);
+            }
+        }
+    }
+
+    private void runFlusher() {
+        while (!closed) {
+            synchronized (flushMonitor) {
+                if (!flushRequested && !closed) {
+                    try {
+                        flushMonitor.wait(FLUSH_INTERVAL_MS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                flushRequested = false;
+            }
+            flush();
+        }
+    }
+
+    private void flush() {
+        long target;
+        MappedByteBuffer current;
+        synchronized (appendLock) {
+            if (closed) {
+                return;
+            }
+            target = lastSequence;
+            current = segment;
+        }
+        synchronized (flushMonitor) {
+            if (target <= durableSequence) {
+                return;
+            }
+        }
+        // Segments that were rolled over are forced when they are closed
+        current.force();
+        synchronized (flushMonitor) {
+            durableSequence = Math.max(durableSequence, target);
+            flushMonitor.notifyAll();
+        }
+    }
+
+    private void rollSegment() {
+        try {
+            segment.force();
+            segmentChannel.close();
+            openSegment(lastSequence + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll WAL segment", e);
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+        segmentChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private void recoverTail(Path lastSegment) throws IOException {
+        long firstSequence = firstSequenceOf(lastSegment);
+        segmentChannel = FileChannel.open(lastSegment, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, segmentChannel.size()));
+
+        int position = 0;
+        long expected = firstSequence;
+        int length;
+        while ((length = validFrameLength(segment, position, expected)) >= 0) {
+            position += FRAME_HEADER_SIZE + length;
+            expected++;
+        }
+        lastSequence = expected - 1;
+
+        // Wipe a frame torn by a crash so it cannot be mistaken for data after new appends
+        if (position + 4 <= segment.capacity() && segment.getInt(position) != 0) {
+            int end = segment.capacity();
+            int claimed = segment.getInt(position);
+            if (claimed > 0 && position + FRAME_HEADER_SIZE + (long) claimed < end) {
+                end = position + FRAME_HEADER_SIZE + claimed;
+            }
+            for (int i = position; i < end; i++) {
+                segment.put(i, (byte) 0);
+            }
+        }
+        segment.position(position);
+    }
+
+    // Payload length of the frame at position, or -1 if there is no intact frame there
+    private static int validFrameLength(ByteBuffer buffer, int position, long expectedSequence) {
+        if (position + FRAME_HEADER_SIZE > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + FRAME_HEADER_SIZE + (long) length > buffer.capacity()) {
+            return -1;
+        }
+        if (buffer.getLong(position + 4) != expectedSequence) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position + FRAME_HEADER_SIZE, length));
+        return (int) crc.getValue() == buffer.getInt(position + 12) ? length : -1;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
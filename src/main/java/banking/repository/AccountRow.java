@@ -0,0 +1,50 @@
+package banking.repository;
+
+import banking.account.Account;
+import banking.model.Money;
+import banking.persistence.AccountCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+// Account state captured when it is queued, so later changes to the account do not leak into the row
+public class AccountRow {
+    private final String customerId;
+    private final String accountNumber;
+    private final String accountType;
+    private final String benefits;
+    private final byte[] state;
+    private final Money balance;
+    private final boolean closed;
+    private final LocalDateTime updatedAt;
+
+    public AccountRow(String customerId, Account account) {
+        this.customerId = customerId;
+        this.accountNumber = account.getAccountNumber();
+        this.accountType = account.getAccountType();
+        this.benefits = account.getDescription();
+        this.balance = Money.of(account.getBalance());
+        this.closed = account.isClosed();
+        this.updatedAt = LocalDateTime.now();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try {
+            AccountCodec.write(account, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.state = bytes.toByteArray();
+    }
+
+    public String getCustomerId() { return customerId; }
+    public String getAccountNumber() { return accountNumber; }
+    public String getAccountType() { return accountType; }
+    public String getBenefits() { return benefits; }
+    public byte[] getState() { return state; }
+    public Money getBalance() { return balance; }
+    public boolean isClosed() { return closed; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
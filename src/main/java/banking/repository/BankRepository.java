@@ -0,0 +1,205 @@
+package banking.repository;
+
+import banking.account.Account;
+import banking.model.Customer;
+import banking.model.Money;
+import banking.model.Transaction;
+import banking.persistence.AccountCodec;
+import banking.persistence.LedgerRecord;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.commons.configuration.ConfigurationException;
+import org.apache.commons.configuration.PropertiesConfiguration;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.*;
+
+// PostgreSQL access through a Hikari pool. Reads are synchronous; writes go through
+// BatchWriter, which keeps one connection and its prepared statements across batches.
+public class BankRepository implements AutoCloseable {
+    private static final String SCHEMA_RESOURCE = "/db/schema.sql";
+
+    private final HikariDataSource dataSource;
+
+    public BankRepository(HikariDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public static BankRepository connect(String jdbcUrl, String username, String password, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(poolSize);
+        config.setPoolName("banking");
+        // Lets the driver rewrite batched inserts into multi-row statements
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        return new BankRepository(new HikariDataSource(config));
+    }
+
+    // Reads db.url, db.username, db.password and db.pool.size from a properties file
+    public static BankRepository fromProperties(String fileName) throws ConfigurationException {
+        PropertiesConfiguration properties = new PropertiesConfiguration(fileName);
+        String url = properties.getString("db.url");
+        if (url == null) {
+            throw new ConfigurationException("db.url is not set in " + fileName);
+        }
+        return connect(url, properties.getString("db.username", "postgres"),
+                properties.getString("db.password", ""), properties.getInt("db.pool.size", 4));
+    }
+
+    public void createSchema() throws SQLException {
+        String script;
+        try (InputStream in = BankRepository.class.getResourceAsStream(SCHEMA_RESOURCE)) {
+            if (in == null) {
+                throw new SQLException("Schema resource not found: " + SCHEMA_RESOURCE);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Failed to read " + SCHEMA_RESOURCE, e);
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : script.split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    public BatchWriter openWriter() throws SQLException {
+        return new BatchWriter(dataSource.getConnection());
+    }
+
+    public List<Customer> loadCustomers() throws SQLException {
+        List<Customer> result = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT customer_id, name, email, date_of_birth FROM customers");
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                Customer customer = new Customer(rows.getString(1), rows.getString(2), rows.getString(3),
+                        rows.getDate(4) == null ? null : rows.getDate(4).toLocalDate());
+                result.add(customer);
+            }
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT customer_id, account_number FROM accounts WHERE NOT closed ORDER BY account_number");
+             ResultSet rows = statement.executeQuery()) {
+            Map<String, Customer> byId = new HashMap<>();
+            result.forEach(customer -> byId.put(customer.getCustomerId(), customer));
+            while (rows.next()) {
+                Customer customer = byId.get(rows.getString(1));
+                if (customer != null) {
+                    customer.addAccount(rows.getString(2));
+                }
+            }
+        }
+        return result;
+    }
+
+    // Open accounts with their decorators as saved when they were opened; the postings
+    // from loadTransactions() bring them up to date
+    public Map<String, Account> loadAccounts() throws SQLException {
+        Map<String, Account> result = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT account_number, state FROM accounts WHERE NOT closed");
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                try {
+                    Account account = AccountCodec.read(new DataInputStream(new ByteArrayInputStream(rows.getBytes(2))));
+                    result.put(account.getAccountNumber(), account);
+                } catch (IOException e) {
+                    throw new SQLException("Corrupt account state for " + rows.getString(1), e);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Opening balance plus every posting, per open account
+    public Map<String, Money> loadLedgerBalances() throws SQLException {
+        Map<String, Money> result = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT account_number, ledger_balance FROM accounts WHERE NOT closed");
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                result.put(rows.getString(1), Money.of(rows.getBigDecimal(2)));
+            }
+        }
+        return result;
+    }
+
+    // Every posting on an open account, oldest first within each account
+    public Map<String, List<Transaction>> loadTransactions() throws SQLException {
+        Map<String, List<Transaction>> result = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT t.transaction_id, t.type, t.amount, t.description, t.created_at, t.account_number"
+                             + " FROM transactions t JOIN accounts a ON a.account_number = t.account_number"
+                             + " WHERE NOT a.closed ORDER BY t.account_number, t.created_at, t.journal_sequence");
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                String accountNumber = rows.getString(6);
+                result.computeIfAbsent(accountNumber, key -> new ArrayList<>()).add(readTransaction(rows, accountNumber));
+            }
+        }
+        return result;
+    }
+
+    // Interest accrued and not yet posted on open accounts, as INTEREST_ACCRUED records
+    public List<LedgerRecord> loadInterestAccruals() throws SQLException {
+        List<LedgerRecord> result = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT i.account_number, i.accrued_through, i.pending_cents, i.remainder"
+                             + " FROM interest_accruals i JOIN accounts a ON a.account_number = i.account_number"
+                             + " WHERE NOT a.closed");
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                result.add(LedgerRecord.interestAccrued(rows.getString(1), rows.getDate(2).toLocalDate(),
+                        rows.getLong(3), rows.getLong(4)));
+            }
+        }
+        return result;
+    }
+
+    public List<Transaction> loadTransactions(String accountNumber) throws SQLException {
+        List<Transaction> result = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT transaction_id, type, amount, description, created_at FROM transactions"
+                             + " WHERE account_number = ? ORDER BY created_at, journal_sequence")) {
+            statement.setString(1, accountNumber);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    Transaction transaction = readTransaction(rows, accountNumber);
+                    transaction.markCompleted();
+                    result.add(transaction);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Transaction readTransaction(ResultSet rows, String accountNumber) throws SQLException {
+        return new Transaction(rows.getString(1), accountNumber,
+                Transaction.TransactionType.valueOf(rows.getString(2)), rows.getBigDecimal(3),
+                rows.getString(4), rows.getTimestamp(5).toLocalDateTime());
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+}
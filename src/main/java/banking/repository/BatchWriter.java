@@ -0,0 +1,206 @@
+package banking.repository;
+
+import banking.model.Customer;
+import banking.model.Money;
+import banking.model.Transaction;
+import banking.persistence.LedgerRecord;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+
+// One pooled connection with its prepared statements, reused for every batch.
+// Rows are added with the add* methods and sent in one transaction by flush().
+public class BatchWriter implements AutoCloseable {
+    private final Connection connection;
+    private final PreparedStatement upsertCustomer;
+    private final PreparedStatement upsertAccount;
+    private final PreparedStatement insertTransaction;
+    private final PreparedStatement updateBalance;
+    private final PreparedStatement upsertAccrual;
+    private final PreparedStatement insertReject;
+
+    private int customers;
+    private int accounts;
+    private int transactions;
+    private int balanceUpdates;
+    private int accruals;
+
+    BatchWriter(Connection connection) throws SQLException {
+        this.connection = connection;
+        try {
+            connection.setAutoCommit(false);
+            this.upsertCustomer = connection.prepareStatement(
+                    "INSERT INTO customers (customer_id, name, email, date_of_birth) VALUES (?, ?, ?, ?)"
+                            + " ON CONFLICT (customer_id) DO UPDATE SET name = EXCLUDED.name, email = EXCLUDED.email,"
+                            + " date_of_birth = EXCLUDED.date_of_birth");
+            this.upsertAccount = connection.prepareStatement(
+                    "INSERT INTO accounts (account_number, customer_id, account_type, benefits, state,"
+                            + " ledger_balance, closed, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
+                            + " ON CONFLICT (account_number) DO UPDATE SET benefits = EXCLUDED.benefits,"
+                            + " state = EXCLUDED.state, closed = EXCLUDED.closed, updated_at = EXCLUDED.updated_at");
+            this.insertTransaction = connection.prepareStatement(
+                    "INSERT INTO transactions (transaction_id, account_number, type, amount, description,"
+                            + " created_at, journal_sequence) VALUES (?, ?, ?, ?, ?, ?, ?)"
+                            + " ON CONFLICT (transaction_id) DO NOTHING");
+            this.updateBalance = connection.prepareStatement(
+                    "UPDATE accounts SET ledger_balance = ledger_balance + ?, updated_at = ? WHERE account_number = ?");
+            this.upsertAccrual = connection.prepareStatement(
+                    "INSERT INTO interest_accruals (account_number, accrued_through, pending_cents, remainder)"
+                            + " VALUES (?, ?, ?, ?) ON CONFLICT (account_number) DO UPDATE SET"
+                            + " accrued_through = EXCLUDED.accrued_through, pending_cents = EXCLUDED.pending_cents,"
+                            + " remainder = EXCLUDED.remainder");
+            this.insertReject = connection.prepareStatement(
+                    "INSERT INTO write_rejects (rejected_at, item, error) VALUES (?, ?, ?)");
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    public void addCustomer(Customer customer) throws SQLException {
+        upsertCustomer.setString(1, customer.getCustomerId());
+        upsertCustomer.setString(2, customer.getName());
+        upsertCustomer.setString(3, customer.getEmail());
+        upsertCustomer.setDate(4, customer.getDateOfBirth() == null ? null : Date.valueOf(customer.getDateOfBirth()));
+        upsertCustomer.addBatch();
+        customers++;
+    }
+
+    public void addAccount(AccountRow row) throws SQLException {
+        upsertAccount.setString(1, row.getAccountNumber());
+        upsertAccount.setString(2, row.getCustomerId());
+        upsertAccount.setString(3, row.getAccountType());
+        upsertAccount.setString(4, row.getBenefits());
+        upsertAccount.setBytes(5, row.getState());
+        upsertAccount.setBigDecimal(6, row.getBalance().toBigDecimal());
+        upsertAccount.setBoolean(7, row.isClosed());
+        upsertAccount.setTimestamp(8, Timestamp.valueOf(row.getUpdatedAt()));
+        upsertAccount.addBatch();
+        accounts++;
+    }
+
+    // Transfers become one row per leg; an interest posting also updates the accrual row
+    public void addLedgerRecord(long sequence, LedgerRecord record) throws SQLException {
+        switch (record.getKind()) {
+            case TRANSACTION -> addPosting(sequence, record.getTransactionId(), record.getAccountNumber(),
+                    record.getTransactionType(), record, signedAmount(record.getTransactionType(), record.getAmount()));
+            case TRANSFER -> {
+                addPosting(sequence, record.getTransactionId(), record.getAccountNumber(),
+                        Transaction.TransactionType.WITHDRAWAL, record, record.getAmount().negate());
+                addPosting(sequence, record.getCounterpartyTransactionId(), record.getCounterpartyAccountNumber(),
+                        Transaction.TransactionType.DEPOSIT, record, record.getAmount());
+            }
+            case INTEREST_ACCRUED -> addAccrual(record);
+            case INTEREST_POSTED -> {
+                addPosting(sequence, record.getTransactionId(), record.getAccountNumber(),
+                        record.getTransactionType(), record, record.getAmount());
+                addAccrual(record);
+            }
+            default -> {
+                // Account rows are written through the account store
+            }
+        }
+    }
+
+    // Statement groups run in dependency order: customers, accounts, then postings.
+    // Account upserts never touch ledger_balance, so reordering them after postings is safe.
+    public void flush() throws SQLException {
+        try {
+            if (customers > 0) {
+                upsertCustomer.executeBatch();
+            }
+            if (accounts > 0) {
+                upsertAccount.executeBatch();
+            }
+            if (transactions > 0) {
+                insertTransaction.executeBatch();
+            }
+            if (balanceUpdates > 0) {
+                updateBalance.executeBatch();
+            }
+            if (accruals > 0) {
+                upsertAccrual.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            customers = 0;
+            accounts = 0;
+            transactions = 0;
+            balanceUpdates = 0;
+            accruals = 0;
+            upsertCustomer.clearBatch();
+            upsertAccount.clearBatch();
+            insertTransaction.clearBatch();
+            updateBalance.clearBatch();
+            upsertAccrual.clearBatch();
+        }
+    }
+
+    private void addPosting(long sequence, String transactionId, String accountNumber, Transaction.TransactionType type,
+                            LedgerRecord record, Money delta) throws SQLException {
+        LocalDateTime timestamp = record.getTimestamp();
+        insertTransaction.setString(1, transactionId);
+        insertTransaction.setString(2, accountNumber);
+        insertTransaction.setString(3, type.name());
+        insertTransaction.setBigDecimal(4, record.getAmount().toBigDecimal());
+        insertTransaction.setString(5, record.getText());
+        insertTransaction.setTimestamp(6, Timestamp.valueOf(timestamp));
+        insertTransaction.setLong(7, sequence);
+        insertTransaction.addBatch();
+        transactions++;
+
+        if (!delta.isZero()) {
+            updateBalance.setBigDecimal(1, delta.toBigDecimal());
+            updateBalance.setTimestamp(2, Timestamp.valueOf(timestamp));
+            updateBalance.setString(3, accountNumber);
+            updateBalance.addBatch();
+            balanceUpdates++;
+        }
+    }
+
+    // Records a change the database refused, in a transaction of its own
+    public void reject(String item, String error) throws SQLException {
+        try {
+            insertReject.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            insertReject.setString(2, item);
+            insertReject.setString(3, error);
+            insertReject.executeUpdate();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private void addAccrual(LedgerRecord record) throws SQLException {
+        upsertAccrual.setString(1, record.getAccountNumber());
+        upsertAccrual.setDate(2, Date.valueOf(record.getAccruedThrough()));
+        upsertAccrual.setLong(3, record.getAccruedMinorUnits());
+        upsertAccrual.setLong(4, record.getAccruedRemainder());
+        upsertAccrual.addBatch();
+        accruals++;
+    }
+
+    private static Money signedAmount(Transaction.TransactionType type, Money amount) {
+        switch (type) {
+            case DEPOSIT:
+            case INVESTMENT:
+            case DIVIDEND:
+            case INTEREST:
+                return amount;
+            case WITHDRAWAL:
+            case FEE:
+                return amount.negate();
+            default:
+                return Money.ZERO;
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
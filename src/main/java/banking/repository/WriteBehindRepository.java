@@ -0,0 +1,298 @@
+package banking.repository;
+
+import banking.account.Account;
+import banking.event.EventLog;
+import banking.event.EventType;
+import banking.model.Customer;
+import banking.persistence.AccountStore;
+import banking.persistence.LedgerJournal;
+import banking.persistence.LedgerRecord;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Journal and account store that queues every change and lets one writer thread send
+// them to PostgreSQL in batches. Callers only block when the queue is full.
+//
+// A batch that fails on the connection is retried until the database is back. A batch the
+// database refuses for its data is written again one change at a time; the changes it still
+// refuses go to the write_rejects table and the writer carries on with the rest.
+public class WriteBehindRepository implements LedgerJournal, AccountStore, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 65_536;
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    private static final long POLL_INTERVAL_MS = 100;
+    private static final long RETRY_DELAY_MS = 1_000;
+
+    private final BankRepository repository;
+    private final BlockingQueue<Object> queue;
+    private final int batchSize;
+    private final AtomicLong sequence;
+    private final AtomicLong submitted;
+
+    private final Object progressMonitor = new Object();
+    private long written;
+    private long rejected;
+    private volatile boolean closed;
+    private volatile boolean stopped;
+    private final Thread writer;
+
+    public WriteBehindRepository(BankRepository repository) {
+        this(repository, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    public WriteBehindRepository(BankRepository repository, int capacity, int batchSize) {
+        this.repository = repository;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.sequence = new AtomicLong();
+        this.submitted = new AtomicLong();
+
+        this.writer = new Thread(this::runWriter, "db-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public long append(LedgerRecord record) {
+        if (record.getKind() == LedgerRecord.Kind.ACCOUNT_OPENED || record.getKind() == LedgerRecord.Kind.ACCOUNT_CLOSED) {
+            // Account rows arrive through saveAccount with their full state
+            return sequence.incrementAndGet();
+        }
+        long next = sequence.incrementAndGet();
+        enqueue(new PendingRecord(next, record));
+        return next;
+    }
+
+    // Write-behind: durability is the database's business, the caller never waits for it
+    @Override
+    public void awaitDurable(long sequence) {
+    }
+
+    @Override
+    public void saveCustomer(Customer customer) {
+        enqueue(customer);
+    }
+
+    @Override
+    public void saveAccount(String customerId, Account account) {
+        enqueue(new AccountRow(customerId, account));
+    }
+
+    // Blocks until everything queued before this call has been committed
+    public void flush() {
+        long target = submitted.get();
+        synchronized (progressMonitor) {
+            while (written < target) {
+                if (!writer.isAlive()) {
+                    throw new IllegalStateException("Write-behind writer has stopped");
+                }
+                try {
+                    progressMonitor.wait(POLL_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while flushing write-behind queue", e);
+                }
+            }
+        }
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        synchronized (progressMonitor) {
+            return written;
+        }
+    }
+
+    // Changes the database refused and that were moved to write_rejects
+    public long getRejectedCount() {
+        synchronized (progressMonitor) {
+            return rejected;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(Object item) {
+        if (closed) {
+            throw new IllegalStateException("Write-behind repository is closed");
+        }
+        if (stopped) {
+            throw new IllegalStateException("Write-behind writer has stopped");
+        }
+        submitted.incrementAndGet();
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing database write", e);
+        }
+    }
+
+    private void runWriter() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        BatchWriter out = null;
+        boolean oneByOne = false;
+        while (!closed || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    oneByOne = false;
+                    Object first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                if (out == null) {
+                    out = repository.openWriter();
+                }
+                if (oneByOne) {
+                    writeOneByOne(out, batch);
+                } else {
+                    write(out, batch);
+                    advance(batch.size(), 0);
+                    batch.clear();
+                }
+            } catch (SQLException e) {
+                closeQuietly(out);
+                out = null;
+                if (!isTransient(e)) {
+                    if (!oneByOne) {
+                        oneByOne = true;
+                        continue;
+                    }
+                    // Not even the reject could be recorded; stopping keeps the changes in order
+                    stopped = true;
+                    EventLog.emit(EventType.WRITE_BEHIND_STOPPED, batch.size() + queue.size(), e.getMessage());
+                    return;
+                }
+                if (closed) {
+                    EventLog.emit(EventType.WRITE_BEHIND_STOPPED, batch.size() + queue.size(), e.getMessage());
+                    return;
+                }
+                EventLog.emit(EventType.WRITE_BEHIND_RETRYING, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+        closeQuietly(out);
+    }
+
+    // Writes what is left of a refused batch one change at a time; written and rejected
+    // changes leave the batch, so a connection failure halfway resumes where it stopped
+    private void writeOneByOne(BatchWriter out, List<Object> batch) throws SQLException {
+        Iterator<Object> items = batch.iterator();
+        while (items.hasNext()) {
+            Object item = items.next();
+            boolean refused = false;
+            try {
+                write(out, List.of(item));
+            } catch (SQLException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                out.reject(describe(item), e.getMessage());
+                EventLog.emit(EventType.WRITE_BEHIND_REJECTED, describe(item), e.getMessage());
+                refused = true;
+            }
+            items.remove();
+            advance(1, refused ? 1 : 0);
+        }
+    }
+
+    private void advance(int count, int refused) {
+        synchronized (progressMonitor) {
+            written += count;
+            rejected += refused;
+            progressMonitor.notifyAll();
+        }
+    }
+
+    // Lost connections, timeouts, deadlocks and serialization failures (SQLState classes 08,
+    // 40, 53 and 57) pass; anything else is about the data and fails again on every retry
+    private static boolean isTransient(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        for (SQLException cause = e; cause != null; cause = cause.getNextException()) {
+            String state = cause.getSQLState();
+            if (state != null && state.length() >= 2) {
+                String stateClass = state.substring(0, 2);
+                return stateClass.equals("08") || stateClass.equals("40")
+                        || stateClass.equals("53") || stateClass.equals("57");
+            }
+        }
+        return true;
+    }
+
+    private static String describe(Object item) {
+        if (item instanceof PendingRecord) {
+            PendingRecord pending = (PendingRecord) item;
+            return pending.record.getKind() + " #" + pending.sequence + " " + pending.record.getAccountNumber()
+                    + (pending.record.getTransactionId() == null ? "" : " " + pending.record.getTransactionId());
+        }
+        if (item instanceof AccountRow) {
+            return "account " + ((AccountRow) item).getAccountNumber();
+        }
+        return "customer " + ((Customer) item).getCustomerId();
+    }
+
+    private static void write(BatchWriter out, List<Object> batch) throws SQLException {
+        for (Object item : batch) {
+            if (item instanceof PendingRecord) {
+                PendingRecord pending = (PendingRecord) item;
+                out.addLedgerRecord(pending.sequence, pending.record);
+            } else if (item instanceof AccountRow) {
+                out.addAccount((AccountRow) item);
+            } else {
+                out.addCustomer((Customer) item);
+            }
+        }
+        out.flush();
+    }
+
+    private static void closeQuietly(BatchWriter out) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (SQLException e) {
+            EventLog.emit(EventType.CONNECTION_RELEASE_FAILED, e.getMessage());
+        }
+    }
+
+    private static final class PendingRecord {
+        private final long sequence;
+        private final LedgerRecord record;
+
+        private PendingRecord(long sequence, LedgerRecord record) {
+            this.sequence = sequence;
+            this.record = record;
+        }
+    }
+}
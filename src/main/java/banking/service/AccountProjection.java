@@ -0,0 +1,98 @@
+package banking.service;
+
+import banking.model.Money;
+import banking.model.Transaction;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Running totals for one account, updated as transactions complete, fail or get cancelled.
+// Instances handed out by TransactionLedger are copies and never change afterwards.
+public class AccountProjection {
+    private Money balance;
+    private Money totalDeposits;
+    private Money totalWithdrawals;
+    private int totalTransactions;
+    private int failedTransactions;
+    private int cancelledTransactions;
+    private final EnumMap<Transaction.TransactionType, Integer> countsByType;
+    private Transaction lastTransaction;
+
+    AccountProjection() {
+        this.balance = Money.ZERO;
+        this.totalDeposits = Money.ZERO;
+        this.totalWithdrawals = Money.ZERO;
+        this.countsByType = new EnumMap<>(Transaction.TransactionType.class);
+    }
+
+    private AccountProjection(AccountProjection other) {
+        this.balance = other.balance;
+        this.totalDeposits = other.totalDeposits;
+        this.totalWithdrawals = other.totalWithdrawals;
+        this.totalTransactions = other.totalTransactions;
+        this.failedTransactions = other.failedTransactions;
+        this.cancelledTransactions = other.cancelledTransactions;
+        this.countsByType = new EnumMap<>(other.countsByType);
+        this.lastTransaction = other.lastTransaction;
+    }
+
+    void onAppended(Transaction transaction) {
+        totalTransactions++;
+        countsByType.merge(transaction.getType(), 1, Integer::sum);
+        if (lastTransaction == null || !transaction.getTimestamp().isBefore(lastTransaction.getTimestamp())) {
+            lastTransaction = transaction;
+        }
+        if (transaction.getStatus() == Transaction.TransactionStatus.COMPLETED) {
+            applyCompleted(transaction, false);
+        }
+    }
+
+    void onCancelled(Transaction transaction, Transaction.TransactionStatus previousStatus) {
+        cancelledTransactions++;
+        if (previousStatus == Transaction.TransactionStatus.COMPLETED) {
+            applyCompleted(transaction, true);
+        }
+    }
+
+    void onFailed() {
+        failedTransactions++;
+    }
+
+    private void applyCompleted(Transaction transaction, boolean reverse) {
+        Money amount = reverse ? transaction.getMoneyAmount().negate() : transaction.getMoneyAmount();
+        switch (transaction.getType()) {
+            case DEPOSIT:
+                totalDeposits = totalDeposits.plus(amount);
+                balance = balance.plus(amount);
+                break;
+            case INVESTMENT:
+            case DIVIDEND:
+            case INTEREST:
+                balance = balance.plus(amount);
+                break;
+            case WITHDRAWAL:
+                totalWithdrawals = totalWithdrawals.plus(amount);
+                balance = balance.minus(amount);
+                break;
+            case FEE:
+                balance = balance.minus(amount);
+                break;
+            default:
+                break;
+        }
+    }
+
+    AccountProjection copy() {
+        return new AccountProjection(this);
+    }
+
+    public Money getBalance() { return balance; }
+    public Money getTotalDeposits() { return totalDeposits; }
+    public Money getTotalWithdrawals() { return totalWithdrawals; }
+    public int getTotalTransactions() { return totalTransactions; }
+    public int getFailedTransactions() { return failedTransactions; }
+    public int getCancelledTransactions() { return cancelledTransactions; }
+    public Map<Transaction.TransactionType, Integer> getCountsByType() { return Collections.unmodifiableMap(countsByType); }
+    public Transaction getLastTransaction() { return lastTransaction; }
+}
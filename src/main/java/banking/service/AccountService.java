@@ -2,6 +2,8 @@ package banking.service;
 
 import banking.account.Account;
 import banking.account.InvestmentAccount;
+import banking.event.EventLog;
+import banking.event.EventType;
 
 import java.math.BigDecimal;
 
@@ -11,10 +13,9 @@ public class AccountService {
         try {
             BigDecimal oldBalance = account.getBalance();
             account.deposit(amount);
-            System.out.println("💰 Deposited $" + amount + " to account " + account.getAccountNumber());
-            System.out.println("📊 Balance: $" + oldBalance + " → $" + account.getBalance());
+            EventLog.emit(EventType.ACCOUNT_DEPOSITED, amount, account.getAccountNumber(), oldBalance, account.getBalance());
         } catch (Exception e) {
-            System.err.println("❌ Deposit failed: " + e.getMessage());
+            EventLog.emit(EventType.ACCOUNT_DEPOSIT_FAILED, e.getMessage());
             throw e;
         }
     }
@@ -23,10 +24,9 @@ public class AccountService {
         try {
             BigDecimal oldBalance = account.getBalance();
             account.withdraw(amount);
-            System.out.println("💸 Withdrew $" + amount + " from account " + account.getAccountNumber());
-            System.out.println("📊 Balance: $" + oldBalance + " → $" + account.getBalance());
+            EventLog.emit(EventType.ACCOUNT_WITHDREW, amount, account.getAccountNumber(), oldBalance, account.getBalance());
         } catch (Exception e) {
-            System.err.println("❌ Withdrawal failed: " + e.getMessage());
+            EventLog.emit(EventType.ACCOUNT_WITHDRAWAL_FAILED, e.getMessage());
             throw e;
         }
     }
@@ -38,12 +38,11 @@ public class AccountService {
 
             account.applyInvestmentReturns(returns);
 
-            System.out.println("📈 Applied investment returns: $" + returns + " to account " + account.getAccountNumber());
-            System.out.println("📊 Balance: $" + oldBalance + " → $" + account.getBalance());
-            System.out.println("🎯 Total returns: $" + oldReturns + " → $" + account.getInvestmentReturns());
+            EventLog.emit(EventType.RETURNS_APPLIED, returns, account.getAccountNumber(), oldBalance,
+                    account.getBalance(), oldReturns, account.getInvestmentReturns());
 
         } catch (Exception e) {
-            System.err.println("❌ Investment returns application failed: " + e.getMessage());
+            EventLog.emit(EventType.RETURNS_FAILED, e.getMessage());
             throw e;
         }
     }
@@ -0,0 +1,200 @@
+package banking.service;
+
+import banking.event.EventLog;
+import banking.event.EventType;
+import banking.model.Money;
+import banking.model.Notification;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Collapses repeated alerts for the same (customer, account, kind). The first alert of a
+// window is sent at once; the rest are counted and summed, and sent as one aggregated
+// notification when the window closes.
+public class AlertCoalescer implements AutoCloseable {
+    public enum AlertKind {
+        LARGE_TRANSACTION, LOW_BALANCE
+    }
+
+    public static final Duration DEFAULT_WINDOW = Duration.ofSeconds(60);
+    private static final long MIN_SWEEP_INTERVAL_MS = 100;
+
+    private final NotificationService notificationService;
+    private final ConcurrentMap<AlertKey, AlertWindow> windows;
+    private final ScheduledExecutorService sweeper;
+    private volatile long windowNanos;
+
+    public AlertCoalescer(NotificationService notificationService) {
+        this(notificationService, DEFAULT_WINDOW);
+    }
+
+    public AlertCoalescer(NotificationService notificationService, Duration window) {
+        this.notificationService = notificationService;
+        this.windows = new ConcurrentHashMap<>();
+        this.windowNanos = window.toNanos();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "alert-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = Math.max(MIN_SWEEP_INTERVAL_MS, window.toMillis() / 2);
+        sweeper.scheduleWithFixedDelay(this::sweepExpired, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void largeTransaction(String customerId, String accountNumber, BigDecimal amount, String transactionType) {
+        if (record(new AlertKey(customerId, accountNumber, AlertKind.LARGE_TRANSACTION), amount, transactionType)) {
+            notificationService.sendLargeTransactionAlert(customerId, accountNumber, amount, transactionType);
+        }
+    }
+
+    public void lowBalance(String customerId, String accountNumber, BigDecimal balance) {
+        if (record(new AlertKey(customerId, accountNumber, AlertKind.LOW_BALANCE), balance, null)) {
+            notificationService.sendLowBalanceAlert(customerId, accountNumber, balance);
+        }
+    }
+
+    // Sends the aggregated notification of every open window right away
+    public void flush() {
+        sweep(true);
+    }
+
+    // Applies to windows opened from now on
+    public void setWindow(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public Duration getWindow() {
+        return Duration.ofNanos(windowNanos);
+    }
+
+    public int getOpenWindowCount() {
+        return windows.size();
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdown();
+        flush();
+    }
+
+    // True when the alert opens a new window and has to be sent now
+    private boolean record(AlertKey key, BigDecimal amount, String label) {
+        long now = System.nanoTime();
+        boolean[] opened = new boolean[1];
+        AlertWindow[] expired = new AlertWindow[1];
+        windows.compute(key, (k, window) -> {
+            if (window != null && now - window.openedAt < window.length) {
+                window.suppress(amount, label);
+                return window;
+            }
+            expired[0] = window;
+            opened[0] = true;
+            return new AlertWindow(now, windowNanos);
+        });
+        if (expired[0] != null) {
+            sendAggregate(key, expired[0]);
+        }
+        return opened[0];
+    }
+
+    // An exception would cancel the scheduled sweep for good, so it is logged instead
+    private void sweepExpired() {
+        try {
+            sweep(false);
+        } catch (RuntimeException e) {
+            EventLog.emit(EventType.ALERT_SWEEP_FAILED, e.toString());
+        }
+    }
+
+    private void sweep(boolean all) {
+        long now = System.nanoTime();
+        for (AlertKey key : windows.keySet()) {
+            AlertWindow[] closed = new AlertWindow[1];
+            windows.computeIfPresent(key, (k, window) -> {
+                if (all || now - window.openedAt >= window.length) {
+                    closed[0] = window;
+                    return null;
+                }
+                return window;
+            });
+            if (closed[0] != null) {
+                sendAggregate(key, closed[0]);
+            }
+        }
+    }
+
+    private void sendAggregate(AlertKey key, AlertWindow window) {
+        if (window.suppressed == 0) {
+            return;
+        }
+        String message;
+        if (key.kind == AlertKind.LARGE_TRANSACTION) {
+            message = window.suppressed + (window.suppressed == 1 ? " more transaction" : " more transactions")
+                    + " totalling $" + window.total
+                    + " on account " + key.accountNumber + " (latest: " + window.lastLabel
+                    + " of $" + window.lastAmount + ")";
+        } else {
+            message = "Account " + key.accountNumber + " stayed below the low balance threshold "
+                    + window.suppressed + (window.suppressed == 1 ? " more time" : " more times") + "; latest balance: $" + window.lastAmount;
+        }
+        String title = key.kind == AlertKind.LARGE_TRANSACTION ? "Large Transaction Alert" : "Low Balance Alert";
+        notificationService.sendNotification(key.customerId, title + " (x" + window.suppressed + ")", message,
+                key.kind == AlertKind.LARGE_TRANSACTION
+                        ? Notification.NotificationType.INFO : Notification.NotificationType.WARNING,
+                window.suppressed);
+    }
+
+    private static final class AlertKey {
+        private final String customerId;
+        private final String accountNumber;
+        private final AlertKind kind;
+
+        private AlertKey(String customerId, String accountNumber, AlertKind kind) {
+            this.customerId = customerId;
+            this.accountNumber = accountNumber;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof AlertKey)) return false;
+            AlertKey other = (AlertKey) o;
+            return kind == other.kind && customerId.equals(other.customerId)
+                    && accountNumber.equals(other.accountNumber);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(customerId, accountNumber, kind);
+        }
+    }
+
+    // Mutated only inside ConcurrentHashMap.compute for its key
+    private static final class AlertWindow {
+        private final long openedAt;
+        private final long length;
+        private int suppressed;
+        private Money total = Money.ZERO;
+        private BigDecimal lastAmount;
+        private String lastLabel;
+
+        private AlertWindow(long openedAt, long length) {
+            this.openedAt = openedAt;
+            this.length = length;
+        }
+
+        private void suppress(BigDecimal amount, String label) {
+            suppressed++;
+            total = total.plus(Money.of(amount));
+            lastAmount = amount;
+            lastLabel = label;
+        }
+    }
+}
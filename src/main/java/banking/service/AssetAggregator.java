@@ -0,0 +1,86 @@
+package banking.service;
+
+import banking.account.Account;
+import banking.model.Money;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Sums open-account balances with fork/join once the book is large enough to benefit;
+// below the threshold the split overhead outweighs the gain and it stays sequential.
+public class AssetAggregator {
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 8_192;
+
+    private final ForkJoinPool pool;
+    private final int sequentialThreshold;
+
+    public AssetAggregator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    public AssetAggregator(ForkJoinPool pool, int sequentialThreshold) {
+        if (sequentialThreshold < 1) {
+            throw new IllegalArgumentException("Sequential threshold must be positive");
+        }
+        this.pool = pool;
+        this.sequentialThreshold = sequentialThreshold;
+    }
+
+    public BigDecimal totalBalance(Collection<Account> accounts) {
+        return summarize(accounts).getTotalBalance().toBigDecimal();
+    }
+
+    public AssetSummary summarize(Collection<Account> accounts) {
+        Account[] snapshot = accounts.toArray(new Account[0]);
+        if (snapshot.length <= sequentialThreshold) {
+            return summarizeRange(snapshot, 0, snapshot.length);
+        }
+        return pool.invoke(new SummaryTask(snapshot, 0, snapshot.length, sequentialThreshold));
+    }
+
+    public int getSequentialThreshold() {
+        return sequentialThreshold;
+    }
+
+    private static AssetSummary summarizeRange(Account[] accounts, int from, int to) {
+        AssetSummary summary = new AssetSummary();
+        for (int i = from; i < to; i++) {
+            Account account = accounts[i];
+            if (!account.isClosed()) {
+                summary.add(account.getAccountType(), Money.of(account.getBalance()).getMinorUnits());
+            }
+        }
+        return summary;
+    }
+
+    private static final class SummaryTask extends RecursiveTask<AssetSummary> {
+        private static final long serialVersionUID = 1L;
+
+        // Tasks are never serialized; the snapshot is shared between subtasks, not copied
+        private final transient Account[] accounts;
+        private final int from;
+        private final int to;
+        private final int sequentialThreshold;
+
+        SummaryTask(Account[] accounts, int from, int to, int sequentialThreshold) {
+            this.accounts = accounts;
+            this.from = from;
+            this.to = to;
+            this.sequentialThreshold = sequentialThreshold;
+        }
+
+        @Override
+        protected AssetSummary compute() {
+            if (to - from <= sequentialThreshold) {
+                return summarizeRange(accounts, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            SummaryTask left = new SummaryTask(accounts, from, mid, sequentialThreshold);
+            left.fork();
+            AssetSummary right = new SummaryTask(accounts, mid, to, sequentialThreshold).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package banking.service;
+
+import banking.model.Money;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// Open-account totals produced by AssetAggregator, overall and per account type
+public class AssetSummary {
+    private long totalMinorUnits;
+    private int accountCount;
+    private final Map<String, long[]> byType;
+
+    AssetSummary() {
+        this.byType = new HashMap<>();
+    }
+
+    void add(String accountType, long balanceMinorUnits) {
+        totalMinorUnits = Math.addExact(totalMinorUnits, balanceMinorUnits);
+        accountCount++;
+        long[] entry = byType.computeIfAbsent(accountType, k -> new long[2]);
+        entry[0] = Math.addExact(entry[0], balanceMinorUnits);
+        entry[1]++;
+    }
+
+    AssetSummary merge(AssetSummary other) {
+        totalMinorUnits = Math.addExact(totalMinorUnits, other.totalMinorUnits);
+        accountCount += other.accountCount;
+        for (Map.Entry<String, long[]> entry : other.byType.entrySet()) {
+            long[] target = byType.computeIfAbsent(entry.getKey(), k -> new long[2]);
+            target[0] = Math.addExact(target[0], entry.getValue()[0]);
+            target[1] += entry.getValue()[1];
+        }
+        return this;
+    }
+
+    public Money getTotalBalance() {
+        return Money.ofMinor(totalMinorUnits);
+    }
+
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    public Map<String, Money> getBalancesByType() {
+        Map<String, Money> result = new HashMap<>();
+        byType.forEach((type, entry) -> result.put(type, Money.ofMinor(entry[0])));
+        return Collections.unmodifiableMap(result);
+    }
+
+    public Map<String, Integer> getCountByType() {
+        Map<String, Integer> result = new HashMap<>();
+        byType.forEach((type, entry) -> result.put(type, (int) entry[1]));
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,245 @@
+package banking.service;
+
+import banking.account.Account;
+import banking.account.CheckingAccount;
+import banking.account.InvestmentAccount;
+import banking.account.SavingsAccount;
+import banking.account.decorators.PriorityBankingDecorator;
+import banking.event.EventLog;
+import banking.event.EventType;
+import banking.model.BatchOperation;
+import banking.model.BatchResult;
+import banking.model.Money;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Month-end run over every open account: preferential interest for priority banking
+// (savings accounts accrue theirs daily), the monthly maintenance fee (waived for priority
+// accounts above the waiver threshold) and the reset of monthly priority benefits.
+//
+// Accounts are sorted by number and cut into partitions that run in parallel, each in
+// ascending order. Once an account's postings are durable its number is appended to the
+// checkpoint file, so a run that was interrupted resumes with exactly the accounts that
+// have not been done, including any opened in the meantime.
+public class EndOfPeriodProcessor {
+    private static final int PARTITIONS_PER_THREAD = 4;
+    private static final BigDecimal MONTHS_PER_YEAR = BigDecimal.valueOf(12);
+
+    private final TransactionService transactionService;
+    private final int parallelism;
+
+    public EndOfPeriodProcessor(TransactionService transactionService) {
+        this(transactionService, Runtime.getRuntime().availableProcessors());
+    }
+
+    public EndOfPeriodProcessor(TransactionService transactionService, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.transactionService = transactionService;
+        this.parallelism = parallelism;
+    }
+
+    public EndOfPeriodReport run(Collection<Account> accounts, YearMonth period, Path checkpointFile)
+            throws IOException {
+        long started = System.nanoTime();
+        List<Account> open = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            if (!account.isClosed()) {
+                open.add(account);
+            }
+        }
+        open.sort(Comparator.comparing(Account::getAccountNumber));
+
+        int count = Math.max(1, Math.min(parallelism * PARTITIONS_PER_THREAD, open.size()));
+        List<List<Account>> partitions = new ArrayList<>(count);
+        for (int p = 0; p < count; p++) {
+            partitions.add(open.subList((int) ((long) p * open.size() / count),
+                    (int) ((long) (p + 1) * open.size() / count)));
+        }
+
+        EndOfPeriodReport report = new EndOfPeriodReport(period);
+        try (Checkpoint checkpoint = Checkpoint.open(checkpointFile, period);
+             ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            List<Future<EndOfPeriodReport>> futures = new ArrayList<>(partitions.size());
+            for (List<Account> partition : partitions) {
+                futures.add(executor.submit(() -> runPartition(partition, checkpoint)));
+            }
+            for (Future<EndOfPeriodReport> future : futures) {
+                report.merge(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during end-of-period run", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("End-of-period run failed", e.getCause());
+        }
+
+        report.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        EventLog.emit(EventType.END_OF_PERIOD_COMPLETED, period, report.getAccountsProcessed(),
+                report.getElapsedMillis(), report.getAccountsPerSecond(), report.getFeesCharged(),
+                report.getTotalFees(), report.getFeesWaived(), report.getInterestPostings(), report.getTotalInterest());
+        return report;
+    }
+
+    private EndOfPeriodReport runPartition(List<Account> accounts, Checkpoint checkpoint) throws IOException {
+        EndOfPeriodReport report = new EndOfPeriodReport(checkpoint.period);
+        for (Account account : accounts) {
+            if (checkpoint.isDone(account.getAccountNumber())) {
+                report.accountSkipped();
+                continue;
+            }
+            process(account, checkpoint.period, report);
+            checkpoint.markDone(account.getAccountNumber());
+        }
+        return report;
+    }
+
+    // The postings are decided and applied under the account's lock, so interest and the fee
+    // waiver see the balance the postings change; durability is waited on after it is released
+    private void process(Account account, YearMonth period, EndOfPeriodReport report) {
+        List<BatchResult> results = transactionService.recordBatch(account, () -> plan(account, period, report));
+        for (BatchResult result : results) {
+            Money amount = Money.of(result.getOperation().getAmount());
+            if (!result.isSuccess()) {
+                report.failed();
+            } else if (result.getOperation().getKind() == BatchOperation.Kind.INTEREST) {
+                report.interestPosted(amount);
+            } else {
+                report.feeCharged(amount);
+            }
+        }
+        report.accountProcessed();
+    }
+
+    private List<BatchOperation> plan(Account account, YearMonth period, EndOfPeriodReport report) {
+        List<BatchOperation> postings = new ArrayList<>(2);
+        PriorityBankingDecorator priority = account.getBenefit(PriorityBankingDecorator.class);
+        Money interest = Money.ZERO;
+        // Savings accounts accrue their interest daily through InterestAccrualEngine
+        if (priority != null && !(account.getBaseAccount() instanceof SavingsAccount)) {
+            interest = Money.of(priority.calculatePreferentialInterest()
+                    .divide(MONTHS_PER_YEAR, Money.SCALE, Money.DEFAULT_ROUNDING));
+            if (interest.isPositive()) {
+                postings.add(BatchOperation.interest(account.getAccountNumber(), interest.toBigDecimal(),
+                        "Preferential interest " + period));
+            }
+        }
+
+        Money fee = monthlyFee(account);
+        if (fee.isPositive()) {
+            // The waiver counts the interest posted just before the fee
+            if (priority != null && Money.of(account.getBalance()).plus(interest)
+                    .compareTo(Money.of(priority.getFeeWaiverThreshold())) >= 0) {
+                report.feeWaived();
+            } else {
+                postings.add(BatchOperation.fee(account.getAccountNumber(), fee.toBigDecimal(),
+                        "Monthly maintenance fee " + period));
+            }
+        }
+
+        if (priority != null) {
+            priority.resetMonthlyBenefits();
+        }
+        return postings;
+    }
+
+    private static Money monthlyFee(Account account) {
+        Account base = account.getBaseAccount();
+        if (base instanceof CheckingAccount) {
+            return Money.ofMinor(500);
+        } else if (base instanceof SavingsAccount) {
+            return Money.ofMinor(200);
+        } else if (base instanceof InvestmentAccount) {
+            return Money.ofMinor(1000);
+        }
+        return Money.ZERO;
+    }
+
+    // Text file: "period=" and "started=", then the number of every account whose postings
+    // for the period are done, one per line. Lines are appended and flushed as accounts finish,
+    // so they survive the process; a line cut short by a crash is ignored.
+    private static final class Checkpoint implements AutoCloseable {
+        private final YearMonth period;
+        private final Set<String> done;
+        private final BufferedWriter writer;
+
+        private Checkpoint(YearMonth period, Set<String> done, BufferedWriter writer) {
+            this.period = period;
+            this.done = done;
+            this.writer = writer;
+        }
+
+        // Continues the checkpoint of an earlier run for the same period, or starts a new one
+        private static Checkpoint open(Path file, YearMonth period) throws IOException {
+            Set<String> done = ConcurrentHashMap.newKeySet();
+            if (Files.exists(file)) {
+                String content = Files.readString(file, StandardCharsets.UTF_8);
+                List<String> lines = new ArrayList<>(Arrays.asList(content.split("\n", -1)));
+                // The last element is "" after a complete line, or the remains of a torn one
+                lines.remove(lines.size() - 1);
+                if (lines.size() >= 2 && lines.get(0).equals("period=" + period) && lines.get(1).startsWith("started=")) {
+                    done.addAll(lines.subList(2, lines.size()));
+                    if (!content.endsWith("\n")) {
+                        truncate(file, content.lastIndexOf('\n') + 1);
+                    }
+                    return new Checkpoint(period, done,
+                            Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND));
+                }
+            }
+
+            // Written to a temporary file first, so a crash leaves either the old or the new checkpoint
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter header = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                header.write("period=" + period);
+                header.newLine();
+                header.write("started=" + LocalDateTime.now());
+                header.newLine();
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new Checkpoint(period, done,
+                    Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND));
+        }
+
+        private static void truncate(Path file, long length) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(length);
+            }
+        }
+
+        private boolean isDone(String accountNumber) {
+            return done.contains(accountNumber);
+        }
+
+        private synchronized void markDone(String accountNumber) throws IOException {
+            writer.write(accountNumber);
+            writer.write('\n');
+            writer.flush();
+            done.add(accountNumber);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package banking.service;
+
+import banking.model.Money;
+
+import java.time.YearMonth;
+
+// Totals of one EndOfPeriodProcessor run; partitions fill their own report and are merged at the end
+public class EndOfPeriodReport {
+    private final YearMonth period;
+    private long accountsProcessed;
+    private long accountsSkipped;
+    private long feesCharged;
+    private long feesWaived;
+    private long interestPostings;
+    private long failures;
+    private Money totalFees;
+    private Money totalInterest;
+    private long elapsedMillis;
+
+    EndOfPeriodReport(YearMonth period) {
+        this.period = period;
+        this.totalFees = Money.ZERO;
+        this.totalInterest = Money.ZERO;
+    }
+
+    void accountProcessed() { accountsProcessed++; }
+    void accountSkipped() { accountsSkipped++; }
+    void feeWaived() { feesWaived++; }
+    void failed() { failures++; }
+
+    void feeCharged(Money fee) {
+        feesCharged++;
+        totalFees = totalFees.plus(fee);
+    }
+
+    void interestPosted(Money interest) {
+        interestPostings++;
+        totalInterest = totalInterest.plus(interest);
+    }
+
+    EndOfPeriodReport merge(EndOfPeriodReport other) {
+        accountsProcessed += other.accountsProcessed;
+        accountsSkipped += other.accountsSkipped;
+        feesCharged += other.feesCharged;
+        feesWaived += other.feesWaived;
+        interestPostings += other.interestPostings;
+        failures += other.failures;
+        totalFees = totalFees.plus(other.totalFees);
+        totalInterest = totalInterest.plus(other.totalInterest);
+        return this;
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getAccountsPerSecond() {
+        return accountsProcessed * 1000 / Math.max(1, elapsedMillis);
+    }
+
+    public YearMonth getPeriod() { return period; }
+    public long getAccountsProcessed() { return accountsProcessed; }
+    // Accounts a resumed run found already done by the interrupted one
+    public long getAccountsSkipped() { return accountsSkipped; }
+    public long getFeesCharged() { return feesCharged; }
+    public long getFeesWaived() { return feesWaived; }
+    public long getInterestPostings() { return interestPostings; }
+    public long getFailures() { return failures; }
+    public Money getTotalFees() { return totalFees; }
+    public Money getTotalInterest() { return totalInterest; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return "EndOfPeriodReport[" + period + ": " + accountsProcessed + " accounts (" + accountsSkipped
+                + " skipped), fees " + feesCharged + " / $" + totalFees + " (" + feesWaived + " waived), interest "
+                + interestPostings + " / $" + totalInterest + ", " + failures + " failures, "
+                + getAccountsPerSecond() + " accounts/sec]";
+    }
+}
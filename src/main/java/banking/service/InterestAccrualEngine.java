@@ -0,0 +1,320 @@
+package banking.service;
+
+import banking.account.Account;
+import banking.account.SavingsAccount;
+import banking.account.decorators.PriorityBankingDecorator;
+import banking.event.EventLog;
+import banking.event.EventType;
+import banking.model.BatchOperation;
+import banking.model.BatchResult;
+import banking.model.Money;
+import banking.persistence.LedgerJournal;
+import banking.persistence.LedgerRecord;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+// Interest accrual for savings accounts: the annual rate of the account (the preferential
+// rate for priority banking) over the days of a 365-day year.
+//
+// Each day's interest is kept unrounded per account, as whole cents plus a remainder in
+// 1/(365 * RATE_SCALE) of a cent, and posted through TransactionService as one batch of
+// INTEREST transactions on the last day of the month. Only the whole cents are posted;
+// the remainder is carried into the next month, so small balances earn their interest too.
+//
+// Balances (in cents) and rates (in millionths) are copied into primitive arrays and the
+// interest of every account is computed in one loop of exact integer arithmetic.
+//
+// What is accrued and not yet posted is journaled after every run, one INTEREST_ACCRUED
+// record per account, and each month-end posting is journaled as an INTEREST_POSTED record
+// carrying what it leaves accrued; restore() and readState() bring it back on recovery.
+public class InterestAccrualEngine {
+    public static final int DAYS_PER_YEAR = 365;
+    public static final int MAX_DAYS = 366;
+    // Rates are held in millionths: 2.5% is 25_000
+    public static final int RATE_DECIMALS = 6;
+    public static final long RATE_SCALE = 1_000_000;
+    // Remainders are held in 1/DIVISOR of a cent
+    public static final long DIVISOR = RATE_SCALE * DAYS_PER_YEAR;
+
+    // balance * rate * days cannot overflow below this balance when rate <= RATE_SCALE (about $250M)
+    private static final long FAST_PATH_LIMIT = Long.MAX_VALUE / (RATE_SCALE * MAX_DAYS);
+    private static final int REFERENCE_SCALE = 12;
+
+    private final TransactionService transactionService;
+    private final LedgerJournal journal;
+    // Accrued and not yet posted, by account number
+    private final Map<String, Accrual> pending;
+    private LocalDate lastAccrued;
+
+    public InterestAccrualEngine(TransactionService transactionService) {
+        this(transactionService, LedgerJournal.NONE);
+    }
+
+    public InterestAccrualEngine(TransactionService transactionService, LedgerJournal journal) {
+        this.transactionService = transactionService;
+        this.journal = journal;
+        this.pending = new HashMap<>();
+    }
+
+    // Accrues every day after the last accrued date up to and including this one (just this
+    // one on the first run), posting at each month end on the way. A date that has already
+    // been accrued is refused, so a repeated run cannot pay the same day twice.
+    public synchronized InterestAccrualReport accrue(Collection<Account> accounts, LocalDate date) {
+        if (lastAccrued != null && !date.isAfter(lastAccrued)) {
+            throw new IllegalStateException("Interest has already been accrued through " + lastAccrued
+                    + "; refusing to accrue " + date + " again");
+        }
+        long started = System.nanoTime();
+        LocalDate from = lastAccrued == null ? date.minusDays(1) : lastAccrued;
+
+        int days = 0;
+        long accountsAccrued = 0;
+        long postings = 0;
+        long failures = 0;
+        Money total = Money.ZERO;
+        while (from.isBefore(date)) {
+            LocalDate monthEnd = YearMonth.from(from.plusDays(1)).atEndOfMonth();
+            LocalDate through = monthEnd.isBefore(date) ? monthEnd : date;
+            int segment = (int) ChronoUnit.DAYS.between(from, through);
+            accountsAccrued = Math.max(accountsAccrued, accrueSegment(accounts, segment));
+            days += segment;
+            if (through.equals(monthEnd)) {
+                BatchSummary posted = post(accounts, monthEnd);
+                postings += posted.postings;
+                failures += posted.failures;
+                total = total.plus(posted.total);
+            }
+            from = through;
+        }
+        lastAccrued = date;
+        journalPending(date);
+
+        InterestAccrualReport report = new InterestAccrualReport(days, accountsAccrued, postings, failures,
+                total, (System.nanoTime() - started) / 1_000_000);
+        EventLog.emit(EventType.INTEREST_ACCRUED, days, report.getAccountsAccrued(), report.getPostings(),
+                report.getTotalInterest(), report.getFailures(), report.getElapsedMillis(),
+                report.getAccountsPerSecond());
+        return report;
+    }
+
+    // Interest accrued for the account and not yet posted, in whole cents (the remainder is dropped)
+    public synchronized Money getPendingInterest(String accountNumber) {
+        Accrual accrual = pending.get(accountNumber);
+        return accrual == null ? Money.ZERO : Money.ofMinor(accrual.cents);
+    }
+
+    public synchronized LocalDate getLastAccrued() {
+        return lastAccrued;
+    }
+
+    // Replays an INTEREST_ACCRUED or INTEREST_POSTED record; each holds the account's whole
+    // accrued state, so the last one replayed wins
+    public synchronized void restore(LedgerRecord record) {
+        Accrual accrual = pending.computeIfAbsent(record.getAccountNumber(), key -> new Accrual());
+        accrual.cents = record.getAccruedMinorUnits();
+        accrual.remainder = record.getAccruedRemainder();
+        if (lastAccrued == null || record.getAccruedThrough().isAfter(lastAccrued)) {
+            lastAccrued = record.getAccruedThrough();
+        }
+    }
+
+    public synchronized void writeState(DataOutput out) throws IOException {
+        out.writeLong(lastAccrued == null ? Long.MIN_VALUE : lastAccrued.toEpochDay());
+        out.writeInt(pending.size());
+        for (Map.Entry<String, Accrual> entry : pending.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue().cents);
+            out.writeLong(entry.getValue().remainder);
+        }
+    }
+
+    // Reads what writeState wrote and returns the action that installs it
+    public Runnable readState(DataInput in) throws IOException {
+        long epochDay = in.readLong();
+        LocalDate through = epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay);
+        int count = in.readInt();
+        Map<String, Accrual> accruals = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            Accrual accrual = new Accrual();
+            String accountNumber = in.readUTF();
+            accrual.cents = in.readLong();
+            accrual.remainder = in.readLong();
+            accruals.put(accountNumber, accrual);
+        }
+        return () -> {
+            synchronized (this) {
+                pending.clear();
+                pending.putAll(accruals);
+                lastAccrued = through;
+            }
+        };
+    }
+
+    private void journalPending(LocalDate through) {
+        long sequence = 0;
+        for (Map.Entry<String, Accrual> entry : pending.entrySet()) {
+            Accrual accrual = entry.getValue();
+            sequence = journal.append(LedgerRecord.interestAccrued(entry.getKey(), through,
+                    accrual.cents, accrual.remainder));
+        }
+        journal.awaitDurable(sequence);
+    }
+
+    private int accrueSegment(Collection<Account> accounts, int days) {
+        int size = 0;
+        Accrual[] accruals = new Accrual[accounts.size()];
+        long[] balances = new long[accruals.length];
+        long[] rates = new long[accruals.length];
+        for (Account account : accounts) {
+            if (account.isClosed() || !(account.getBaseAccount() instanceof SavingsAccount)) {
+                continue;
+            }
+            PriorityBankingDecorator priority = account.getBenefit(PriorityBankingDecorator.class);
+            BigDecimal rate = priority != null
+                    ? priority.getPreferentialInterestRate()
+                    : ((SavingsAccount) account.getBaseAccount()).getInterestRate();
+            accruals[size] = pending.computeIfAbsent(account.getAccountNumber(), key -> new Accrual());
+            balances[size] = Money.of(account.getBalance()).getMinorUnits();
+            rates[size] = rateOf(rate);
+            size++;
+        }
+
+        long[] cents = new long[size];
+        long[] remainders = new long[size];
+        for (int i = 0; i < size; i++) {
+            cents[i] = accruals[i].cents;
+            remainders[i] = accruals[i].remainder;
+        }
+        accrue(balances, rates, days, cents, remainders, size);
+        for (int i = 0; i < size; i++) {
+            accruals[i].cents = cents[i];
+            accruals[i].remainder = remainders[i];
+        }
+        return size;
+    }
+
+    // Posts the whole cents accrued for each open account; a failed posting stays pending
+    // for the next month, and the interest of closed accounts is dropped
+    private BatchSummary post(Collection<Account> accounts, LocalDate monthEnd) {
+        String description = "Interest " + YearMonth.from(monthEnd);
+        List<Account> targets = new ArrayList<>();
+        List<BatchOperation> postings = new ArrayList<>();
+        List<Accrual> posted = new ArrayList<>();
+        Set<String> open = new HashSet<>();
+        for (Account account : accounts) {
+            if (account.isClosed()) {
+                continue;
+            }
+            open.add(account.getAccountNumber());
+            Accrual accrual = pending.get(account.getAccountNumber());
+            if (accrual != null && accrual.cents > 0) {
+                targets.add(account);
+                postings.add(BatchOperation.interest(account.getAccountNumber(),
+                        Money.ofMinor(accrual.cents).toBigDecimal(), description));
+                posted.add(accrual);
+            }
+        }
+        pending.keySet().retainAll(open);
+
+        BatchSummary summary = new BatchSummary();
+        // Every posting empties the account's whole cents and keeps its remainder
+        List<BatchResult> results = transactionService.recordPostings(targets, postings, posting ->
+                LedgerRecord.interestPosted(posting, monthEnd, 0, pending.get(posting.getAccountNumber()).remainder));
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).isSuccess()) {
+                summary.postings++;
+                summary.total = summary.total.plus(Money.ofMinor(posted.get(i).cents));
+                posted.get(i).cents = 0;
+            } else {
+                summary.failures++;
+            }
+        }
+        return summary;
+    }
+
+    // Adds balances[i] * rates[i] * days / (365 * RATE_SCALE) to cents[i] + remainders[i] / DIVISOR
+    // without rounding; remainders stay below DIVISOR. Non-positive balances earn nothing; huge
+    // balances and out-of-range rates take the exact path.
+    public static void accrue(long[] balances, long[] rates, int days, long[] cents, long[] remainders) {
+        accrue(balances, rates, days, cents, remainders, balances.length);
+    }
+
+    private static void accrue(long[] balances, long[] rates, int days, long[] cents, long[] remainders, int size) {
+        checkDays(days);
+        for (int i = 0; i < size; i++) {
+            long balance = balances[i];
+            long rate = rates[i];
+            if (balance <= 0) {
+                continue;
+            }
+            long whole;
+            long remainder;
+            if (balance <= FAST_PATH_LIMIT && rate >= 0 && rate <= RATE_SCALE) {
+                long numerator = balance * rate * days;
+                whole = numerator / DIVISOR;
+                remainder = numerator % DIVISOR;
+            } else {
+                BigInteger[] parts = BigInteger.valueOf(balance)
+                        .multiply(BigInteger.valueOf(rate))
+                        .multiply(BigInteger.valueOf(days))
+                        .divideAndRemainder(BigInteger.valueOf(DIVISOR));
+                whole = parts[0].longValueExact();
+                remainder = parts[1].longValue();
+            }
+            remainder += remainders[i];
+            if (remainder >= DIVISOR) {
+                remainder -= DIVISOR;
+                whole++;
+            }
+            cents[i] += whole;
+            remainders[i] = remainder;
+        }
+    }
+
+    // The exact interest, truncated to 12 decimal places rather than rounded to the cent:
+    // what accrue adds up over any number of days, to within a cent
+    public static BigDecimal referenceInterest(BigDecimal balance, BigDecimal annualRate, int days) {
+        if (balance.signum() <= 0) {
+            return BigDecimal.ZERO.setScale(REFERENCE_SCALE);
+        }
+        return balance.multiply(annualRate)
+                .multiply(BigDecimal.valueOf(days))
+                .divide(BigDecimal.valueOf(DAYS_PER_YEAR), REFERENCE_SCALE, RoundingMode.DOWN);
+    }
+
+    // An annual rate in millionths
+    public static long rateOf(BigDecimal annualRate) {
+        try {
+            return annualRate.movePointRight(RATE_DECIMALS).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    "Interest rate must have at most " + RATE_DECIMALS + " decimal places: " + annualRate);
+        }
+    }
+
+    private static void checkDays(int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("Accrual period must be between 1 and " + MAX_DAYS + " days");
+        }
+    }
+
+    private static final class Accrual {
+        private long cents;
+        private long remainder;
+    }
+
+    private static final class BatchSummary {
+        private long postings;
+        private long failures;
+        private Money total = Money.ZERO;
+    }
+}
@@ -0,0 +1,42 @@
+package banking.service;
+
+import banking.model.Money;
+
+// Totals of one InterestAccrualEngine run
+public class InterestAccrualReport {
+    private final int days;
+    private final long accountsAccrued;
+    private final long postings;
+    private final long failures;
+    private final Money totalInterest;
+    private final long elapsedMillis;
+
+    InterestAccrualReport(int days, long accountsAccrued, long postings, long failures, Money totalInterest,
+                          long elapsedMillis) {
+        this.days = days;
+        this.accountsAccrued = accountsAccrued;
+        this.postings = postings;
+        this.failures = failures;
+        this.totalInterest = totalInterest;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getAccountsPerSecond() {
+        return accountsAccrued * 1000 / Math.max(1, elapsedMillis);
+    }
+
+    public int getDays() { return days; }
+    public long getAccountsAccrued() { return accountsAccrued; }
+    // Month-end postings of accrued interest
+    public long getPostings() { return postings; }
+    public long getFailures() { return failures; }
+    public Money getTotalInterest() { return totalInterest; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return "InterestAccrualReport[" + days + " day(s): " + accountsAccrued + " accounts, " + postings
+                + " postings / $" + totalInterest + ", " + failures + " failures, "
+                + getAccountsPerSecond() + " accounts/sec]";
+    }
+}
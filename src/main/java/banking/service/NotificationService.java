@@ -1,23 +1,95 @@
-
 package banking.service;
 
+import banking.event.EventLog;
+import banking.event.EventType;
 import banking.model.Notification;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Notifications are queued by the sending thread and delivered in batches by a
+// dispatcher running on a virtual thread, so senders never wait on delivery.
+public class NotificationService implements AutoCloseable {
+    public enum OverflowPolicy {
+        BLOCK, DROP_NEWEST, DROP_OLDEST
+    }
 
-public class NotificationService {
-    private final Map<String, List<Notification>> customerNotifications;
+    public static final int DEFAULT_CAPACITY = 10_000;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final ConcurrentMap<String, List<Notification>> customerNotifications;
+    private final BlockingQueue<Notification> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final Object progressMonitor = new Object();
+    private long processed;
+    private volatile boolean closed;
+    private final Thread dispatcher;
 
     public NotificationService() {
-        this.customerNotifications = new HashMap<>();
+        this(DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, OverflowPolicy.BLOCK);
+    }
+
+    public NotificationService(int capacity, int batchSize, OverflowPolicy overflowPolicy) {
+        this.customerNotifications = new ConcurrentHashMap<>();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.dispatcher = Thread.ofVirtual().name("notification-dispatcher").start(this::runDispatcher);
     }
 
     public void sendNotification(String customerId, String title, String message,
                                  Notification.NotificationType type) {
-        Notification notification = new Notification(customerId, title, message, type);
-        customerNotifications.computeIfAbsent(customerId, k -> new ArrayList<>()).add(notification);
+        sendNotification(customerId, title, message, type, 1);
+    }
 
-        System.out.println("Notification sent to " + customerId + ": " + title + " - " + message);
+    // occurrences > 1 marks a notification standing in for several coalesced alerts
+    public void sendNotification(String customerId, String title, String message,
+                                 Notification.NotificationType type, int occurrences) {
+        if (closed) {
+            throw new IllegalStateException("Notification service is closed");
+        }
+        Notification notification = new Notification(customerId, title, message, type, occurrences);
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                accepted.incrementAndGet();
+                try {
+                    queue.put(notification);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    markProcessed(1);
+                    dropped.incrementAndGet();
+                }
+            }
+            case DROP_NEWEST -> {
+                if (queue.offer(notification)) {
+                    accepted.incrementAndGet();
+                } else {
+                    dropped.incrementAndGet();
+                }
+            }
+            case DROP_OLDEST -> {
+                accepted.incrementAndGet();
+                while (!queue.offer(notification)) {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                        markProcessed(1);
+                    }
+                }
+            }
+        }
     }
 
     public void sendAccountOpenedNotification(String customerId, String accountNumber, String accountType) {
@@ -45,8 +117,16 @@ public class NotificationService {
         );
     }
 
+    // Reads wait for everything sent before them, so a customer always sees their own notifications
     public List<Notification> getCustomerNotifications(String customerId) {
-        return customerNotifications.getOrDefault(customerId, new ArrayList<>());
+        flush();
+        List<Notification> notifications = customerNotifications.get(customerId);
+        if (notifications == null) {
+            return new ArrayList<>();
+        }
+        synchronized (notifications) {
+            return new ArrayList<>(notifications);
+        }
     }
 
     public List<Notification> getUnreadNotifications(String customerId) {
@@ -61,4 +141,92 @@ public class NotificationService {
                 .findFirst()
                 .ifPresent(Notification::markAsRead);
     }
-}
\ No newline at end of file
+
+    // Blocks until every notification accepted before this call has been delivered or dropped
+    public void flush() {
+        long target = accepted.get();
+        synchronized (progressMonitor) {
+            while (processed < target && dispatcher.isAlive()) {
+                try {
+                    progressMonitor.wait(POLL_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public int getQueueDepth() { return queue.size(); }
+    public int getQueueCapacity() { return queue.size() + queue.remainingCapacity(); }
+    public long getAcceptedCount() { return accepted.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public long getDeliveredCount() { return delivered.get(); }
+    // Notifications in batches whose delivery threw; some of them may have reached the customer
+    public long getFailedCount() { return failed.get(); }
+    public long getBatchCount() { return batches.get(); }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runDispatcher() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                try {
+                    deliver(batch);
+                    delivered.addAndGet(batch.size());
+                } catch (RuntimeException e) {
+                    // A failing sink costs this batch, not the dispatcher
+                    failed.addAndGet(batch.size());
+                    reportFailure(batch.size(), e);
+                }
+                batches.incrementAndGet();
+                markProcessed(batch.size());
+                batch.clear();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // The event sink may be what failed, so reporting the failure must not throw in turn
+    private static void reportFailure(int batchSize, RuntimeException failure) {
+        try {
+            EventLog.emit(EventType.NOTIFICATION_DELIVERY_FAILED, batchSize, failure.toString());
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    private void deliver(List<Notification> batch) {
+        for (Notification notification : batch) {
+            List<Notification> notifications = customerNotifications.computeIfAbsent(
+                    notification.getCustomerId(), k -> new ArrayList<>());
+            synchronized (notifications) {
+                notifications.add(notification);
+            }
+            EventLog.emit(EventType.NOTIFICATION_SENT, notification.getCustomerId(),
+                    notification.getTitle(), notification.getMessage());
+        }
+    }
+
+    private void markProcessed(long count) {
+        synchronized (progressMonitor) {
+            processed += count;
+            progressMonitor.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package banking.service;
+
+import banking.model.Customer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Keeps both directions of the customer <-> account relationship in sync:
+// the customer's own account list and a reverse account -> owner index.
+public class OwnershipRegistry {
+    private final ConcurrentMap<String, Customer> ownerByAccount;
+
+    public OwnershipRegistry() {
+        this.ownerByAccount = new ConcurrentHashMap<>();
+    }
+
+    public void link(Customer customer, String accountNumber) {
+        Customer previous = ownerByAccount.putIfAbsent(accountNumber, customer);
+        if (previous != null && previous != customer) {
+            throw new IllegalStateException("Account " + accountNumber +
+                    " is already owned by " + previous.getCustomerId());
+        }
+        if (previous == null) {
+            customer.addAccount(accountNumber);
+        }
+    }
+
+    public boolean unlink(Customer customer, String accountNumber) {
+        if (!ownerByAccount.remove(accountNumber, customer)) {
+            return false;
+        }
+        customer.removeAccount(accountNumber);
+        return true;
+    }
+
+    public Customer ownerOf(String accountNumber) {
+        return ownerByAccount.get(accountNumber);
+    }
+
+    public String ownerIdOf(String accountNumber) {
+        Customer owner = ownerByAccount.get(accountNumber);
+        return owner != null ? owner.getCustomerId() : null;
+    }
+
+    public boolean isOwnedBy(String customerId, String accountNumber) {
+        Customer owner = ownerByAccount.get(accountNumber);
+        return owner != null && owner.getCustomerId().equals(customerId);
+    }
+
+    public void clear() {
+        ownerByAccount.clear();
+    }
+}
@@ -2,64 +2,110 @@
 package banking.service;
 
 import banking.account.Account;
+import banking.model.Money;
 import banking.model.Transaction;
 
+import java.io.*;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 public class ReportService {
+    private static final DateTimeFormatter STATEMENT_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final char[] SPACES = " ".repeat(32).toCharArray();
+    private static final int MONEY_BUFFER_SIZE = 24;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
     private final TransactionService transactionService;
+    private final AssetAggregator assetAggregator;
 
     public ReportService(TransactionService transactionService) {
+        this(transactionService, new AssetAggregator());
+    }
+
+    public ReportService(TransactionService transactionService, AssetAggregator assetAggregator) {
         this.transactionService = transactionService;
+        this.assetAggregator = assetAggregator;
     }
 
     public String generateAccountStatement(Account account, LocalDate startDate, LocalDate endDate) {
-        List<Transaction> transactions = transactionService.getTransactionHistory(account.getAccountNumber())
-                .stream()
-                .filter(t -> !t.getTimestamp().toLocalDate().isBefore(startDate) &&
-                        !t.getTimestamp().toLocalDate().isAfter(endDate))
-                .sorted((t1, t2) -> t2.getTimestamp().compareTo(t1.getTimestamp()))
-                .toList();
+        StringWriter report = new StringWriter();
+        try {
+            writeAccountStatement(account, startDate, endDate, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return report.toString();
+    }
 
-        StringBuilder report = new StringBuilder();
-        report.append("ACCOUNT STATEMENT\n");
-        report.append("=================\n");
-        report.append("Account: ").append(account.getAccountNumber()).append("\n");
-        report.append("Period: ").append(startDate).append(" to ").append(endDate).append("\n");
-        report.append("Current Balance: $").append(account.getBalance()).append("\n\n");
-
-        report.append("TRANSACTIONS:\n");
-        report.append("-------------\n");
-
-        BigDecimal runningBalance = BigDecimal.ZERO;
-        List<Transaction> reversedTransactions = new ArrayList<>(transactions);
-        Collections.reverse(reversedTransactions);
-
-        for (Transaction transaction : reversedTransactions) {
-            String type = String.format("%-12s", transaction.getType());
-            String amount = String.format("%10s", "$" + transaction.getAmount());
-            String date = transaction.getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-            String status = String.format("%-10s", transaction.getStatus());
-            String description = String.format("%-30s",
-                    transaction.getDescription().length() > 30 ?
-                            transaction.getDescription().substring(0, 27) + "..." :
-                            transaction.getDescription());
+    public void writeAccountStatement(Account account, LocalDate startDate, LocalDate endDate,
+                                      OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), STREAM_BUFFER_SIZE);
+        writeAccountStatement(account, startDate, endDate, writer);
+        writer.flush();
+    }
 
-            if (transaction.getType() == Transaction.TransactionType.DEPOSIT) {
-                runningBalance = runningBalance.add(transaction.getAmount());
-            } else {
-                runningBalance = runningBalance.subtract(transaction.getAmount());
-            }
+    public void writeAccountStatement(Account account, LocalDate startDate, LocalDate endDate,
+                                      FileChannel channel) throws IOException {
+        Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), STREAM_BUFFER_SIZE);
+        writeAccountStatement(account, startDate, endDate, writer);
+        writer.flush();
+    }
+
+    // Rows are written straight to the writer: no per-row strings, formatters or String.format calls
+    public void writeAccountStatement(Account account, LocalDate startDate, LocalDate endDate,
+                                      Writer out) throws IOException {
+        out.write("ACCOUNT STATEMENT\n");
+        out.write("=================\n");
+        out.write("Account: " + account.getAccountNumber() + "\n");
+        out.write("Period: " + startDate + " to " + endDate + "\n");
+        out.write("Current Balance: $" + account.getBalance() + "\n\n");
+
+        out.write("TRANSACTIONS:\n");
+        out.write("-------------\n");
+
+        // History is kept in time order, so the period is a binary-searched slice, walked in place
+        StatementRows rows = new StatementRows(out);
+        transactionService.forEachTransaction(account.getAccountNumber(),
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), rows);
+    }
 
-            report.append(String.format("%s | %s | %s | %s | %s | Balance: $%s\n",
-                    date, type, amount, status, description, runningBalance));
+    private static void writePaddedRight(Writer out, String value, int width) throws IOException {
+        out.write(value);
+        writeSpaces(out, width - value.length());
+    }
+
+    private static void writeSpaces(Writer out, int count) throws IOException {
+        if (count > 0) {
+            out.write(SPACES, 0, count);
         }
+    }
 
-        return report.toString();
+    // Writes cents as "-123.45" right-aligned into the buffer and returns the start index
+    private static int formatMoney(long minorUnits, char[] buffer) {
+        boolean negative = minorUnits < 0;
+        long value = Math.abs(minorUnits);
+        int position = buffer.length;
+
+        buffer[--position] = (char) ('0' + value % 10);
+        value /= 10;
+        buffer[--position] = (char) ('0' + value % 10);
+        value /= 10;
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+
+        if (negative) {
+            buffer[--position] = '-';
+        }
+        return position;
     }
 
     public String generatePortfolioSummary(List<Account> accounts) {
@@ -68,28 +114,17 @@ public class ReportService {
         report.append("=================\n");
         report.append("Generated: ").append(LocalDate.now()).append("\n\n");
 
-        BigDecimal totalBalance = BigDecimal.ZERO;
-        Map<String, BigDecimal> balancesByType = new HashMap<>();
-        Map<String, Integer> countByType = new HashMap<>();
-
-        for (Account account : accounts) {
-            if (!account.isClosed()) {
-                BigDecimal balance = account.getBalance();
-                totalBalance = totalBalance.add(balance);
-
-                String accountType = account.getAccountType();
-                balancesByType.merge(accountType, balance, BigDecimal::add);
-                countByType.merge(accountType, 1, Integer::sum);
-            }
-        }
+        AssetSummary summary = assetAggregator.summarize(accounts);
+        BigDecimal totalBalance = summary.getTotalBalance().toBigDecimal();
+        Map<String, Integer> countByType = summary.getCountByType();
 
         report.append("TOTAL BALANCE: $").append(totalBalance).append("\n\n");
         report.append("ACCOUNT BREAKDOWN:\n");
         report.append("-----------------\n");
 
-        for (Map.Entry<String, BigDecimal> entry : balancesByType.entrySet()) {
+        for (Map.Entry<String, Money> entry : summary.getBalancesByType().entrySet()) {
             String type = entry.getKey();
-            BigDecimal balance = entry.getValue();
+            BigDecimal balance = entry.getValue().toBigDecimal();
             int count = countByType.get(type);
 
             double percentage = 0.0;
@@ -103,4 +138,52 @@ public class ReportService {
 
         return report.toString();
     }
+
+    private static final class StatementRows implements TransactionLedger.TransactionVisitor {
+        private final Writer out;
+        private final char[] moneyBuffer = new char[MONEY_BUFFER_SIZE];
+        private long runningBalance;
+
+        StatementRows(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void visit(Transaction transaction) throws IOException {
+            long amount = transaction.getMoneyAmount().getMinorUnits();
+            if (transaction.getType() == Transaction.TransactionType.DEPOSIT) {
+                runningBalance += amount;
+            } else {
+                runningBalance -= amount;
+            }
+
+            STATEMENT_DATE_FORMAT.formatTo(transaction.getTimestamp(), out);
+            out.write(" | ");
+            writePaddedRight(out, transaction.getType().name(), 12);
+            out.write(" | ");
+
+            int start = formatMoney(amount, moneyBuffer);
+            int length = MONEY_BUFFER_SIZE - start;
+            writeSpaces(out, 10 - (length + 1));
+            out.write('$');
+            out.write(moneyBuffer, start, length);
+            out.write(" | ");
+
+            writePaddedRight(out, transaction.getStatus().name(), 10);
+            out.write(" | ");
+
+            String description = transaction.getDescription();
+            if (description.length() > 30) {
+                out.write(description, 0, 27);
+                out.write("...");
+            } else {
+                writePaddedRight(out, description, 30);
+            }
+
+            out.write(" | Balance: $");
+            start = formatMoney(runningBalance, moneyBuffer);
+            out.write(moneyBuffer, start, MONEY_BUFFER_SIZE - start);
+            out.write('\n');
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,288 @@
+package banking.service;
+
+import banking.model.Transaction;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Per-account striped ledger: every account owns its own lock and history,
+// so appends to different accounts never contend with each other.
+public class TransactionLedger {
+    public interface TransactionVisitor {
+        void visit(Transaction transaction) throws IOException;
+    }
+
+    private static final int VISIT_PAGE_SIZE = 256;
+
+    private final ConcurrentMap<String, AccountHistory> histories;
+    private final ConcurrentMap<String, Transaction> transactionIndex;
+
+    public TransactionLedger() {
+        this.histories = new ConcurrentHashMap<>();
+        this.transactionIndex = new ConcurrentHashMap<>();
+    }
+
+    // Lock guarding both the ledger entry and the account balance updates
+    public ReentrantLock lockFor(String accountNumber) {
+        return history(accountNumber).lock;
+    }
+
+    public void append(String accountNumber, Transaction transaction) {
+        AccountHistory history = history(accountNumber);
+        history.lock.lock();
+        try {
+            history.insertInTimeOrder(transaction);
+            history.projection.onAppended(transaction);
+            transactionIndex.put(transaction.getTransactionId(), transaction);
+        } finally {
+            history.lock.unlock();
+        }
+    }
+
+    // A batch for one account: all completed transactions and the failure count under one lock
+    public void appendAll(String accountNumber, List<Transaction> transactions, int failures) {
+        AccountHistory history = history(accountNumber);
+        history.lock.lock();
+        try {
+            for (Transaction transaction : transactions) {
+                history.insertInTimeOrder(transaction);
+                history.projection.onAppended(transaction);
+                transactionIndex.put(transaction.getTransactionId(), transaction);
+            }
+            for (int i = 0; i < failures; i++) {
+                history.projection.onFailed();
+            }
+        } finally {
+            history.lock.unlock();
+        }
+    }
+
+    public void cancel(Transaction transaction) {
+        AccountHistory history = history(transaction.getAccountNumber());
+        history.lock.lock();
+        try {
+            Transaction.TransactionStatus previousStatus = transaction.getStatus();
+            if (previousStatus == Transaction.TransactionStatus.CANCELLED) {
+                return;
+            }
+            transaction.markCancelled();
+            history.projection.onCancelled(transaction, previousStatus);
+        } finally {
+            history.lock.unlock();
+        }
+    }
+
+    // Failed transactions are not kept in the history, only counted
+    public void recordFailure(String accountNumber) {
+        AccountHistory history = history(accountNumber);
+        history.lock.lock();
+        try {
+            history.projection.onFailed();
+        } finally {
+            history.lock.unlock();
+        }
+    }
+
+    // Journal sequence of the last record applied to this account; set under the account lock
+    public void markJournaled(String accountNumber, long sequence) {
+        AccountHistory history = history(accountNumber);
+        history.lock.lock();
+        try {
+            history.lastSequence = Math.max(history.lastSequence, sequence);
+        } finally {
+            history.lock.unlock();
+        }
+    }
+
+    public long lastJournaledSequence(String accountNumber) {
+        AccountHistory history = histories.get(accountNumber);
+        if (history == null) {
+            return 0;
+        }
+        history.lock.lock();
+        try {
+            return history.lastSequence;
+        } finally {
+            history.lock.unlock();
+        }
+    }
+
+    public AccountProjection projection(String accountNumber) {
+        AccountHistory history = histories.get(accountNumber);
+        if (history == null) {
+            return new AccountProjection();
+        }
+        history.lock.lock();
+        try {
+            return history.projection.copy();
+        } finally {
+            history.lock.unlock();
+        }
+    }
+
+    public Transaction findById(String transactionId) {
+        return transactionIndex.get(transactionId);
+    }
+
+    public List<Transaction> snapshot(String accountNumber) {
+        AccountHistory history = histories.get(accountNumber);
+        if (history == null) {
+            return new ArrayList<>();
+        }
+        history.lock.lock();
+        try {
+            return new ArrayList<>(history.transactions);
+        } finally {
+            history.lock.unlock();
+        }
+    }
+
+    // Transactions with from <= timestamp < to, in time order; O(log n + k)
+    public List<Transaction> range(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        AccountHistory history = histories.get(accountNumber);
+        if (history == null) {
+            return new ArrayList<>();
+        }
+        history.lock.lock();
+        try {
+            int start = history.lowerBound(from);
+            int end = Math.max(start, history.lowerBound(to));
+            return new ArrayList<>(history.transactions.subList(start, end));
+        } finally {
+            history.lock.unlock();
+        }
+    }
+
+    // Visits the same range as range() without copying it. The lock is held only while a
+    // fixed-size page is read, so a slow visitor never holds up postings to the account.
+    public void forEachInRange(String accountNumber, LocalDateTime from, LocalDateTime to,
+                               TransactionVisitor visitor) throws IOException {
+        AccountHistory history = histories.get(accountNumber);
+        if (history == null) {
+            return;
+        }
+        Transaction[] page = new Transaction[VISIT_PAGE_SIZE];
+        Transaction last = null;
+        int count;
+        do {
+            history.lock.lock();
+            try {
+                int start = last == null ? history.lowerBound(from) : history.indexAfter(last);
+                int end = Math.max(start, history.lowerBound(to));
+                count = Math.min(page.length, end - start);
+                for (int i = 0; i < count; i++) {
+                    page[i] = history.transactions.get(start + i);
+                }
+            } finally {
+                history.lock.unlock();
+            }
+            for (int i = 0; i < count; i++) {
+                visitor.visit(page[i]);
+            }
+            if (count > 0) {
+                last = page[count - 1];
+            }
+        } while (count == page.length);
+    }
+
+    public Map<String, List<Transaction>> snapshotAll() {
+        Map<String, List<Transaction>> result = new HashMap<>();
+        for (String accountNumber : histories.keySet()) {
+            result.put(accountNumber, snapshot(accountNumber));
+        }
+        return result;
+    }
+
+    // The entry itself is kept so that threads already holding its lock stay consistent
+    public void clear(String accountNumber) {
+        AccountHistory history = histories.get(accountNumber);
+        if (history == null) {
+            return;
+        }
+        history.lock.lock();
+        try {
+            for (Transaction transaction : history.transactions) {
+                transactionIndex.remove(transaction.getTransactionId());
+            }
+            history.transactions.clear();
+            history.projection = new AccountProjection();
+        } finally {
+            history.lock.unlock();
+        }
+    }
+
+    public Collection<String> accountNumbers() {
+        return Collections.unmodifiableSet(histories.keySet());
+    }
+
+    private AccountHistory history(String accountNumber) {
+        return histories.computeIfAbsent(accountNumber, k -> new AccountHistory());
+    }
+
+    private static final class AccountHistory {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Transaction> transactions = new ArrayList<>();
+        private AccountProjection projection = new AccountProjection();
+        private long lastSequence;
+
+        // Appends arrive in time order almost always; a transaction created just before
+        // a competing one but appended after it is moved back into place.
+        private void insertInTimeOrder(Transaction transaction) {
+            int size = transactions.size();
+            if (size == 0 || !transaction.getTimestamp().isBefore(transactions.get(size - 1).getTimestamp())) {
+                transactions.add(transaction);
+            } else {
+                transactions.add(upperBound(transaction.getTimestamp()), transaction);
+            }
+        }
+
+        // First index whose timestamp is >= time
+        private int lowerBound(LocalDateTime time) {
+            int low = 0;
+            int high = transactions.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (transactions.get(mid).getTimestamp().isBefore(time)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Index just past the given transaction; transactions inserted since it was read
+        // land after it in time order, so resuming here neither repeats nor skips any
+        private int indexAfter(Transaction transaction) {
+            int index = lowerBound(transaction.getTimestamp());
+            while (index < transactions.size()
+                    && transactions.get(index) != transaction
+                    && transactions.get(index).getTimestamp().equals(transaction.getTimestamp())) {
+                index++;
+            }
+            if (index < transactions.size() && transactions.get(index) == transaction) {
+                index++;
+            }
+            return index;
+        }
+
+        // First index whose timestamp is > time
+        private int upperBound(LocalDateTime time) {
+            int low = 0;
+            int high = transactions.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (transactions.get(mid).getTimestamp().isAfter(time)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -1,223 +1,524 @@
 package banking.service;
 
+import banking.event.EventLog;
+import banking.event.EventType;
+import banking.model.BatchOperation;
+import banking.model.BatchResult;
+import banking.model.Money;
 import banking.model.Transaction;
 import banking.account.Account;
+import banking.account.BalanceCell;
+import banking.account.InvestmentAccount;
+import banking.persistence.LedgerJournal;
+import banking.persistence.LedgerRecord;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class TransactionService {
-    private final Map<String, List<Transaction>> accountTransactions;
+    private final TransactionLedger ledger;
+    private final LedgerJournal journal;
 
     public TransactionService() {
-        this.accountTransactions = new HashMap<>();
+        this(new TransactionLedger());
+    }
+
+    public TransactionService(TransactionLedger ledger) {
+        this(ledger, LedgerJournal.NONE);
+    }
+
+    public TransactionService(TransactionLedger ledger, LedgerJournal journal) {
+        this.ledger = ledger;
+        this.journal = journal;
     }
 
     public Transaction recordDeposit(Account account, BigDecimal amount, String description) {
-        Transaction transaction = new Transaction(
-                account.getAccountNumber(),
-                Transaction.TransactionType.DEPOSIT,
-                amount,
-                description
-        );
+        return record(account, Transaction.TransactionType.DEPOSIT, amount, description,
+                EventType.DEPOSIT_RECORDED, EventType.DEPOSIT_FAILED);
+    }
 
-        try {
-            BigDecimal balanceBefore = account.getBalance();
-            account.deposit(amount);
-            transaction.markCompleted();
-            transaction.setBalanceAfter(account.getBalance());
+    public Transaction recordWithdrawal(Account account, BigDecimal amount, String description) {
+        return record(account, Transaction.TransactionType.WITHDRAWAL, amount, description,
+                EventType.WITHDRAWAL_RECORDED, EventType.WITHDRAWAL_FAILED);
+    }
 
-            addTransaction(account.getAccountNumber(), transaction);
+    // Returns the withdrawal leg
+    public Transaction transfer(Account fromAccount, Account toAccount, BigDecimal amount, String description) {
+        String fromNumber = fromAccount.getAccountNumber();
+        String toNumber = toAccount.getAccountNumber();
+        if (fromNumber.equals(toNumber)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
 
-            System.out.println("✅ Deposit recorded: " + description + " - $" + amount +
-                    " | Balance: $" + balanceBefore + " → $" + account.getBalance());
+        Transaction withdrawal = new Transaction(fromNumber, Transaction.TransactionType.WITHDRAWAL,
+                amount, "Transfer to " + toNumber + ": " + description);
+        Transaction deposit = new Transaction(toNumber, Transaction.TransactionType.DEPOSIT,
+                amount, "Transfer from " + fromNumber + ": " + description);
 
-        } catch (Exception e) {
-            transaction.markFailed();
-            System.err.println("❌ Deposit failed: " + e.getMessage());
+        // Locks are always taken in account-number order, so two opposite transfers cannot deadlock
+        boolean fromFirst = fromNumber.compareTo(toNumber) < 0;
+        ReentrantLock firstLock = ledger.lockFor(fromFirst ? fromNumber : toNumber);
+        ReentrantLock secondLock = ledger.lockFor(fromFirst ? toNumber : fromNumber);
+        long sequence;
+
+        try {
+            firstLock.lock();
+            try {
+                secondLock.lock();
+                try {
+                    long drawn = applyTransferLegs(fromAccount, toAccount, amount);
+                    withdrawal.markCompleted();
+                    withdrawal.setBalanceAfter(fromAccount.getBalance());
+                    deposit.markCompleted();
+                    deposit.setBalanceAfter(toAccount.getBalance());
+                    try {
+                        sequence = journal.append(LedgerRecord.transfer(withdrawal, deposit, description));
+                    } catch (RuntimeException e) {
+                        // Neither leg reaches the ledger: both are undone while the accounts are still locked
+                        toAccount.reverseDeposit(amount);
+                        fromAccount.reverseWithdrawal(amount, Money.ofMinor(drawn).toBigDecimal());
+                        throw e;
+                    }
+                    ledger.append(fromNumber, withdrawal);
+                    ledger.append(toNumber, deposit);
+                    ledger.markJournaled(fromNumber, sequence);
+                    ledger.markJournaled(toNumber, sequence);
+                } finally {
+                    secondLock.unlock();
+                }
+            } finally {
+                firstLock.unlock();
+            }
+        } catch (RuntimeException e) {
+            withdrawal.markFailed();
+            deposit.markFailed();
+            ledger.recordFailure(fromNumber);
+            ledger.recordFailure(toNumber);
+            EventLog.emit(EventType.TRANSFER_FAILED, e.getMessage());
             throw e;
         }
+        journal.awaitDurable(sequence);
 
-        return transaction;
+        EventLog.emit(EventType.TRANSFER_COMPLETED, amount, fromNumber, toNumber,
+                withdrawal.getBalanceAfter(), deposit.getBalanceAfter());
+        return withdrawal;
     }
 
-    public Transaction recordWithdrawal(Account account, BigDecimal amount, String description) {
-        Transaction transaction = new Transaction(
-                account.getAccountNumber(),
-                Transaction.TransactionType.WITHDRAWAL,
-                amount,
-                description
-        );
+    // Both accounts are locked by the caller. The deposit leg is validated up front; if it still
+    // fails, the withdrawal is reversed through the same benefits and balance cell it went
+    // through, so the overdraft it drew is given back to the facility. Returns the overdraft drawn.
+    private long applyTransferLegs(Account fromAccount, Account toAccount, BigDecimal amount) {
+        if (toAccount.isClosed()) {
+            throw new IllegalStateException("Cannot deposit to closed account " + toAccount.getAccountNumber());
+        }
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+
+        BalanceCell fromCell = fromAccount.getBalanceCell();
+        long usedBefore = fromCell == null ? 0 : fromCell.getUsedOverdraft();
+        fromAccount.withdraw(amount);
 
         try {
-            BigDecimal balanceBefore = account.getBalance();
-            account.withdraw(amount);
-            transaction.markCompleted();
-            transaction.setBalanceAfter(account.getBalance());
+            toAccount.deposit(amount);
+        } catch (RuntimeException e) {
+            // The source account is locked, so the change in used overdraft is this withdrawal's draw
+            long drawn = fromCell == null ? 0 : fromCell.getUsedOverdraft() - usedBefore;
+            fromAccount.reverseWithdrawal(amount, Money.ofMinor(drawn).toBigDecimal());
+            throw e;
+        }
+        return fromCell == null ? 0 : fromCell.getUsedOverdraft() - usedBefore;
+    }
 
-            addTransaction(account.getAccountNumber(), transaction);
+    public Transaction recordInvestmentReturn(Account account, BigDecimal returns, String description) {
+        return record(account, Transaction.TransactionType.INVESTMENT, returns, description,
+                EventType.INVESTMENT_RETURN_RECORDED, EventType.INVESTMENT_RETURN_FAILED);
+    }
 
-            System.out.println("✅ Withdrawal recorded: " + description + " - $" + amount +
-                    " | Balance: $" + balanceBefore + " → $" + account.getBalance());
+    public Transaction recordFee(Account account, BigDecimal fee, String description) {
+        return record(account, Transaction.TransactionType.FEE, fee, description,
+                EventType.FEE_RECORDED, EventType.FEE_FAILED);
+    }
 
-        } catch (Exception e) {
+    public Transaction recordInterest(Account account, BigDecimal interest, String description) {
+        return record(account, Transaction.TransactionType.INTEREST, interest, description,
+                EventType.INTEREST_RECORDED, EventType.INTEREST_FAILED);
+    }
+
+    // Balance change, ledger append and journal append happen under the account's own lock,
+    // so operations on different accounts proceed in parallel
+    private Transaction record(Account account, Transaction.TransactionType type, BigDecimal amount,
+                               String description, EventType successEvent, EventType failureEvent) {
+        Transaction transaction = new Transaction(account.getAccountNumber(), type, amount, description);
+        BigDecimal balanceBefore;
+        long sequence;
+
+        try {
+            ReentrantLock lock = ledger.lockFor(account.getAccountNumber());
+            lock.lock();
+            try {
+                balanceBefore = account.getBalance();
+                sequence = applyJournaled(account, transaction);
+                ledger.append(account.getAccountNumber(), transaction);
+                ledger.markJournaled(account.getAccountNumber(), sequence);
+            } finally {
+                lock.unlock();
+            }
+        } catch (RuntimeException e) {
             transaction.markFailed();
-            System.err.println("❌ Withdrawal failed: " + e.getMessage());
+            ledger.recordFailure(account.getAccountNumber());
+            EventLog.emit(failureEvent, e.getMessage());
             throw e;
         }
+        journal.awaitDurable(sequence);
 
+        EventLog.emit(successEvent, description, amount, balanceBefore, transaction.getBalanceAfter());
         return transaction;
     }
 
-    public void transfer(Account fromAccount, Account toAccount, BigDecimal amount, String description) {
-        if (fromAccount.getAccountNumber().equals(toAccount.getAccountNumber())) {
-            throw new IllegalArgumentException("Cannot transfer to the same account");
+    // Applies one account's deposits and withdrawals in order under a single lock acquisition.
+    // A failed item does not stop the rest and leaves no trace in the balance, the journal or
+    // the ledger; the ledger is updated once and the journal is waited on once for the group.
+    public List<BatchResult> recordBatch(Account account, List<BatchOperation> operations) {
+        return recordBatch(account, () -> operations);
+    }
+
+    // The same with the operations decided under the account's lock, so a plan that depends on
+    // the balance sees the balance its postings change. Nothing is recorded for an empty plan.
+    public List<BatchResult> recordBatch(Account account, Supplier<List<BatchOperation>> planner) {
+        String accountNumber = account.getAccountNumber();
+        List<BatchResult> results;
+        List<Transaction> completed;
+        int failures = 0;
+        long sequence = 0;
+
+        ReentrantLock lock = ledger.lockFor(accountNumber);
+        lock.lock();
+        try {
+            List<BatchOperation> operations = planner.get();
+            if (operations.isEmpty()) {
+                return List.of();
+            }
+            results = new ArrayList<>(operations.size());
+            completed = new ArrayList<>(operations.size());
+            for (BatchOperation operation : operations) {
+                Transaction transaction = null;
+                try {
+                    // Converting the amount (e.g. out of range) fails before the balance is touched
+                    transaction = new Transaction(accountNumber, operation.getTransactionType(),
+                            operation.getAmount(), operation.getDescription());
+                    sequence = applyJournaled(account, transaction);
+                } catch (RuntimeException e) {
+                    if (transaction != null) {
+                        transaction.markFailed();
+                    }
+                    failures++;
+                    results.add(BatchResult.failed(operation, transaction, e.getMessage()));
+                    continue;
+                }
+                completed.add(transaction);
+                results.add(BatchResult.succeeded(operation, transaction));
+            }
+            ledger.appendAll(accountNumber, completed, failures);
+            if (sequence > 0) {
+                ledger.markJournaled(accountNumber, sequence);
+            }
+        } finally {
+            lock.unlock();
         }
+        journal.awaitDurable(sequence);
 
-        // Записываем транзакцию списания
-        Transaction withdrawal = recordWithdrawal(fromAccount, amount,
-                "Transfer to " + toAccount.getAccountNumber() + ": " + description);
+        EventLog.emit(EventType.BATCH_APPLIED, accountNumber, completed.size(), failures, account.getBalance());
+        return results;
+    }
+
+    // One operation per account, operations.get(i) applying to accounts.get(i): each account's
+    // posting happens under its own lock, and the whole batch waits for durability once
+    public List<BatchResult> recordPostings(List<Account> accounts, List<BatchOperation> operations) {
+        return recordPostings(accounts, operations, LedgerRecord::transaction);
+    }
 
-        // Записываем транзакцию зачисления
-        Transaction deposit = recordDeposit(toAccount, amount,
-                "Transfer from " + fromAccount.getAccountNumber() + ": " + description);
+    // The same with the journal record of each posting built by the caller, for postings that
+    // must reach the journal together with state of their own
+    public List<BatchResult> recordPostings(List<Account> accounts, List<BatchOperation> operations,
+                                            Function<Transaction, LedgerRecord> journalRecord) {
+        if (accounts.size() != operations.size()) {
+            throw new IllegalArgumentException("Expected one operation per account");
+        }
+        List<BatchResult> results = new ArrayList<>(operations.size());
+        long lastSequence = 0;
+
+        for (int i = 0; i < operations.size(); i++) {
+            Account account = accounts.get(i);
+            BatchOperation operation = operations.get(i);
+            String accountNumber = account.getAccountNumber();
+            Transaction transaction;
+            try {
+                transaction = new Transaction(accountNumber, operation.getTransactionType(),
+                        operation.getAmount(), operation.getDescription());
+            } catch (RuntimeException e) {
+                ledger.recordFailure(accountNumber);
+                results.add(BatchResult.failed(operation, null, e.getMessage()));
+                continue;
+            }
 
-        System.out.println("✅ Transfer completed: $" + amount + " from " +
-                fromAccount.getAccountNumber() + " to " + toAccount.getAccountNumber());
+            ReentrantLock lock = ledger.lockFor(accountNumber);
+            lock.lock();
+            try {
+                long sequence = applyJournaled(account, transaction, journalRecord);
+                ledger.append(accountNumber, transaction);
+                ledger.markJournaled(accountNumber, sequence);
+                lastSequence = Math.max(lastSequence, sequence);
+                results.add(BatchResult.succeeded(operation, transaction));
+            } catch (RuntimeException e) {
+                transaction.markFailed();
+                ledger.recordFailure(accountNumber);
+                results.add(BatchResult.failed(operation, transaction, e.getMessage()));
+            } finally {
+                lock.unlock();
+            }
+        }
+        journal.awaitDurable(lastSequence);
+        return results;
     }
 
-    public Transaction recordInvestmentReturn(Account account, BigDecimal returns, String description) {
-        Transaction transaction = new Transaction(
-                account.getAccountNumber(),
-                Transaction.TransactionType.INVESTMENT,
-                returns,
-                description
-        );
+    // Applies the transaction and journals it; the caller holds the account lock. If the journal
+    // refuses the record, the balance change is reversed through the path that applied it, so
+    // a transaction is either in both the balance and the journal or in neither.
+    private long applyJournaled(Account account, Transaction transaction) {
+        return applyJournaled(account, transaction, LedgerRecord::transaction);
+    }
 
+    private long applyJournaled(Account account, Transaction transaction,
+                                Function<Transaction, LedgerRecord> journalRecord) {
+        BalanceCell cell = account.getBalanceCell();
+        long usedBefore = cell == null ? 0 : cell.getUsedOverdraft();
+        BigDecimal amount = transaction.getAmount();
+        operationFor(account, transaction.getType()).accept(amount);
+        transaction.markCompleted();
+        transaction.setBalanceAfter(account.getBalance());
         try {
-            BigDecimal balanceBefore = account.getBalance();
-            account.deposit(returns);
-            transaction.markCompleted();
-            transaction.setBalanceAfter(account.getBalance());
-
-            addTransaction(account.getAccountNumber(), transaction);
+            return journal.append(journalRecord.apply(transaction));
+        } catch (RuntimeException e) {
+            long drawn = cell == null ? 0 : cell.getUsedOverdraft() - usedBefore;
+            reverse(account, transaction.getType(), amount, drawn);
+            throw e;
+        }
+    }
 
-            System.out.println("✅ Investment return recorded: " + description + " - $" + returns +
-                    " | Balance: $" + balanceBefore + " → $" + account.getBalance());
+    private void reverse(Account account, Transaction.TransactionType type, BigDecimal amount, long drawnOnOverdraft) {
+        switch (type) {
+            case WITHDRAWAL:
+            case FEE:
+                account.reverseWithdrawal(amount, Money.ofMinor(drawnOnOverdraft).toBigDecimal());
+                break;
+            case INVESTMENT:
+                if (account.getBaseAccount() instanceof InvestmentAccount) {
+                    ((InvestmentAccount) account.getBaseAccount()).applyInvestmentReturns(amount.negate());
+                    break;
+                }
+                account.reverseDeposit(amount);
+                break;
+            default:
+                account.reverseDeposit(amount);
+                break;
+        }
+    }
 
-        } catch (Exception e) {
-            transaction.markFailed();
-            System.err.println("❌ Investment return failed: " + e.getMessage());
-            throw e;
+    private Consumer<BigDecimal> operationFor(Account account, Transaction.TransactionType type) {
+        switch (type) {
+            case DEPOSIT:
+            case DIVIDEND:
+            case INTEREST:
+                return account::deposit;
+            case INVESTMENT:
+                if (account.getBaseAccount() instanceof InvestmentAccount) {
+                    return ((InvestmentAccount) account.getBaseAccount())::applyInvestmentReturns;
+                }
+                return account::deposit;
+            case WITHDRAWAL:
+            case FEE:
+                return account::withdraw;
+            default:
+                throw new IllegalArgumentException("Unsupported transaction type: " + type);
         }
+    }
 
-        return transaction;
+    // Re-applies a journaled transaction during recovery: no journaling, no console output
+    public void restore(Account account, LedgerRecord record) {
+        Transaction transaction = new Transaction(record.getTransactionId(), account.getAccountNumber(),
+                record.getTransactionType(), record.getAmount().toBigDecimal(), record.getText(),
+                record.getTimestamp());
+        reapply(account, transaction, record.getSequence());
     }
 
-    public Transaction recordFee(Account account, BigDecimal fee, String description) {
-        Transaction transaction = new Transaction(
-                account.getAccountNumber(),
-                Transaction.TransactionType.FEE,
-                fee,
-                description
-        );
+    // Re-applies a posting loaded from the database; its journal sequence belongs to the
+    // process that wrote it, so the account's journal position is left alone
+    public void restore(Account account, Transaction transaction) {
+        reapply(account, transaction, 0);
+    }
 
+    private void reapply(Account account, Transaction transaction, long sequence) {
+        ReentrantLock lock = ledger.lockFor(account.getAccountNumber());
+        lock.lock();
         try {
-            BigDecimal balanceBefore = account.getBalance();
-            account.withdraw(fee);
+            operationFor(account, transaction.getType()).accept(transaction.getAmount());
             transaction.markCompleted();
             transaction.setBalanceAfter(account.getBalance());
+            ledger.append(account.getAccountNumber(), transaction);
+            if (sequence > 0) {
+                ledger.markJournaled(account.getAccountNumber(), sequence);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
 
-            addTransaction(account.getAccountNumber(), transaction);
+    // After a snapshot only one leg may still be missing, so each leg is applied separately
+    public void restoreTransfer(Account fromAccount, Account toAccount, LedgerRecord record,
+                                boolean applyWithdrawal, boolean applyDeposit) {
+        String fromNumber = fromAccount.getAccountNumber();
+        String toNumber = toAccount.getAccountNumber();
+        BigDecimal amount = record.getAmount().toBigDecimal();
+        Transaction withdrawal = new Transaction(record.getTransactionId(), fromNumber,
+                Transaction.TransactionType.WITHDRAWAL, amount,
+                "Transfer to " + toNumber + ": " + record.getText(), record.getTimestamp());
+        Transaction deposit = new Transaction(record.getCounterpartyTransactionId(), toNumber,
+                Transaction.TransactionType.DEPOSIT, amount,
+                "Transfer from " + fromNumber + ": " + record.getText(), record.getTimestamp());
+
+        boolean fromFirst = fromNumber.compareTo(toNumber) < 0;
+        ReentrantLock firstLock = ledger.lockFor(fromFirst ? fromNumber : toNumber);
+        ReentrantLock secondLock = ledger.lockFor(fromFirst ? toNumber : fromNumber);
+        firstLock.lock();
+        try {
+            secondLock.lock();
+            try {
+                if (applyWithdrawal && applyDeposit) {
+                    applyTransferLegs(fromAccount, toAccount, amount);
+                } else if (applyWithdrawal) {
+                    fromAccount.withdraw(amount);
+                } else if (applyDeposit) {
+                    toAccount.deposit(amount);
+                }
+                if (applyWithdrawal) {
+                    withdrawal.markCompleted();
+                    withdrawal.setBalanceAfter(fromAccount.getBalance());
+                    ledger.append(fromNumber, withdrawal);
+                    ledger.markJournaled(fromNumber, record.getSequence());
+                }
+                if (applyDeposit) {
+                    deposit.markCompleted();
+                    deposit.setBalanceAfter(toAccount.getBalance());
+                    ledger.append(toNumber, deposit);
+                    ledger.markJournaled(toNumber, record.getSequence());
+                }
+            } finally {
+                secondLock.unlock();
+            }
+        } finally {
+            firstLock.unlock();
+        }
+    }
 
-            System.out.println("💸 Fee recorded: " + description + " - $" + fee +
-                    " | Balance: $" + balanceBefore + " → $" + account.getBalance());
+    // Lock under which an account's balance, ledger entry and journal position change together
+    public ReentrantLock lockFor(String accountNumber) {
+        return ledger.lockFor(accountNumber);
+    }
 
-        } catch (Exception e) {
-            transaction.markFailed();
-            System.err.println("❌ Fee charge failed: " + e.getMessage());
-            throw e;
-        }
+    public long getLastJournaledSequence(String accountNumber) {
+        return ledger.lastJournaledSequence(accountNumber);
+    }
 
-        return transaction;
+    public void markJournaled(String accountNumber, long sequence) {
+        ledger.markJournaled(accountNumber, sequence);
     }
 
     public List<Transaction> getTransactionHistory(String accountNumber) {
-        return accountTransactions.getOrDefault(accountNumber, new ArrayList<>());
+        return ledger.snapshot(accountNumber);
+    }
+
+    public List<Transaction> getTransactionHistory(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        return ledger.range(accountNumber, from, to);
+    }
+
+    public void forEachTransaction(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                   TransactionLedger.TransactionVisitor visitor) throws IOException {
+        ledger.forEachInRange(accountNumber, from, to, visitor);
     }
 
     public BigDecimal getAccountBalance(String accountNumber) {
-        List<Transaction> transactions = getTransactionHistory(accountNumber);
-        return transactions.stream()
-                .filter(t -> t.getStatus() == Transaction.TransactionStatus.COMPLETED)
-                .map(t -> {
-                    switch (t.getType()) {
-                        case DEPOSIT:
-                        case INVESTMENT:
-                        case DIVIDEND:
-                            return t.getAmount();
-                        case WITHDRAWAL:
-                        case FEE:
-                            return t.getAmount().negate();
-                        default:
-                            return BigDecimal.ZERO;
-                    }
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return ledger.projection(accountNumber).getBalance().toBigDecimal();
+    }
+
+    public AccountProjection getAccountProjection(String accountNumber) {
+        return ledger.projection(accountNumber);
     }
 
     public Map<String, Object> getTransactionStatistics(String accountNumber) {
-        List<Transaction> transactions = getTransactionHistory(accountNumber);
+        AccountProjection projection = ledger.projection(accountNumber);
 
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalTransactions", transactions.size());
-
-        BigDecimal totalDeposits = transactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.DEPOSIT && t.getStatus() == Transaction.TransactionStatus.COMPLETED)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        stats.put("totalDeposits", totalDeposits);
-
-        BigDecimal totalWithdrawals = transactions.stream()
-                .filter(t -> t.getType() == Transaction.TransactionType.WITHDRAWAL && t.getStatus() == Transaction.TransactionStatus.COMPLETED)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        stats.put("totalWithdrawals", totalWithdrawals);
+        stats.put("totalTransactions", projection.getTotalTransactions());
+        stats.put("totalDeposits", projection.getTotalDeposits().toBigDecimal());
+        stats.put("totalWithdrawals", projection.getTotalWithdrawals().toBigDecimal());
+        stats.put("transactionsByType", projection.getCountsByType());
+        stats.put("failedTransactions", projection.getFailedTransactions());
+        stats.put("cancelledTransactions", projection.getCancelledTransactions());
 
         // Последняя транзакция
-        transactions.stream()
-                .max(Comparator.comparing(Transaction::getTimestamp))
-                .ifPresent(lastTransaction -> stats.put("lastTransaction", lastTransaction));
+        if (projection.getLastTransaction() != null) {
+            stats.put("lastTransaction", projection.getLastTransaction());
+        }
 
         return stats;
     }
 
     public void cancelTransaction(String transactionId) {
-        // Находим транзакцию во всех аккаунтах
-        for (List<Transaction> transactions : accountTransactions.values()) {
-            for (Transaction transaction : transactions) {
-                if (transaction.getTransactionId().equals(transactionId)) {
-                    transaction.markCancelled();
-                    System.out.println("❌ Transaction cancelled: " + transactionId);
-                    return;
-                }
-            }
+        Transaction transaction = ledger.findById(transactionId);
+        if (transaction == null) {
+            EventLog.emit(EventType.TRANSACTION_NOT_FOUND, transactionId);
+            return;
         }
-        System.err.println("❌ Transaction not found: " + transactionId);
+        ledger.cancel(transaction);
+        EventLog.emit(EventType.TRANSACTION_CANCELLED, transactionId);
     }
 
-    private void addTransaction(String accountNumber, Transaction transaction) {
-        accountTransactions.computeIfAbsent(accountNumber, k -> new ArrayList<>()).add(transaction);
+    public List<Transaction> cancelTransactions(Collection<String> transactionIds) {
+        List<Transaction> cancelled = new ArrayList<>(transactionIds.size());
+        List<String> missing = new ArrayList<>();
+
+        for (String transactionId : transactionIds) {
+            Transaction transaction = ledger.findById(transactionId);
+            if (transaction == null) {
+                missing.add(transactionId);
+            } else {
+                ledger.cancel(transaction);
+                cancelled.add(transaction);
+            }
+        }
+
+        EventLog.emit(EventType.TRANSACTIONS_CANCELLED, cancelled.size(), transactionIds.size());
+        if (!missing.isEmpty()) {
+            EventLog.emit(EventType.TRANSACTIONS_NOT_FOUND, missing);
+        }
+        return cancelled;
     }
 
     // Метод для очистки истории (для тестирования)
     public void clearTransactionHistory(String accountNumber) {
-        accountTransactions.remove(accountNumber);
-        System.out.println("🧹 Transaction history cleared for account: " + accountNumber);
+        ledger.clear(accountNumber);
+        EventLog.emit(EventType.HISTORY_CLEARED, accountNumber);
     }
 
     // Метод для получения всех транзакций (для администрирования)
     public Map<String, List<Transaction>> getAllTransactions() {
-        return new HashMap<>(accountTransactions);
+        return ledger.snapshotAll();
     }
 }
\ No newline at end of file
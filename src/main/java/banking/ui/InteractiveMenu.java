@@ -1,13 +1,16 @@
 package banking.ui;
 
 import banking.facade.BankingFacade;
+import banking.fx.CurrencyConverter;
 import banking.model.Customer;
+import banking.model.Money;
 import banking.model.Notification;
 import banking.account.Account;
 import banking.account.decorators.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
@@ -573,8 +576,8 @@ public class InteractiveMenu {
         }
 
         for (Account account : accounts) {
-            if (account instanceof OverdraftProtectionDecorator) {
-                OverdraftProtectionDecorator overdraftAccount = (OverdraftProtectionDecorator) account;
+            OverdraftProtectionDecorator overdraftAccount = account.getBenefit(OverdraftProtectionDecorator.class);
+            if (overdraftAccount != null) {
                 System.out.println("Account: " + account.getAccountNumber());
                 System.out.println("Overdraft limit: $" + overdraftAccount.getAvailableOverdraft());
                 System.out.println("Used: $" + overdraftAccount.getUsedOverdraft());
@@ -589,19 +592,29 @@ public class InteractiveMenu {
         System.out.println("Multi-currency operations");
 
         List<Account> accounts = bankingFacade.getCustomerAccountsByType(currentCustomerId, "Checking");
-        boolean hasCurrencyAccount = false;
-
+        List<Account> currencyAccounts = new ArrayList<>();
         for (Account account : accounts) {
-            if (account instanceof ForeignCurrencyDecorator) {
-                hasCurrencyAccount = true;
-                ForeignCurrencyDecorator currencyAccount = (ForeignCurrencyDecorator) account;
-                System.out.println("Account: " + account.getAccountNumber());
-                System.out.println("Supported currencies: " +
-                        String.join(", ", currencyAccount.getSupportedCurrencies().keySet()));
+            if (account.getBenefit(ForeignCurrencyDecorator.class) != null) {
+                currencyAccounts.add(account);
             }
         }
 
-        if (!hasCurrencyAccount) {
+        if (!currencyAccounts.isEmpty()) {
+            // One rate version for the whole screen, every balance in every currency in one pass
+            CurrencyConverter converter = currencyAccounts.get(0).getBenefit(ForeignCurrencyDecorator.class)
+                    .getExchangeRateTable().snapshot().getConverter();
+            int[] currencyIds = new int[converter.size()];
+            for (int c = 0; c < currencyIds.length; c++) {
+                currencyIds[c] = c;
+            }
+            long[][] balances = converter.convertBalances(currencyAccounts, currencyIds);
+            for (int a = 0; a < balances.length; a++) {
+                System.out.println("Account: " + currencyAccounts.get(a).getAccountNumber());
+                for (int c = 0; c < currencyIds.length; c++) {
+                    System.out.println("  " + converter.codeOf(c) + ": " + Money.ofMinor(balances[a][c]));
+                }
+            }
+        } else {
             showInfo("Multi-currency available for checking accounts with balance from $5,000");
         }
 
@@ -616,9 +629,9 @@ public class InteractiveMenu {
         boolean hasPriorityAccount = false;
 
         for (Account account : accounts) {
-            if (account instanceof PriorityBankingDecorator) {
+            PriorityBankingDecorator priorityAccount = account.getBenefit(PriorityBankingDecorator.class);
+            if (priorityAccount != null) {
                 hasPriorityAccount = true;
-                PriorityBankingDecorator priorityAccount = (PriorityBankingDecorator) account;
                 System.out.println("Account: " + account.getAccountNumber());
                 System.out.println("Free transactions: " + priorityAccount.getRemainingFreeTransactions());
                 System.out.println("Preferential rate: " +
@@ -641,9 +654,9 @@ public class InteractiveMenu {
         boolean hasRewardsAccount = false;
 
         for (Account account : accounts) {
-            if (account instanceof RewardPointsDecorator) {
+            RewardPointsDecorator rewardsAccount = account.getBenefit(RewardPointsDecorator.class);
+            if (rewardsAccount != null) {
                 hasRewardsAccount = true;
-                RewardPointsDecorator rewardsAccount = (RewardPointsDecorator) account;
                 System.out.println("Account: " + account.getAccountNumber());
                 System.out.println("Points earned: " + rewardsAccount.getRewardPoints());
                 System.out.println("Rate: " + rewardsAccount.getPointsPerDollar() + " points per $1");
@@ -780,8 +793,9 @@ public class InteractiveMenu {
     private void runDemo() {
         System.out.println();
         System.out.println("Starting system demonstration...");
-        banking.Application demoApp = new banking.Application();
-        demoApp.runQuickDemo();
+        try (banking.Application demoApp = new banking.Application()) {
+            demoApp.runQuickDemo();
+        }
         pressAnyKeyToContinue();
     }
 
@@ -816,6 +830,7 @@ public class InteractiveMenu {
         System.out.println("|         Thank you for using the system!             |");
         System.out.println("|                 See you again!                      |");
         System.out.println("========================================================");
+        bankingFacade.close();
         System.exit(0);
     }
 
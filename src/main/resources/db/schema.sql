@@ -0,0 +1,48 @@
+CREATE TABLE IF NOT EXISTS customers (
+    customer_id   VARCHAR(64) PRIMARY KEY,
+    name          VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    date_of_birth DATE
+);
+
+-- state holds the account and its decorators as written by AccountCodec;
+-- ledger_balance is the opening balance plus every journaled posting
+CREATE TABLE IF NOT EXISTS accounts (
+    account_number VARCHAR(64) PRIMARY KEY,
+    customer_id    VARCHAR(64) NOT NULL REFERENCES customers (customer_id),
+    account_type   VARCHAR(64) NOT NULL,
+    benefits       VARCHAR(1024) NOT NULL,
+    state          BYTEA NOT NULL,
+    ledger_balance NUMERIC(19, 2) NOT NULL,
+    closed         BOOLEAN NOT NULL DEFAULT FALSE,
+    updated_at     TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    transaction_id   VARCHAR(64) PRIMARY KEY,
+    account_number   VARCHAR(64) NOT NULL REFERENCES accounts (account_number),
+    type             VARCHAR(32) NOT NULL,
+    amount           NUMERIC(19, 2) NOT NULL,
+    description      VARCHAR(1024),
+    created_at       TIMESTAMP NOT NULL,
+    journal_sequence BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS transactions_account_time ON transactions (account_number, created_at);
+
+-- Interest accrued and not yet posted, as whole cents and a remainder in
+-- 1/(365 * 1,000,000) of a cent, through the last accrued date
+CREATE TABLE IF NOT EXISTS interest_accruals (
+    account_number  VARCHAR(64) PRIMARY KEY REFERENCES accounts (account_number),
+    accrued_through DATE NOT NULL,
+    pending_cents   BIGINT NOT NULL,
+    remainder       BIGINT NOT NULL
+);
+
+-- Changes the database refused for their data, recorded here by the write-behind writer
+-- so that it can carry on with the rest
+CREATE TABLE IF NOT EXISTS write_rejects (
+    rejected_at TIMESTAMP NOT NULL,
+    item        TEXT NOT NULL,
+    error       TEXT
+);
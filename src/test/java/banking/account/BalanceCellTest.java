@@ -0,0 +1,199 @@
+package banking.account;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceCellTest {
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int OPERATIONS = 200_000;
+
+    @Test
+    void withdrawTakesPositiveBalanceBeforeOverdraft() {
+        BalanceCell cell = new BalanceCell(3_000);
+        cell.openOverdraft(10_000, 0);
+
+        assertEquals(7_000, cell.withdraw(10_000));
+        assertEquals(0, cell.getBalance());
+        assertEquals(7_000, cell.getUsedOverdraft());
+        assertEquals(-1, cell.withdraw(3_001));
+        assertEquals(7_000, cell.getUsedOverdraft());
+    }
+
+    @Test
+    void overflowingChangesThrowAndLeaveTheStateAlone() {
+        BalanceCell cell = new BalanceCell(Long.MAX_VALUE - 100);
+        BalanceCell.State before = cell.snapshot();
+
+        assertThrows(ArithmeticException.class, () -> cell.deposit(101));
+        assertSame(before, cell.snapshot());
+        cell.deposit(100);
+        assertEquals(Long.MAX_VALUE, cell.getBalance());
+
+        BalanceCell floor = new BalanceCell(Long.MIN_VALUE + 100, Long.MIN_VALUE);
+        assertThrows(ArithmeticException.class, () -> floor.withdraw(101));
+        assertThrows(ArithmeticException.class, () -> floor.adjust(-101));
+        assertEquals(Long.MIN_VALUE + 100, floor.getBalance());
+    }
+
+    @Test
+    void withoutFacilityWithdrawStopsAtMinimumBalance() {
+        BalanceCell cell = new BalanceCell(1_000, -500);
+
+        assertEquals(0, cell.withdraw(1_500));
+        assertEquals(-500, cell.getBalance());
+        assertEquals(-1, cell.withdraw(1));
+    }
+
+    @Test
+    void releaseReturnsMoneyWhereItCameFrom() {
+        BalanceCell cell = new BalanceCell(2_000);
+        cell.openOverdraft(5_000, 1_000);
+
+        BalanceCell.Reservation reservation = cell.reserve(3_000);
+        assertNotNull(reservation);
+        assertEquals(1_000, reservation.getFromOverdraft());
+        assertEquals(0, cell.getBalance());
+        assertEquals(2_000, cell.getUsedOverdraft());
+
+        cell.release(reservation);
+        BalanceCell.State state = cell.snapshot();
+        assertEquals(2_000, state.getBalance());
+        assertEquals(1_000, state.getUsedOverdraft());
+        assertEquals(0, state.getReserved());
+        assertThrows(IllegalStateException.class, () -> cell.release(reservation));
+    }
+
+    @Test
+    void overdraftRepaidWhileReservedComesBackAsBalance() {
+        BalanceCell cell = new BalanceCell(0);
+        cell.openOverdraft(5_000, 0);
+
+        BalanceCell.Reservation reservation = cell.reserve(1_000);
+        assertTrue(cell.repayOverdraft(600));
+        cell.release(reservation);
+
+        assertEquals(600, cell.getBalance());
+        assertEquals(0, cell.getUsedOverdraft());
+    }
+
+    @Test
+    void concurrentOperationsConserveMoneyAndRespectLimits() throws InterruptedException {
+        long initial = 100_000;
+        BalanceCell cell = new BalanceCell(initial);
+        cell.openOverdraft(50_000, 0);
+
+        LongAdder deposited = new LongAdder();
+        LongAdder spent = new LongAdder();
+        LongAdder repaid = new LongAdder();
+        AtomicLong violations = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        // Every state any thread publishes must be within the limits
+        Thread observer = new Thread(() -> {
+            while (running.get()) {
+                BalanceCell.State state = cell.snapshot();
+                if (state.getUsedOverdraft() < 0 || state.getUsedOverdraft() > state.getOverdraftLimit()
+                        || state.getReserved() < 0 || state.getBalance() < 0) {
+                    violations.incrementAndGet();
+                }
+            }
+        });
+        observer.start();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS; i++) {
+                long amount = 1 + random.nextInt(5_000);
+                switch (random.nextInt(4)) {
+                    case 0 -> {
+                        cell.deposit(amount);
+                        deposited.add(amount);
+                    }
+                    case 1 -> {
+                        if (cell.withdraw(amount) >= 0) {
+                            spent.add(amount);
+                        }
+                    }
+                    case 2 -> {
+                        BalanceCell.Reservation reservation = cell.reserve(amount);
+                        if (reservation != null && random.nextBoolean()) {
+                            cell.commit(reservation);
+                            spent.add(amount);
+                        } else if (reservation != null) {
+                            cell.release(reservation);
+                        }
+                    }
+                    default -> {
+                        long repayment = Math.min(cell.getUsedOverdraft(), amount);
+                        if (repayment > 0 && cell.repayOverdraft(repayment)) {
+                            repaid.add(repayment);
+                        }
+                    }
+                }
+            }
+        });
+        running.set(false);
+        observer.join();
+
+        // Repaying overdraft lowers the used overdraft without touching the balance
+        BalanceCell.State state = cell.snapshot();
+        assertEquals(initial + deposited.sum() - spent.sum() + repaid.sum(),
+                state.getBalance() - state.getUsedOverdraft());
+        assertEquals(0, state.getReserved());
+        assertEquals(0, violations.get());
+    }
+
+    @Test
+    void concurrentWithdrawalsNeverPassTheLimit() throws InterruptedException {
+        long initial = 100_000;
+        long limit = 200_000;
+        BalanceCell cell = new BalanceCell(initial);
+        cell.openOverdraft(limit, 0);
+
+        LongAdder withdrawn = new LongAdder();
+        runConcurrently(() -> {
+            while (cell.withdraw(7) >= 0) {
+                withdrawn.add(7);
+            }
+        });
+
+        // Whatever came out came out of the balance or the facility, and nothing more
+        BalanceCell.State state = cell.snapshot();
+        assertEquals(initial + limit, withdrawn.sum() + state.getBalance() + (limit - state.getUsedOverdraft()));
+        assertTrue(state.getUsedOverdraft() <= limit);
+        assertTrue(limit - state.getUsedOverdraft() < 7);
+    }
+
+    static void runConcurrently(Runnable task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertNull(failure.get(), () -> "Worker failed: " + failure.get());
+    }
+}
@@ -0,0 +1,104 @@
+package banking.account.decorators;
+
+import banking.account.Account;
+import banking.account.BalanceCell;
+import banking.account.CheckingAccount;
+import banking.account.SavingsAccount;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverdraftProtectionDecoratorTest {
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    @Test
+    void withdrawalDrawsOnFacilityBeyondBalance() {
+        Account account = OverdraftProtectionDecorator.attach(new SavingsAccount("SAV-1", amount("300")), amount("500"));
+
+        account.withdraw(amount("450"));
+
+        OverdraftProtectionDecorator overdraft = account.getBenefit(OverdraftProtectionDecorator.class);
+        assertEquals(amount("0.00"), account.getBalance());
+        assertEquals(amount("150.00"), overdraft.getUsedOverdraft());
+        assertEquals(amount("350.00"), overdraft.getAvailableOverdraft());
+        assertThrows(IllegalArgumentException.class, () -> account.withdraw(amount("350.01")));
+        assertEquals(amount("150.00"), overdraft.getUsedOverdraft());
+    }
+
+    @Test
+    void benefitsBelowTheDecoratorSeeWithdrawals() {
+        TaxOptimizerDecorator tax = new TaxOptimizerDecorator(new SavingsAccount("SAV-2", amount("100")), amount("0.20"));
+        Account account = OverdraftProtectionDecorator.attach(tax, amount("500"));
+
+        account.withdraw(amount("200"));
+        CompiledAccount.compile(account).withdraw(amount("100"));
+
+        // 10% of each withdrawal is taxable, 20% of that saved
+        assertEquals(0, tax.getTotalTaxSavings().compareTo(amount("6")));
+        assertEquals(amount("200.00"), account.getBenefit(OverdraftProtectionDecorator.class).getUsedOverdraft());
+    }
+
+    @Test
+    void attachRestoresUsedOverdraft() {
+        Account account = OverdraftProtectionDecorator.attach(new CheckingAccount("CHK-1", BigDecimal.ZERO),
+                amount("2000"), amount("750"));
+
+        BalanceCell.State state = account.getBalanceCell().snapshot();
+        assertEquals(200_000, state.getOverdraftLimit());
+        assertEquals(75_000, state.getUsedOverdraft());
+    }
+
+    @Test
+    void concurrentWithdrawalsConserveBalancePlusOverdraft() throws InterruptedException {
+        BigDecimal balance = amount("1000");
+        BigDecimal limit = amount("2000");
+        Account account = OverdraftProtectionDecorator.attach(new CheckingAccount("CHK-2", balance), limit);
+        Account compiled = CompiledAccount.compile(account);
+
+        LongAdder withdrawnCents = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            // Half the threads go through the nested chain, half through the compiled account
+            Account target = t % 2 == 0 ? account : compiled;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (true) {
+                    try {
+                        target.withdraw(amount("0.01"));
+                        withdrawnCents.increment();
+                    } catch (IllegalArgumentException e) {
+                        return;
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        OverdraftProtectionDecorator overdraft = account.getBenefit(OverdraftProtectionDecorator.class);
+        BigDecimal withdrawn = BigDecimal.valueOf(withdrawnCents.sum(), 2);
+        assertEquals(0, withdrawn.add(account.getBalance()).add(overdraft.getAvailableOverdraft())
+                .compareTo(balance.add(limit)));
+        assertEquals(0, account.getBalance().signum());
+        assertEquals(0, overdraft.getUsedOverdraft().compareTo(limit));
+    }
+
+    private static BigDecimal amount(String value) {
+        return new BigDecimal(value);
+    }
+}
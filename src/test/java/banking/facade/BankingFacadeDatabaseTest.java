@@ -0,0 +1,151 @@
+package banking.facade;
+
+import banking.account.Account;
+import banking.account.decorators.OverdraftProtectionDecorator;
+import banking.account.decorators.RewardPointsDecorator;
+import banking.account.decorators.TaxOptimizerDecorator;
+import banking.model.BatchOperation;
+import banking.model.Money;
+import banking.model.Transaction;
+import banking.repository.BankRepository;
+import banking.repository.WriteBehindRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Runs against -Dbanking.test.db.url (with .username and .password) when set, otherwise
+// against an embedded PostgreSQL, which cannot be started by root
+class BankingFacadeDatabaseTest {
+    private static EmbeddedPostgres postgres;
+    private static String url;
+    private static String username;
+    private static String password;
+
+    private BankRepository repository;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        url = System.getProperty("banking.test.db.url");
+        username = System.getProperty("banking.test.db.username", "postgres");
+        password = System.getProperty("banking.test.db.password", "");
+        if (url == null) {
+            assumeTrue(!"root".equals(System.getProperty("user.name")),
+                    "Embedded PostgreSQL refuses to run as root; set banking.test.db.url instead");
+            postgres = EmbeddedPostgres.start();
+            url = postgres.getJdbcUrl("postgres", "postgres");
+        }
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void createSchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS write_rejects, interest_accruals, transactions, accounts, customers");
+        }
+        repository = BankRepository.connect(url, username, password, 4);
+        repository.createSchema();
+    }
+
+    @AfterEach
+    void closeRepository() {
+        repository.close();
+    }
+
+    @Test
+    void postingsSurviveFlushAndLoad() throws SQLException {
+        Account savings;
+        Account checking;
+        Account investment;
+        try (WriteBehindRepository store = new WriteBehindRepository(repository);
+             BankingFacade facade = new BankingFacade(store, store)) {
+            savings = facade.openAccountWithBenefits("CUST-1", "savings", amount("1500"));
+            checking = facade.openAccountWithBenefits("CUST-1", "checking", amount("100"));
+            investment = facade.openAccountWithBenefits("CUST-2", "investment", amount("2000"));
+
+            facade.deposit(savings.getAccountNumber(), amount("250"), "salary");
+            facade.withdraw(checking.getAccountNumber(), amount("600"), "rent");
+            facade.transferBetweenAccounts(savings.getAccountNumber(), checking.getAccountNumber(),
+                    amount("300"), "top-up");
+            facade.applyInvestmentReturns(investment.getAccountNumber(), amount("120.50"));
+            facade.executeBatch(List.of(
+                    BatchOperation.withdrawal(investment.getAccountNumber(), amount("400"), "fees"),
+                    BatchOperation.deposit(savings.getAccountNumber(), amount("75.25"), "refund")));
+            facade.accrueDailyInterest(LocalDate.of(2026, 10, 1));
+            facade.accrueDailyInterest(LocalDate.of(2026, 10, 2));
+            store.flush();
+        }
+
+        try (BankingFacade loaded = new BankingFacade()) {
+            loaded.loadFrom(repository);
+
+            assertEquals(3, loaded.getTotalManagedAccounts());
+            assertSameAccount(savings, loaded.getCustomerAccountsByType("CUST-1", "savings").get(0));
+            assertSameAccount(checking, loaded.getCustomerAccountsByType("CUST-1", "checking").get(0));
+            assertSameAccount(investment, loaded.getCustomerAccountsByType("CUST-2", "investment").get(0));
+
+            Account loadedChecking = loaded.getCustomerAccountsByType("CUST-1", "checking").get(0);
+            assertEquals(checking.getBenefit(OverdraftProtectionDecorator.class).getUsedOverdraft(),
+                    loadedChecking.getBenefit(OverdraftProtectionDecorator.class).getUsedOverdraft());
+            assertEquals(savings.getBenefit(RewardPointsDecorator.class).getRewardPoints(),
+                    loaded.getCustomerAccountsByType("CUST-1", "savings").get(0)
+                            .getBenefit(RewardPointsDecorator.class).getRewardPoints());
+            assertEquals(0, investment.getBenefit(TaxOptimizerDecorator.class).getTotalTaxSavings()
+                    .compareTo(loaded.getCustomerAccountsByType("CUST-2", "investment").get(0)
+                            .getBenefit(TaxOptimizerDecorator.class).getTotalTaxSavings()));
+            String statement = loaded.generateAccountStatement(savings.getAccountNumber(),
+                    LocalDate.now().minusDays(1), LocalDate.now().plusDays(1));
+            assertTrue(statement.contains("salary") && statement.contains("top-up") && statement.contains("refund"),
+                    statement);
+            assertThrows(IllegalStateException.class, () -> loaded.accrueDailyInterest(LocalDate.of(2026, 10, 2)));
+        }
+    }
+
+    @Test
+    void refusedChangeIsRejectedAndLaterChangesAreWritten() throws SQLException {
+        String accountNumber;
+        try (WriteBehindRepository store = new WriteBehindRepository(repository);
+             BankingFacade facade = new BankingFacade(store, store)) {
+            accountNumber = facade.openAccountWithBenefits("CUST-1", "savings", amount("100")).getAccountNumber();
+            // Longer than the description column, so the database refuses the row on every retry
+            facade.deposit(accountNumber, amount("10"), "x".repeat(2_000));
+            facade.deposit(accountNumber, amount("20"), "salary");
+            store.flush();
+            assertEquals(1, store.getRejectedCount());
+        }
+
+        assertEquals(List.of("salary"), repository.loadTransactions(accountNumber).stream()
+                .map(Transaction::getDescription).toList());
+        assertEquals(Money.of(amount("120")), repository.loadLedgerBalances().get(accountNumber));
+    }
+
+    private static void assertSameAccount(Account expected, Account actual) {
+        assertEquals(expected.getAccountNumber(), actual.getAccountNumber());
+        assertEquals(expected.getBalance(), actual.getBalance(), expected.getAccountNumber());
+    }
+
+    private static BigDecimal amount(String value) {
+        return new BigDecimal(value);
+    }
+}
@@ -0,0 +1,97 @@
+package banking.facade;
+
+import banking.account.Account;
+import banking.model.BatchOperation;
+import banking.model.BatchResult;
+import banking.persistence.SnapshotStore;
+import banking.persistence.WriteAheadLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankingFacadeTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void closeDeliversPendingNotificationsAndStopsItsThreads() {
+        long sweepersBefore = alertSweepers();
+        BankingFacade facade = new BankingFacade();
+        String accountNumber = facade.openAccountWithBenefits("CUST-1", "savings", new BigDecimal("500"))
+                .getAccountNumber();
+        facade.deposit(accountNumber, new BigDecimal("20000"), "bonus");
+        assertEquals(sweepersBefore + 1, alertSweepers());
+
+        facade.close();
+
+        assertEquals(sweepersBefore, alertSweepers());
+        assertTrue(facade.getNotificationService().getDeliveredCount() >= 2);
+        assertEquals(0, facade.getNotificationService().getQueueDepth());
+    }
+
+    @Test
+    void batchAppliesATransferBetweenTheOperationsAroundIt() {
+        try (BankingFacade facade = new BankingFacade()) {
+            Account first = facade.openAccountWithBenefits("CUST-1", "savings", new BigDecimal("100"));
+            Account second = facade.openAccountWithBenefits("CUST-2", "savings", new BigDecimal("100"));
+            String a = first.getAccountNumber();
+            String b = second.getAccountNumber();
+
+            // The transfer needs the deposit before it, and the withdrawal needs the transfer
+            List<BatchResult> results = facade.executeBatch(List.of(
+                    BatchOperation.deposit(a, new BigDecimal("500"), "salary"),
+                    BatchOperation.transfer(a, b, new BigDecimal("550"), "move"),
+                    BatchOperation.withdrawal(b, new BigDecimal("600"), "rent")));
+
+            assertTrue(results.stream().allMatch(BatchResult::isSuccess), results.toString());
+            assertEquals(new BigDecimal("50.00"), first.getBalance());
+            assertEquals(new BigDecimal("50.00"), second.getBalance());
+        }
+    }
+
+    @Test
+    void accruedInterestSurvivesSnapshotAndRecovery() throws IOException {
+        SnapshotStore snapshots = new SnapshotStore(directory.resolve("snapshots"));
+        String accountNumber;
+        try (WriteAheadLog wal = new WriteAheadLog(directory.resolve("wal"), WriteAheadLog.Durability.GROUP_COMMIT);
+             BankingFacade facade = new BankingFacade(wal)) {
+            accountNumber = facade.openAccountWithBenefits("CUST-1", "savings", new BigDecimal("100")).getAccountNumber();
+            accrueDaily(facade, LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 20));
+            facade.writeSnapshot(snapshots, wal);
+            // October's 12 cents are posted on the 31st; November's first ten days stay accrued
+            accrueDaily(facade, LocalDate.of(2026, 10, 21), LocalDate.of(2026, 11, 10));
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(directory.resolve("wal"), WriteAheadLog.Durability.GROUP_COMMIT);
+             BankingFacade recovered = new BankingFacade(wal)) {
+            recovered.recover(snapshots, wal);
+            Account account = recovered.getCustomerAccountsByType("CUST-1", "savings").get(0);
+            assertEquals(accountNumber, account.getAccountNumber());
+            assertEquals(new BigDecimal("100.12"), account.getBalance());
+
+            assertThrows(IllegalStateException.class, () -> recovered.accrueDailyInterest(LocalDate.of(2026, 11, 10)));
+            accrueDaily(recovered, LocalDate.of(2026, 11, 11), LocalDate.of(2026, 11, 30));
+            // The same 13 cents as without the restart: 12.34 for November and 0.74 carried from October
+            assertEquals(new BigDecimal("100.25"), account.getBalance());
+        }
+    }
+
+    private static void accrueDaily(BankingFacade facade, LocalDate from, LocalDate through) {
+        for (LocalDate date = from; !date.isAfter(through); date = date.plusDays(1)) {
+            facade.accrueDailyInterest(date);
+        }
+    }
+
+    private static long alertSweepers() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("alert-coalescer") && thread.isAlive())
+                .count();
+    }
+}
@@ -0,0 +1,142 @@
+package banking.importer;
+
+import banking.account.Account;
+import banking.facade.BankingFacade;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionImporterTest {
+    private static final String HEADER = "type,account,amount,counterparty,description";
+
+    @TempDir
+    Path directory;
+
+    private BankingFacade facade;
+    private Account first;
+    private Account second;
+
+    @BeforeEach
+    void openAccounts() {
+        facade = new BankingFacade();
+        first = facade.openAccountWithBenefits("CUST-1", "savings", amount("100"));
+        second = facade.openAccountWithBenefits("CUST-2", "savings", amount("100"));
+    }
+
+    @AfterEach
+    void closeFacade() {
+        facade.close();
+    }
+
+    @Test
+    void multiChunkFileWithHeaderCrlfAndNoFinalLineBreak() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        for (int i = 1; i <= 200; i++) {
+            lines.add("D," + first.getAccountNumber() + ",1.00,,deposit " + i);
+        }
+        Path input = write(lines, "\r\n", false);
+
+        // 64-byte chunks hold one or two lines, and 16-byte windows are smaller than any line
+        ImportReport report = importer(3, 64, 16).importFile(input, directory.resolve("rejects.txt"));
+
+        assertEquals(200, report.getRows());
+        assertEquals(200, report.getApplied());
+        assertEquals(0, report.getRejected());
+        assertEquals(amount("300.00"), first.getBalance());
+        assertTrue(Files.readAllLines(report.getRejectFile()).isEmpty());
+    }
+
+    @Test
+    void lineLongerThanTheWindowIsParsedWhole() throws IOException {
+        String description = "x".repeat(5_000);
+        String refused = "D," + first.getAccountNumber() + ",abc,," + description;
+        Path input = write(List.of(
+                "D," + first.getAccountNumber() + ",2.50,," + description,
+                refused,
+                "D," + first.getAccountNumber() + ",0.50,,short"), "\n", true);
+
+        ImportReport report = importer(1, 64, 16).importFile(input, directory.resolve("rejects.txt"));
+
+        assertEquals(2, report.getApplied());
+        assertEquals(amount("103.00"), first.getBalance());
+        assertEquals(List.of("2\tInvalid amount: abc\t" + refused),
+                Files.readAllLines(report.getRejectFile(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rejectsCarryTheirFileLineNumbersAcrossChunks() throws IOException {
+        String a = first.getAccountNumber();
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        for (int i = 2; i <= 120; i++) {
+            lines.add("D," + a + ",1.00,,deposit " + i);
+        }
+        lines.set(4, "D," + a + ",abc,,bad amount");
+        lines.set(19, "");
+        lines.set(36, "D,SAV-MISSING,1.00,,unknown account");
+        // Only the first line of the file can be a header
+        lines.set(79, HEADER);
+        lines.set(99, "W," + a + ",5000.00,,more than the balance");
+        Path input = write(lines, "\r\n", true);
+
+        ImportReport report = importer(4, 64, 32).importFile(input, directory.resolve("rejects.txt"));
+
+        List<String> rejects = Files.readAllLines(report.getRejectFile(), StandardCharsets.UTF_8);
+        assertEquals(4, rejects.size());
+        assertEquals("5\tInvalid amount: abc\tD," + a + ",abc,,bad amount", rejects.get(0));
+        assertEquals("37\tAccount not found: SAV-MISSING\tD,SAV-MISSING,1.00,,unknown account", rejects.get(1));
+        assertEquals("80\tInvalid amount: amount\t" + HEADER, rejects.get(2));
+        // Refused when applied rather than when parsed, and still numbered by its line
+        assertTrue(rejects.get(3).startsWith("100\t") && rejects.get(3).endsWith("\tW," + a + ",5000.00,,more than the balance"),
+                rejects.get(3));
+        // 119 lines after the header, one of them blank
+        assertEquals(118, report.getRows());
+        assertEquals(4, report.getRejected());
+        assertEquals(114, report.getApplied());
+        assertEquals(amount("214.00"), first.getBalance());
+    }
+
+    @Test
+    void transferIsAppliedBetweenTheOperationsAroundIt() throws IOException {
+        String a = first.getAccountNumber();
+        String b = second.getAccountNumber();
+        Path input = write(List.of(
+                "D," + a + ",500.00,,salary",
+                "T," + a + ",550.00," + b + ",move",
+                "W," + b + ",600.00,,rent",
+                "W," + a + ",50.00,,rest"), "\n", true);
+
+        // The deposit, transfer and withdrawals each land in chunks of their own
+        ImportReport report = importer(2, 16, 64).importFile(input, directory.resolve("rejects.txt"));
+
+        assertEquals(4, report.getApplied());
+        assertEquals(0, report.getRejected());
+        assertEquals(amount("0.00"), first.getBalance());
+        assertEquals(amount("50.00"), second.getBalance());
+    }
+
+    private TransactionImporter importer(int parallelism, long chunkSize, int windowSize) {
+        return new TransactionImporter(facade, ImportFormat.CSV, parallelism, chunkSize, windowSize);
+    }
+
+    private Path write(List<String> lines, String lineBreak, boolean finalLineBreak) throws IOException {
+        String text = String.join(lineBreak, lines) + (finalLineBreak ? lineBreak : "");
+        return Files.writeString(directory.resolve("import.csv"), text, StandardCharsets.UTF_8);
+    }
+
+    private static BigDecimal amount(String value) {
+        return new BigDecimal(value);
+    }
+}
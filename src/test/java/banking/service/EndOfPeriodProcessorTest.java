@@ -0,0 +1,130 @@
+package banking.service;
+
+import banking.account.Account;
+import banking.account.CheckingAccount;
+import banking.account.InvestmentAccount;
+import banking.account.SavingsAccount;
+import banking.account.decorators.PriorityBankingDecorator;
+import banking.persistence.LedgerJournal;
+import banking.persistence.LedgerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndOfPeriodProcessorTest {
+    private static final YearMonth PERIOD = YearMonth.of(2026, 9);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void chargesFeesAndPostsPreferentialInterest() throws IOException {
+        Account checking = new CheckingAccount("CHK-1", amount("100"));
+        Account savings = new SavingsAccount("SAV-1", amount("100"));
+        // Interest of 51.98 lifts the balance over the 25,000 waiver threshold
+        Account priority = new PriorityBankingDecorator(new InvestmentAccount("INV-1", amount("24950")));
+        TransactionService service = new TransactionService();
+
+        EndOfPeriodReport report = new EndOfPeriodProcessor(service, 2)
+                .run(List.of(checking, savings, priority), PERIOD, directory.resolve("eod.checkpoint"));
+
+        assertEquals(amount("95.00"), checking.getBalance());
+        assertEquals(amount("98.00"), savings.getBalance());
+        assertEquals(amount("25001.98"), priority.getBalance());
+        assertEquals(3, report.getAccountsProcessed());
+        assertEquals(2, report.getFeesCharged());
+        assertEquals(1, report.getFeesWaived());
+        assertEquals(1, report.getInterestPostings());
+    }
+
+    @Test
+    void rerunAfterRestartPostsNothingTwice() throws IOException {
+        Path checkpoint = directory.resolve("eod.checkpoint");
+        List<Account> accounts = List.of(new CheckingAccount("CHK-1", amount("100")),
+                new CheckingAccount("CHK-2", amount("100")));
+        new EndOfPeriodProcessor(new TransactionService(), 1).run(accounts, PERIOD, checkpoint);
+
+        // A restored process has the balances but not the history of the first run
+        EndOfPeriodReport report = new EndOfPeriodProcessor(new TransactionService(), 1)
+                .run(accounts, PERIOD, checkpoint);
+
+        assertEquals(0, report.getAccountsProcessed());
+        assertEquals(2, report.getAccountsSkipped());
+        assertEquals(amount("95.00"), accounts.get(0).getBalance());
+        assertEquals(amount("95.00"), accounts.get(1).getBalance());
+    }
+
+    @Test
+    void resumeProcessesExactlyTheAccountsNotDone() throws IOException {
+        Path checkpoint = directory.resolve("eod.checkpoint");
+        // An interrupted run that finished CHK-2 and CHK-4, and was cut off writing CHK-5
+        Files.writeString(checkpoint, "period=" + PERIOD + "\nstarted=2026-10-01T00:00\nCHK-2\nCHK-4\nCHK-",
+                StandardCharsets.UTF_8);
+        List<Account> accounts = new ArrayList<>();
+        for (String number : List.of("CHK-1", "CHK-2", "CHK-3", "CHK-4", "CHK-5")) {
+            accounts.add(new CheckingAccount(number, amount("100")));
+        }
+
+        EndOfPeriodReport report = new EndOfPeriodProcessor(new TransactionService(), 2)
+                .run(accounts, PERIOD, checkpoint);
+
+        assertEquals(3, report.getAccountsProcessed());
+        assertEquals(2, report.getAccountsSkipped());
+        assertEquals(List.of("95.00", "100.00", "95.00", "100.00", "95.00"),
+                accounts.stream().map(account -> account.getBalance().toPlainString()).toList());
+        List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+        assertEquals(List.of("CHK-1", "CHK-2", "CHK-3", "CHK-4", "CHK-5"),
+                lines.subList(2, lines.size()).stream().sorted().toList());
+    }
+
+    @Test
+    void waitsForDurabilityWithoutHoldingTheAccountLock() throws IOException {
+        TransactionLedger ledger = new TransactionLedger();
+        List<String> accountNumbers = List.of("CHK-1", "CHK-2", "CHK-3");
+        AtomicInteger waits = new AtomicInteger();
+        AtomicInteger waitsUnderLock = new AtomicInteger();
+        LedgerJournal journal = new LedgerJournal() {
+            private long sequence;
+
+            @Override
+            public synchronized long append(LedgerRecord record) {
+                return ++sequence;
+            }
+
+            @Override
+            public void awaitDurable(long sequence) {
+                waits.incrementAndGet();
+                for (String accountNumber : accountNumbers) {
+                    if (ledger.lockFor(accountNumber).isHeldByCurrentThread()) {
+                        waitsUnderLock.incrementAndGet();
+                    }
+                }
+            }
+        };
+        List<Account> accounts = new ArrayList<>();
+        for (String number : accountNumbers) {
+            accounts.add(new CheckingAccount(number, amount("100")));
+        }
+
+        new EndOfPeriodProcessor(new TransactionService(ledger, journal), 2)
+                .run(accounts, PERIOD, directory.resolve("eod.checkpoint"));
+
+        assertEquals(3, waits.get());
+        assertEquals(0, waitsUnderLock.get());
+    }
+
+    private static BigDecimal amount(String value) {
+        return new BigDecimal(value);
+    }
+}
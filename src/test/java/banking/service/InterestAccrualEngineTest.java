@@ -0,0 +1,98 @@
+package banking.service;
+
+import banking.account.Account;
+import banking.account.SavingsAccount;
+import banking.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterestAccrualEngineTest {
+    private final TransactionService service = new TransactionService();
+    private final InterestAccrualEngine engine = new InterestAccrualEngine(service);
+
+    @Test
+    void smallBalanceEarnsItsInterestAtMonthEnd() {
+        Account account = new SavingsAccount("SAV-1", amount("100"));
+
+        // 1.5% on $100 is under half a cent a day, which rounded daily would never post
+        for (LocalDate date = LocalDate.of(2026, 10, 1); date.isBefore(LocalDate.of(2026, 10, 31)); date = date.plusDays(1)) {
+            engine.accrue(List.of(account), date);
+        }
+        assertEquals(amount("100.00"), account.getBalance());
+        assertEquals(amount("0.12"), engine.getPendingInterest("SAV-1").toBigDecimal());
+
+        // 31 days: 12.74 cents, of which 12 are posted and 0.74 carried
+        engine.accrue(List.of(account), LocalDate.of(2026, 10, 31));
+        assertEquals(amount("100.12"), account.getBalance());
+        List<Transaction> history = service.getTransactionHistory("SAV-1");
+        assertEquals(1, history.size());
+        assertEquals(Transaction.TransactionType.INTEREST, history.get(0).getType());
+        assertEquals("Interest 2026-10", history.get(0).getDescription());
+
+        // 30 days on $100.12 is 12.34 cents; with the carried 0.74 that makes 13
+        engine.accrue(List.of(account), LocalDate.of(2026, 11, 30));
+        assertEquals(amount("100.25"), account.getBalance());
+    }
+
+    @Test
+    void skippedDaysAreAccruedAndRepeatedDatesRefused() {
+        Account account = new SavingsAccount("SAV-2", amount("100"));
+
+        engine.accrue(List.of(account), LocalDate.of(2026, 10, 1));
+        InterestAccrualReport report = engine.accrue(List.of(account), LocalDate.of(2026, 10, 31));
+
+        assertEquals(30, report.getDays());
+        assertEquals(1, report.getPostings());
+        assertEquals(amount("100.12"), account.getBalance());
+        assertThrows(IllegalStateException.class, () -> engine.accrue(List.of(account), LocalDate.of(2026, 10, 31)));
+        assertThrows(IllegalStateException.class, () -> engine.accrue(List.of(account), LocalDate.of(2026, 10, 15)));
+        assertEquals(amount("100.12"), account.getBalance());
+        assertEquals(1, service.getTransactionHistory("SAV-2").size());
+    }
+
+    @Test
+    void runSpanningMonthEndPostsTheEarlierMonth() {
+        Account account = new SavingsAccount("SAV-3", amount("1000000"));
+
+        engine.accrue(List.of(account), LocalDate.of(2026, 10, 30));
+        engine.accrue(List.of(account), LocalDate.of(2026, 11, 2));
+
+        // Two days of October are posted; November's two days, with October's 0.18 of a cent, stay pending
+        List<Transaction> history = service.getTransactionHistory("SAV-3");
+        assertEquals(1, history.size());
+        assertEquals("Interest 2026-10", history.get(0).getDescription());
+        assertEquals(amount("82.19"), history.get(0).getAmount());
+        assertEquals(amount("82.20"), engine.getPendingInterest("SAV-3").toBigDecimal());
+    }
+
+    @Test
+    void dailyAccrualAddsUpToTheExactInterest() {
+        long[] balances = {1, 9_999, 12_167, 50_000_000, 300_000_000_000L, Long.MAX_VALUE / 2};
+        long[] rates = {15_000, 15_000, 25_000, 15_000, 25_000, 1_000};
+        long[] cents = new long[balances.length];
+        long[] remainders = new long[balances.length];
+
+        for (int day = 0; day < InterestAccrualEngine.DAYS_PER_YEAR; day++) {
+            InterestAccrualEngine.accrue(balances, rates, 1, cents, remainders);
+        }
+
+        // A year of daily accruals loses nothing to rounding: the posted cents are the exact
+        // interest for the year, truncated
+        for (int i = 0; i < balances.length; i++) {
+            BigDecimal exact = InterestAccrualEngine.referenceInterest(BigDecimal.valueOf(balances[i], 2),
+                    BigDecimal.valueOf(rates[i], InterestAccrualEngine.RATE_DECIMALS), InterestAccrualEngine.DAYS_PER_YEAR);
+            assertEquals(exact.setScale(2, RoundingMode.DOWN).movePointRight(2).longValueExact(), cents[i], "balance " + balances[i]);
+            assertTrue(remainders[i] >= 0 && remainders[i] < InterestAccrualEngine.DIVISOR);
+        }
+    }
+
+    private static BigDecimal amount(String value) {
+        return new BigDecimal(value);
+    }
+}
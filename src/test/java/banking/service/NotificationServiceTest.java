@@ -0,0 +1,36 @@
+package banking.service;
+
+import banking.event.EventLog;
+import banking.event.EventSink;
+import banking.event.EventType;
+import banking.model.Notification;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationServiceTest {
+    @Test
+    void failingSinkCostsOneBatchNotTheDispatcher() {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        EventSink previous = EventLog.getSink();
+        EventLog.setSink(event -> {
+            if (failing.get() && event.getType() == EventType.NOTIFICATION_SENT) {
+                throw new IllegalStateException("sink down");
+            }
+        });
+        try (NotificationService service = new NotificationService()) {
+            service.sendNotification("CUST-1", "First", "its batch fails", Notification.NotificationType.INFO);
+            service.flush();
+            failing.set(false);
+            service.sendNotification("CUST-1", "Second", "delivered", Notification.NotificationType.INFO);
+
+            assertEquals("Second", service.getCustomerNotifications("CUST-1").get(1).getTitle());
+            assertEquals(1, service.getFailedCount());
+            assertEquals(1, service.getDeliveredCount());
+        } finally {
+            EventLog.setSink(previous);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package banking.service;
+
+import banking.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionLedgerTest {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 10, 1, 9, 0);
+
+    @Test
+    void forEachInRangeVisitsTheSameSliceAsRange() throws IOException {
+        TransactionLedger ledger = new TransactionLedger();
+        // Ten postings per minute, so several pages end between postings with equal timestamps
+        for (int i = 0; i < 1_000; i++) {
+            ledger.append("CHK-1", posting("TXN-" + i, START.plusMinutes(i / 10)));
+        }
+        LocalDateTime from = START.plusMinutes(3);
+        LocalDateTime to = START.plusMinutes(90);
+
+        List<Transaction> visited = new ArrayList<>();
+        ledger.forEachInRange("CHK-1", from, to, visited::add);
+
+        assertEquals(870, visited.size());
+        assertEquals(ledger.range("CHK-1", from, to), visited);
+    }
+
+    @Test
+    void postingsDuringTheWalkAreNeitherRepeatedNorSkipped() throws IOException {
+        TransactionLedger ledger = new TransactionLedger();
+        for (int i = 0; i < 600; i++) {
+            ledger.append("CHK-1", posting("TXN-" + i, START));
+        }
+
+        List<Transaction> visited = new ArrayList<>();
+        ledger.forEachInRange("CHK-1", START, START.plusMinutes(1), transaction -> {
+            if (visited.isEmpty()) {
+                ledger.append("CHK-1", posting("TXN-late", START));
+            }
+            visited.add(transaction);
+        });
+
+        assertEquals(601, visited.size());
+        assertEquals(601, visited.stream().distinct().count());
+        assertEquals("TXN-late", visited.get(600).getTransactionId());
+    }
+
+    @Test
+    void unknownAccountVisitsNothing() throws IOException {
+        new TransactionLedger().forEachInRange("CHK-9", START, START.plusDays(1),
+                transaction -> fail("visited " + transaction.getTransactionId()));
+    }
+
+    private static Transaction posting(String id, LocalDateTime timestamp) {
+        return new Transaction(id, "CHK-1", Transaction.TransactionType.DEPOSIT, BigDecimal.ONE, "posting", timestamp);
+    }
+}
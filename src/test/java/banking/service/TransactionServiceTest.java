@@ -0,0 +1,185 @@
+package banking.service;
+
+import banking.account.Account;
+import banking.account.CheckingAccount;
+import banking.account.SavingsAccount;
+import banking.account.decorators.AccountDecorator;
+import banking.account.decorators.CompiledAccount;
+import banking.account.decorators.OverdraftProtectionDecorator;
+import banking.account.decorators.RewardPointsDecorator;
+import banking.account.decorators.TaxOptimizerDecorator;
+import banking.model.BatchOperation;
+import banking.model.BatchResult;
+import banking.persistence.LedgerJournal;
+import banking.persistence.LedgerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionServiceTest {
+    private final TransactionService service = new TransactionService();
+
+    @Test
+    void transferMovesMoneyBetweenAccounts() {
+        Account from = new SavingsAccount("SAV-1", amount("500"));
+        Account to = new SavingsAccount("SAV-2", amount("100"));
+
+        service.transfer(from, to, amount("200"), "rent");
+
+        assertEquals(amount("300.00"), from.getBalance());
+        assertEquals(amount("300.00"), to.getBalance());
+        assertEquals(1, service.getTransactionHistory("SAV-1").size());
+        assertEquals(1, service.getTransactionHistory("SAV-2").size());
+    }
+
+    @Test
+    void failedTransferFromOverdrawnAccountLeavesOverdraftUnchanged() {
+        TaxOptimizerDecorator tax = new TaxOptimizerDecorator(new CheckingAccount("CHK-1", BigDecimal.ZERO), amount("0.20"));
+        Account from = OverdraftProtectionDecorator.attach(tax, amount("2000"));
+        from.withdraw(amount("500"));
+        OverdraftProtectionDecorator overdraft = from.getBenefit(OverdraftProtectionDecorator.class);
+        BigDecimal availableBefore = overdraft.getAvailableOverdraft();
+        BigDecimal savingsBefore = tax.getTotalTaxSavings();
+
+        Account to = new RejectingDeposits(new SavingsAccount("SAV-3", BigDecimal.ZERO));
+        assertThrows(IllegalStateException.class, () -> service.transfer(from, to, amount("300"), "bounced"));
+
+        assertEquals(amount("0.00"), from.getBalance());
+        assertEquals(availableBefore, overdraft.getAvailableOverdraft());
+        assertEquals(amount("500.00"), overdraft.getUsedOverdraft());
+        assertEquals(0, savingsBefore.compareTo(tax.getTotalTaxSavings()));
+        assertEquals(amount("0.00"), to.getBalance());
+        assertTrue(service.getTransactionHistory("CHK-1").isEmpty());
+    }
+
+    @Test
+    void failedTransferPutsBalanceBackWhenOverdraftWasAlreadyUsed() {
+        Account from = CompiledAccount.compile(
+                OverdraftProtectionDecorator.attach(new CheckingAccount("CHK-2", amount("100")), amount("2000"), amount("500")));
+        OverdraftProtectionDecorator overdraft = from.getBenefit(OverdraftProtectionDecorator.class);
+
+        Account to = new RejectingDeposits(new SavingsAccount("SAV-4", BigDecimal.ZERO));
+        assertThrows(IllegalStateException.class, () -> service.transfer(from, to, amount("300"), "bounced"));
+
+        // 100 came from the balance and 200 from the facility; each goes back where it came from
+        assertEquals(amount("100.00"), from.getBalance());
+        assertEquals(amount("500.00"), overdraft.getUsedOverdraft());
+        assertEquals(amount("1500.00"), overdraft.getAvailableOverdraft());
+    }
+
+    @Test
+    void outOfRangeBatchItemFailsAloneBeforeTouchingTheBalance() {
+        Account account = new SavingsAccount("SAV-5", amount("100"));
+
+        List<BatchResult> results = service.recordBatch(account, List.of(
+                BatchOperation.deposit("SAV-5", amount("50"), "first"),
+                BatchOperation.deposit("SAV-5", new BigDecimal("1e20"), "too large"),
+                BatchOperation.withdrawal("SAV-5", amount("30"), "third")));
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals(amount("120.00"), account.getBalance());
+        assertEquals(2, service.getTransactionHistory("SAV-5").size());
+    }
+
+    @Test
+    void journalFailureRollsBackTheBatchItem() {
+        RefusingJournal journal = new RefusingJournal("refused");
+        TransactionService journaled = new TransactionService(new TransactionLedger(), journal);
+        RewardPointsDecorator rewards = new RewardPointsDecorator(new CheckingAccount("CHK-3", amount("100")), BigDecimal.ONE);
+        Account account = OverdraftProtectionDecorator.attach(rewards, amount("500"));
+        int pointsBefore = rewards.getRewardPoints();
+
+        List<BatchResult> results = journaled.recordBatch(account, List.of(
+                BatchOperation.deposit("CHK-3", amount("200"), "refused"),
+                BatchOperation.withdrawal("CHK-3", amount("400"), "refused"),
+                BatchOperation.deposit("CHK-3", amount("25"), "kept")));
+
+        assertFalse(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals(amount("125.00"), account.getBalance());
+        assertEquals(amount("0.00"), account.getBenefit(OverdraftProtectionDecorator.class).getUsedOverdraft());
+        assertEquals(pointsBefore + 25, rewards.getRewardPoints());
+        assertEquals(1, journal.appended);
+        assertEquals(1, journaled.getTransactionHistory("CHK-3").size());
+    }
+
+    @Test
+    void journalFailureLeavesNoTraceOfASingleTransaction() {
+        TransactionService journaled = new TransactionService(new TransactionLedger(), new RefusingJournal("refused"));
+        Account account = OverdraftProtectionDecorator.attach(new CheckingAccount("CHK-4", amount("100")), amount("500"));
+
+        assertThrows(IllegalStateException.class, () -> journaled.recordWithdrawal(account, amount("300"), "refused"));
+
+        assertEquals(amount("100.00"), account.getBalance());
+        assertEquals(amount("0.00"), account.getBenefit(OverdraftProtectionDecorator.class).getUsedOverdraft());
+        assertTrue(journaled.getTransactionHistory("CHK-4").isEmpty());
+    }
+
+    @Test
+    void journalFailureUndoesBothLegsOfATransfer() {
+        RefusingJournal journal = new RefusingJournal("refused");
+        TransactionService journaled = new TransactionService(new TransactionLedger(), journal);
+        Account from = OverdraftProtectionDecorator.attach(new CheckingAccount("CHK-5", amount("100")), amount("500"));
+        RewardPointsDecorator to = new RewardPointsDecorator(new SavingsAccount("SAV-6", amount("50")), BigDecimal.ONE);
+        int pointsBefore = to.getRewardPoints();
+
+        assertThrows(IllegalStateException.class, () -> journaled.transfer(from, to, amount("300"), "refused"));
+
+        assertEquals(amount("100.00"), from.getBalance());
+        assertEquals(amount("0.00"), from.getBenefit(OverdraftProtectionDecorator.class).getUsedOverdraft());
+        assertEquals(amount("50.00"), to.getBalance());
+        assertEquals(pointsBefore, to.getRewardPoints());
+        assertEquals(0, journal.appended);
+        assertTrue(journaled.getTransactionHistory("CHK-5").isEmpty());
+        assertTrue(journaled.getTransactionHistory("SAV-6").isEmpty());
+    }
+
+    private static BigDecimal amount(String value) {
+        return new BigDecimal(value);
+    }
+
+    // A benefit that refuses every deposit, so the deposit leg fails after the withdrawal
+    private static final class RejectingDeposits extends AccountDecorator {
+        RejectingDeposits(Account account) {
+            super(account);
+        }
+
+        @Override
+        public String getDescription() {
+            return decoratedAccount.getDescription() + " + Deposits Suspended";
+        }
+
+        @Override
+        public void onDeposit(BigDecimal amount, Account next) {
+            throw new IllegalStateException("Deposits suspended for " + next.getAccountNumber());
+        }
+    }
+
+    // Refuses every record whose description matches, as a full or failing disk would
+    private static final class RefusingJournal implements LedgerJournal {
+        private final String refusedDescription;
+        private int appended;
+
+        RefusingJournal(String refusedDescription) {
+            this.refusedDescription = refusedDescription;
+        }
+
+        @Override
+        public long append(LedgerRecord record) {
+            if (refusedDescription.equals(record.getText())) {
+                throw new IllegalStateException("Journal refused " + record.getTransactionId());
+            }
+            return ++appended;
+        }
+
+        @Override
+        public void awaitDurable(long sequence) {
+        }
+    }
+}